@@ -0,0 +1,148 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.JsonNodeType;
+import tools.jackson.databind.node.ObjectNode;
+
+import com.vaadin.hilla.EndpointInvocationException.EndpointBadRequestException;
+
+/**
+ * Parses, runs and writes the results of a batch of endpoint calls sent in a
+ * single request.
+ * <p>
+ * The calls of a batch are run concurrently, each one on its own virtual
+ * thread. The security context, the request attributes and the Vaadin current
+ * instances of the request thread are made available to every call.
+ */
+final class EndpointBatch {
+
+    /**
+     * A single call of a batch.
+     */
+    record Call(String endpoint, String method, ObjectNode params) {
+    }
+
+    /**
+     * The result of a single call of a batch.
+     *
+     * @param status
+     *            the HTTP status code of the call
+     * @param body
+     *            the JSON body of the call, or {@code null} if there is none
+     */
+    record Result(int status, String body) {
+    }
+
+    private EndpointBatch() {
+    }
+
+    /**
+     * Reads the calls of a batch.
+     *
+     * @param calls
+     *            the array of calls, each one having the {@code endpoint} and
+     *            {@code method} names and optional {@code params}
+     * @param maxCalls
+     *            the maximum number of calls allowed in a batch
+     * @return the calls
+     * @throws EndpointBadRequestException
+     *             if there are too many calls or a call is malformed
+     */
+    static List<Call> parse(ArrayNode calls, int maxCalls)
+            throws EndpointBadRequestException {
+        if (calls.size() > maxCalls) {
+            throw new EndpointBadRequestException(String.format(
+                    "Batch request contains %d calls, the maximum is %d",
+                    calls.size(), maxCalls));
+        }
+        List<Call> result = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            JsonNode call = calls.get(i);
+            JsonNode endpoint = call.get("endpoint");
+            JsonNode method = call.get("method");
+            JsonNode params = call.get("params");
+            if (!call.isObject() || !isString(endpoint) || !isString(method)
+                    || (params != null && !params.isNull()
+                            && !params.isObject())) {
+                throw new EndpointBadRequestException(String.format(
+                        "Batch request call at index %d must be an object "
+                                + "with 'endpoint' and 'method' names and "
+                                + "optional 'params' object",
+                        i));
+            }
+            result.add(new Call(endpoint.asText(), method.asText(),
+                    params instanceof ObjectNode object ? object : null));
+        }
+        return result;
+    }
+
+    /**
+     * Runs the calls of a batch concurrently and waits for all of them to
+     * complete.
+     *
+     * @param calls
+     *            the calls to run
+     * @param runner
+     *            the function running a single call, which is expected to
+     *            report failures as results rather than throw
+     * @return the results, in the same order as the calls
+     */
+    static List<Result> run(List<Call> calls, Function<Call, Result> runner) {
+        if (calls.size() == 1) {
+            return List.of(runner.apply(calls.get(0)));
+        }
+        var futures = calls.stream()
+                .map(call -> CompletableFuture.supplyAsync(
+                        EndpointExecutor.withRequestContext(
+                                () -> runner.apply(call)),
+                        EndpointExecutor.getVirtualThreadExecutor()))
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Writes the results of a batch as a JSON array of objects having the
+     * {@code status} and, if any, the {@code body} of each call.
+     *
+     * @param results
+     *            the results to write
+     * @return the JSON string
+     */
+    static String write(List<Result> results) {
+        var json = new StringJoiner(",", "[", "]");
+        for (Result result : results) {
+            // The bodies are serialized JSON already
+            json.add(result.body() == null
+                    ? "{\"status\":" + result.status() + "}"
+                    : "{\"status\":" + result.status() + ",\"body\":"
+                            + result.body() + "}");
+        }
+        return json.toString();
+    }
+
+    private static boolean isString(JsonNode node) {
+        return node != null && node.getNodeType() == JsonNodeType.STRING;
+    }
+}
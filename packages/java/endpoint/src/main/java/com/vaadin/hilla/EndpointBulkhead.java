@@ -0,0 +1,57 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits the number of concurrent calls of an endpoint or of an endpoint
+ * method.
+ * <p>
+ * When placed on an endpoint class, the limit is shared by all the methods of
+ * the endpoint. When placed on a method, the method gets its own limit, which
+ * takes precedence over the one of the class. Calls exceeding the limit wait
+ * for a free slot as long as there are less than {@link #maxQueuedCalls()}
+ * waiting calls, otherwise they are rejected with the
+ * {@code 503 Service Unavailable} status.
+ * <p>
+ * Endpoints without this annotation use the limits configured with the
+ * {@code vaadin.endpoint.max-concurrent-calls} and
+ * {@code vaadin.endpoint.max-queued-calls} properties, if any.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EndpointBulkhead {
+
+    /**
+     * The maximum number of calls that can run concurrently.
+     *
+     * @return the maximum number of concurrent calls, must be positive
+     */
+    int maxConcurrentCalls();
+
+    /**
+     * The maximum number of calls that can wait for a free slot when the
+     * concurrency limit is reached. Defaults to {@code 0}, rejecting the calls
+     * right away.
+     *
+     * @return the maximum number of waiting calls
+     */
+    int maxQueuedCalls() default 0;
+}
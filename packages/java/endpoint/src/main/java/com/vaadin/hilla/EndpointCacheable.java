@@ -0,0 +1,88 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the serialized responses of an endpoint method, so that calls with
+ * the same parameters are answered without invoking the method again.
+ * <p>
+ * When placed on an endpoint class, the annotation applies to all the methods
+ * of the endpoint that are not annotated themselves. Only use it for methods
+ * whose result depends on nothing but their parameters and, depending on the
+ * {@link #scope()}, on the user.
+ * <p>
+ * Access control is applied to every call, including the ones answered from
+ * the cache. Cached responses can be invalidated with the
+ * {@link EndpointResponseCache} bean.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EndpointCacheable {
+
+    /**
+     * Defines which users share the cached responses.
+     */
+    enum Scope {
+        /**
+         * The responses are shared by all users.
+         */
+        SHARED,
+        /**
+         * The responses are cached separately for every user principal.
+         */
+        PRINCIPAL,
+        /**
+         * The responses are shared by the users having the same Spring
+         * Security authorities.
+         */
+        AUTHORITIES
+    }
+
+    /**
+     * How long a response stays in the cache, in {@link #timeUnit()} units.
+     *
+     * @return the time to live of the cached responses
+     */
+    long ttl() default 60;
+
+    /**
+     * The unit of {@link #ttl()}.
+     *
+     * @return the time unit
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    /**
+     * The maximum number of responses kept for the method. The least recently
+     * used responses are evicted first.
+     *
+     * @return the maximum number of cached responses
+     */
+    int maxEntries() default 1000;
+
+    /**
+     * Which users share the cached responses.
+     *
+     * @return the cache scope
+     */
+    Scope scope() default Scope.SHARED;
+}
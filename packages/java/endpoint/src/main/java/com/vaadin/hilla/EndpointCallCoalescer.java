@@ -0,0 +1,149 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Shares the execution of identical concurrent calls of the endpoint methods
+ * annotated with {@link EndpointCoalescing}.
+ * <p>
+ * The calls are identified by the same keys as the cached responses of
+ * {@link EndpointResponseCache}. A call is coalesced when it arrives while a
+ * call with the same key is running, in which case it waits for the running
+ * call and returns its response.
+ */
+public class EndpointCallCoalescer {
+
+    private final Map<String, CompletableFuture<ResponseEntity<String>>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Checks whether the calls of the method of the given plan are coalesced.
+     *
+     * @param plan
+     *            the invocation plan of the method
+     * @return {@code true} if the calls are coalesced, {@code false}
+     *         otherwise
+     */
+    boolean isCoalesced(EndpointInvocationPlan plan) {
+        return getAnnotation(plan).isPresent();
+    }
+
+    /**
+     * Creates the key identifying the identical calls.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method
+     * @param plan
+     *            the invocation plan of the method, which must be coalesced
+     * @param body
+     *            the call parameters, or {@code null} if there are none
+     * @param principal
+     *            the user principal, or {@code null} for anonymous calls
+     * @return the call key
+     */
+    String createKey(String endpointName, String methodName,
+            EndpointInvocationPlan plan, ObjectNode body,
+            Principal principal) {
+        return EndpointCallKey.of(endpointName, methodName, plan, body,
+                principal, getAnnotation(plan).orElseThrow().scope());
+    }
+
+    /**
+     * Runs a call, unless an identical call is running, in which case its
+     * response is awaited instead.
+     *
+     * @param key
+     *            the key of the call
+     * @param call
+     *            the call, which reports failures as responses
+     * @return the response of the call
+     * @throws IllegalStateException
+     *             if the identical running call that was awaited failed, with
+     *             its exception as the cause
+     */
+    ResponseEntity<String> execute(String key,
+            Supplier<ResponseEntity<String>> call) {
+        var flight = new CompletableFuture<ResponseEntity<String>>();
+        var running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                // Every waiter gets its own exception, as the one of the
+                // running call is thrown on its own thread
+                throw new IllegalStateException(String.format(
+                        "The identical running call '%s' failed", key),
+                        e.getCause());
+            }
+        }
+
+        executions.increment();
+        try {
+            ResponseEntity<String> response = call.get();
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Gets the number of calls of coalesced methods that invoked the method.
+     *
+     * @return the number of executed calls
+     */
+    public long getExecutionCount() {
+        return executions.sum();
+    }
+
+    /**
+     * Gets the number of calls that received the response of an identical
+     * running call instead of invoking the method.
+     *
+     * @return the number of coalesced calls
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    private static Optional<EndpointCoalescing> getAnnotation(
+            EndpointInvocationPlan plan) {
+        EndpointCoalescing coalescing = plan.getMethod()
+                .getAnnotation(EndpointCoalescing.class);
+        return Optional.ofNullable(coalescing != null ? coalescing
+                : plan.getEndpointClass()
+                        .getAnnotation(EndpointCoalescing.class));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The JDK Flight Recorder event of an endpoint method call, lasting from the
+ * start of the call to the end of the serialization of its return value.
+ * <p>
+ * By default, only the calls taking at least 20 milliseconds are recorded.
+ */
+@Name(EndpointCallEvent.NAME)
+@Label("Endpoint Call")
+@Description("A call of a Hilla endpoint method")
+@Category({ "Hilla", "Endpoint" })
+@StackTrace(false)
+@Threshold("20 ms")
+final class EndpointCallEvent extends Event {
+    static final String NAME = "com.vaadin.hilla.EndpointCall";
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Method")
+    String method;
+
+    @Label("Request Size")
+    @Description("The size of the request body, or -1 if unknown")
+    @DataAmount
+    long requestSize = -1;
+
+    @Label("Response Size")
+    @Description("The size of the serialized return value, or -1 if unknown")
+    @DataAmount
+    long responseSize = -1;
+
+    @Label("Error")
+    @Description("The type of the exception the call failed with, if any")
+    String error;
+}
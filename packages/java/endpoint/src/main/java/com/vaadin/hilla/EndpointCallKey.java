@@ -0,0 +1,125 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.JsonNodeFactory;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Creates the keys identifying identical endpoint calls, used to share their
+ * responses.
+ * <p>
+ * A key is made of the endpoint and method names in lower case separated by a
+ * dot, the canonical JSON of the call parameters, and, depending on the scope,
+ * a {@code #} followed by the principal name or the authorities of the user.
+ * For example, {@code countryendpoint.list{"region":"EU"}}.
+ */
+final class EndpointCallKey {
+
+    private EndpointCallKey() {
+    }
+
+    /**
+     * Gets the key prefix shared by all the calls of an endpoint method.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method
+     * @return the method key prefix
+     */
+    static String of(String endpointName, String methodName) {
+        return endpointName.toLowerCase(Locale.ENGLISH) + "."
+                + methodName.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Creates the key of a call.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method
+     * @param plan
+     *            the invocation plan of the method
+     * @param body
+     *            the call parameters, or {@code null} if there are none
+     * @param principal
+     *            the user principal, or {@code null} for anonymous calls
+     * @param scope
+     *            which users share the key
+     * @return the key of the call
+     */
+    static String of(String endpointName, String methodName,
+            EndpointInvocationPlan plan, ObjectNode body, Principal principal,
+            EndpointCacheable.Scope scope) {
+        // Named parameters are bound by name, so their order is irrelevant
+        boolean namedParameters = body != null && plan.getParameterNames()
+                .containsAll(body.propertyNames());
+        String parameters = body == null ? "{}"
+                : canonicalize(body, namedParameters).toString();
+        String user = switch (scope) {
+        case SHARED -> "";
+        case PRINCIPAL -> principal == null ? "#" : "#" + principal.getName();
+        case AUTHORITIES -> "#" + getAuthorities();
+        };
+        return of(endpointName, methodName) + parameters + user;
+    }
+
+    private static String getAuthorities() {
+        Authentication authentication = SecurityContextHolder.getContext()
+                .getAuthentication();
+        if (authentication == null) {
+            return "";
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private static JsonNode canonicalize(JsonNode node,
+            boolean sortProperties) {
+        if (node instanceof ObjectNode object) {
+            var names = new ArrayList<>(object.propertyNames());
+            if (sortProperties) {
+                Collections.sort(names);
+            }
+            ObjectNode result = JsonNodeFactory.instance.objectNode();
+            for (String name : names) {
+                result.set(name, canonicalize(object.get(name), true));
+            }
+            return result;
+        } else if (node instanceof ArrayNode array) {
+            ArrayNode result = JsonNodeFactory.instance.arrayNode();
+            for (JsonNode element : array) {
+                result.add(canonicalize(element, true));
+            }
+            return result;
+        }
+        return node;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+
+import com.vaadin.hilla.EndpointInvocationException.EndpointInternalException;
+
+/**
+ * Follows the phases of a single endpoint method call, reporting them to the
+ * metrics, to the span of the call, to the Flight Recorder event of the call
+ * and, if requested, to the {@code Server-Timing} header of the response.
+ * <p>
+ * When nothing is reported, the {@link #NONE} instance is used, which does not
+ * even read the clock.
+ */
+final class EndpointCallTrace {
+    /**
+     * The name of the response header listing the durations of the phases.
+     */
+    static final String SERVER_TIMING = "Server-Timing";
+
+    /**
+     * The trace that reports nothing.
+     */
+    static final EndpointCallTrace NONE = new EndpointCallTrace(null,
+            EndpointMetrics.NONE, null, null, false);
+
+    private final EndpointRoute route;
+    private final EndpointMetrics metrics;
+    private final EndpointTracer.Span span;
+    private final EndpointCallEvent event;
+    private final long[] phaseNanos;
+    private int timedPhases;
+
+    EndpointCallTrace(EndpointRoute route, EndpointMetrics metrics,
+            EndpointTracer.Span span, EndpointCallEvent event,
+            boolean serverTiming) {
+        this.route = route;
+        this.metrics = metrics;
+        this.span = span;
+        this.event = event;
+        if (event != null) {
+            event.begin();
+        }
+        this.phaseNanos = serverTiming
+                ? new long[EndpointMetrics.Phase.values().length]
+                : null;
+    }
+
+    /**
+     * Checks whether anything is reported.
+     *
+     * @return {@code true} if the phases are reported, {@code false}
+     *         otherwise
+     */
+    boolean isActive() {
+        return this != NONE;
+    }
+
+    /**
+     * Gets the start time of a phase.
+     *
+     * @return the current time in nanoseconds, or {@code 0} if nothing is
+     *         reported
+     */
+    long start() {
+        return this == NONE ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Reports a phase which is over.
+     * <p>
+     * The phases of a call run one after the other, possibly on different
+     * threads handing over the call, so they are not reported concurrently.
+     *
+     * @param phase
+     *            the phase
+     * @param start
+     *            the start time of the phase, as given by {@link #start()}
+     */
+    void end(EndpointMetrics.Phase phase, long start) {
+        if (start == 0) {
+            return;
+        }
+        long end = System.nanoTime();
+        if (metrics.isEnabled()) {
+            metrics.recordPhase(route.getEndpointName(), route.getMethodName(),
+                    phase, end - start);
+        }
+        if (span != null) {
+            span.addPhase(phase, start, end);
+        }
+        if (phaseNanos != null) {
+            phaseNanos[phase.ordinal()] += end - start;
+            timedPhases |= 1 << phase.ordinal();
+        }
+    }
+
+    /**
+     * Makes the span of the call current on the calling thread, which runs
+     * the endpoint method.
+     *
+     * @return the scope to close once the method has returned
+     */
+    EndpointTracer.Scope makeCurrent() {
+        return span != null ? span.makeCurrent() : EndpointTracer.Scope.NONE;
+    }
+
+    /**
+     * Reports the size of the request body to the Flight Recorder event of
+     * the call. The metrics get it from
+     * {@link EndpointInvoker#recordRequestSize(EndpointRoute, long)}, which
+     * also covers the shared calls.
+     *
+     * @param size
+     *            the size of the request body, or {@code -1} if unknown
+     */
+    void setRequestSize(long size) {
+        if (event != null) {
+            event.requestSize = size;
+        }
+    }
+
+    /**
+     * Reports the size of the serialized return value.
+     *
+     * @param size
+     *            the size of the serialized return value
+     */
+    void recordResponseSize(long size) {
+        if (metrics.isEnabled()) {
+            metrics.recordResponseSize(route.getEndpointName(),
+                    route.getMethodName(), size);
+        }
+        if (event != null) {
+            event.responseSize = size;
+        }
+    }
+
+    /**
+     * Reports the failure of the call.
+     *
+     * @param error
+     *            the exception the call failed with
+     */
+    void recordError(Throwable error) {
+        // The unexpected failures of the method are reported with their own
+        // type rather than as internal errors
+        Throwable cause = error instanceof EndpointInternalException
+                && error.getCause() != null ? error.getCause() : error;
+        if (metrics.isEnabled()) {
+            metrics.recordError(route.getEndpointName(), route.getMethodName(),
+                    cause.getClass());
+        }
+        if (span != null) {
+            span.setError(cause);
+        }
+        if (event != null) {
+            event.error = cause.getClass().getName();
+        }
+    }
+
+    /**
+     * Ends the span and the Flight Recorder event of the call, once all its
+     * phases are over. It must be called once.
+     */
+    void finish() {
+        if (span != null) {
+            span.end();
+        }
+        if (event != null) {
+            event.end();
+            // Below the threshold, the names are not even copied
+            if (event.shouldCommit()) {
+                event.endpoint = route.getEndpointName();
+                event.method = route.getMethodName();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Gets the value of the {@code Server-Timing} header, listing the total
+     * duration of every phase so far in milliseconds.
+     *
+     * @return the header value, or {@code null} if the header is not
+     *         requested or no phase is over
+     */
+    String getServerTiming() {
+        if (phaseNanos == null || timedPhases == 0) {
+            return null;
+        }
+        var serverTiming = new StringJoiner(", ");
+        for (var phase : EndpointMetrics.Phase.values()) {
+            if ((timedPhases & 1 << phase.ordinal()) != 0) {
+                serverTiming.add(phase.getName() + ";dur=" + String.format(
+                        Locale.ROOT, "%.3f",
+                        phaseNanos[phase.ordinal()] / 1_000_000.0));
+            }
+        }
+        return serverTiming.toString();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.springframework.http.MediaType;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+/**
+ * The CBOR wire format of endpoint calls, used when the request has the
+ * {@code application/cbor} content type.
+ * <p>
+ * Only the token streams are CBOR: the request bodies are read and the return
+ * values are written with the endpoint mapper, so that its configuration and
+ * the transfer mappers apply as they do for JSON.
+ * <p>
+ * This class must only be used when the optional
+ * {@code jackson-dataformat-cbor} dependency is on the classpath, see
+ * {@link EndpointController#CBOR_AVAILABLE}.
+ */
+final class EndpointCborFormat {
+    static final String MEDIA_TYPE_VALUE = "application/cbor";
+
+    static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    /**
+     * Reads a CBOR request body into a tree with the given mapper.
+     *
+     * @param mapper
+     *            the endpoint mapper
+     * @param input
+     *            the request body
+     * @return the body, or {@code null} if it is empty or not an object
+     * @throws JacksonException
+     *             if the body is not valid CBOR
+     */
+    ObjectNode readBody(ObjectMapper mapper, InputStream input)
+            throws JacksonException {
+        try (JsonParser parser = cborMapper.createParser(input)) {
+            JsonNode tree = mapper.readTree(parser);
+            return tree instanceof ObjectNode object ? object : null;
+        }
+    }
+
+    /**
+     * Creates a CBOR generator writing to the given stream. Closing the
+     * generator closes the stream.
+     *
+     * @param output
+     *            the stream to write to
+     * @return the generator
+     */
+    JsonGenerator createGenerator(OutputStream output) {
+        return cborMapper.createGenerator(output);
+    }
+
+    /**
+     * Converts an already serialized JSON body, such as an error object or a
+     * cached response, into CBOR. A body that is not JSON is written as a CBOR
+     * text string.
+     *
+     * @param mapper
+     *            the endpoint mapper
+     * @param json
+     *            the JSON body
+     * @return the CBOR body
+     */
+    byte[] transcode(ObjectMapper mapper, String json) {
+        var output = new ByteArrayOutputStream();
+        try (JsonParser parser = mapper.createParser(json);
+                JsonGenerator generator = createGenerator(output)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        } catch (JacksonException e) {
+            return cborMapper.writeValueAsBytes(json);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coalesces the identical calls of an endpoint method that run at the same
+ * time: the first call invokes the method, and the calls with the same
+ * parameters arriving before it completes wait for it and receive the same
+ * response.
+ * <p>
+ * When placed on an endpoint class, the annotation applies to all the methods
+ * of the endpoint that are not annotated themselves. Only use it for methods
+ * whose result depends on nothing but their parameters and, depending on the
+ * {@link #scope()}, on the user. Access control is applied to every call.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EndpointCoalescing {
+
+    /**
+     * Which users share the response of a call.
+     *
+     * @return the coalescing scope
+     */
+    EndpointCacheable.Scope scope() default EndpointCacheable.Scope.SHARED;
+}
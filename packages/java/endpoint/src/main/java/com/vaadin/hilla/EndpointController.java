@@ -18,27 +18,45 @@ package com.vaadin.hilla;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
 import java.util.Set;
 import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.output.CountingOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
 import tools.jackson.core.JsonPointer;
+import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
 import tools.jackson.databind.node.ObjectNode;
 
 import com.vaadin.flow.internal.CurrentInstance;
@@ -46,10 +64,14 @@ import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.dau.DAUUtils;
 import com.vaadin.flow.server.dau.EnforcementNotificationMessages;
+import com.vaadin.hilla.EndpointInvocationException.EndpointBadRequestException;
+import com.vaadin.hilla.EndpointInvocationException.EndpointContentTooLargeException;
 import com.vaadin.hilla.EndpointInvocationException.EndpointHttpException;
 import com.vaadin.hilla.EndpointInvocationException.EndpointInternalException;
+import com.vaadin.hilla.EndpointRegistry.VaadinEndpointData;
 import com.vaadin.hilla.auth.CsrfChecker;
 import com.vaadin.hilla.auth.EndpointAccessChecker;
+import com.vaadin.hilla.auth.PrincipalSnapshot;
 import com.vaadin.hilla.exception.EndpointException;
 import com.vaadin.hilla.signals.handler.SignalsHandler;
 
@@ -80,11 +102,21 @@ public class EndpointController {
 
     static final String ENDPOINT_METHODS = "/{endpoint}/{method}";
 
+    static final String ENDPOINT_BATCH = "/batch";
+
     /**
      * A qualifier to override the request and response default json mapper.
      */
     public static final String ENDPOINT_MAPPER_FACTORY_BEAN_QUALIFIER = "endpointMapperFactory";
 
+    /**
+     * Whether the optional CBOR support is on the classpath, so that endpoint
+     * calls can use the CBOR wire format.
+     */
+    static final boolean CBOR_AVAILABLE = ClassUtils.isPresent(
+            "tools.jackson.dataformat.cbor.CBORMapper",
+            EndpointController.class.getClassLoader());
+
     private static final Set<Class<?>> INTERNAL_BROWSER_CALLABLES = Set
             .of(SignalsHandler.class);
 
@@ -98,8 +130,16 @@ public class EndpointController {
 
     private final ObjectMapper objectMapper;
 
+    private final EndpointCborFormat cborFormat;
+
     VaadinService vaadinService;
 
+    private EndpointProperties endpointProperties;
+
+    private EndpointResponseCache responseCache = new EndpointResponseCache();
+
+    private EndpointCallCoalescer callCoalescer = new EndpointCallCoalescer();
+
     /**
      * A constructor used to initialize the controller.
      *
@@ -122,6 +162,43 @@ public class EndpointController {
         this.csrfChecker = csrfChecker;
         this.endpointRegistry = endpointRegistry;
         this.objectMapper = objectMapper;
+        this.cborFormat = CBOR_AVAILABLE ? new EndpointCborFormat() : null;
+    }
+
+    /**
+     * Sets the endpoint properties used to configure how endpoint responses
+     * are written.
+     *
+     * @param endpointProperties
+     *            the endpoint properties
+     */
+    @Autowired(required = false)
+    public void setEndpointProperties(EndpointProperties endpointProperties) {
+        this.endpointProperties = endpointProperties;
+    }
+
+    /**
+     * Sets the cache of the responses of the endpoint methods annotated with
+     * {@link EndpointCacheable}.
+     *
+     * @param responseCache
+     *            the response cache
+     */
+    @Autowired(required = false)
+    public void setResponseCache(EndpointResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Sets the coalescer of the identical concurrent calls of the endpoint
+     * methods annotated with {@link EndpointCoalescing}.
+     *
+     * @param callCoalescer
+     *            the call coalescer
+     */
+    @Autowired(required = false)
+    public void setCallCoalescer(EndpointCallCoalescer callCoalescer) {
+        this.callCoalescer = callCoalescer;
     }
 
     /**
@@ -143,12 +220,19 @@ public class EndpointController {
 
         INTERNAL_BROWSER_CALLABLES.stream().map(context::getBeansOfType)
                 .forEach(endpointBeans::putAll);
-        var currentEndpointNames = endpointBeans.values().stream()
-                .map(endpointRegistry::registerEndpoint)
-                .collect(Collectors.toSet());
-        // remove obsolete endpoints
-        endpointRegistry.getEndpoints().keySet()
-                .retainAll(currentEndpointNames);
+        // The obsolete endpoints are dropped at the same time
+        endpointRegistry.registerEndpoints(endpointBeans.values());
+        endpointRegistry.getEndpoints().values()
+                .forEach(endpointInvoker::prepareValidation);
+        if (endpointProperties != null && endpointProperties.isWarmUp()) {
+            var endpoints = endpointRegistry.getEndpoints().values();
+            if (endpointProperties.isWarmUpInBackground()) {
+                Thread.ofPlatform().daemon().name("hilla-endpoint-warm-up")
+                        .start(() -> warmUp(endpoints));
+            } else {
+                warmUp(endpoints);
+            }
+        }
 
         // Temporary Hack
         VaadinService vaadinService = VaadinService.getCurrent();
@@ -157,6 +241,18 @@ public class EndpointController {
         }
     }
 
+    private void warmUp(Collection<VaadinEndpointData> endpoints) {
+        long start = System.nanoTime();
+        try {
+            int methods = endpointInvoker.warmUp(endpoints);
+            LOGGER.info("Warmed up {} endpoint methods in {} ms", methods,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Endpoint warm-up failed, the endpoint methods will "
+                    + "be prepared by their first calls", e);
+        }
+    }
+
     /**
      * Captures and processes the Vaadin endpoint requests.
      * <p>
@@ -190,7 +286,7 @@ public class EndpointController {
             @RequestBody(required = false) ObjectNode body,
             HttpServletRequest request, HttpServletResponse response) {
         return doServeEndpoint(endpointName, methodName, body, request,
-                response);
+                response, false, false);
     }
 
     /**
@@ -219,7 +315,81 @@ public class EndpointController {
             HttpServletRequest request, HttpServletResponse response)
             throws IOException {
         return doServeEndpoint(endpointName, methodName, null, request,
-                response);
+                response, false, false);
+    }
+
+    /**
+     * Captures and processes the Vaadin endpoint requests, binding the method
+     * parameters directly from the request body stream.
+     * <p>
+     * This method works as
+     * {@link #serveEndpoint(String, String, ObjectNode, HttpServletRequest, HttpServletResponse)},
+     * but the request body is not read into an intermediate JSON tree. It is
+     * mapped instead of that method when the
+     * {@code vaadin.endpoint.streaming-request-binding} property is enabled.
+     *
+     * @param endpointName
+     *            the name of an endpoint to address the calls to, not case
+     *            sensitive
+     * @param methodName
+     *            the method name to execute on an endpoint, not case sensitive
+     * @param request
+     *            the current request which triggers the endpoint call
+     * @param response
+     *            the current response
+     * @return execution result as a JSON string or an error message string
+     */
+    @PostMapping(path = ENDPOINT_METHODS, consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> serveStreamingEndpoint(
+            @PathVariable("endpoint") String endpointName,
+            @PathVariable("method") String methodName,
+            HttpServletRequest request, HttpServletResponse response) {
+        return doServeEndpoint(endpointName, methodName, null, request,
+                response, true, false);
+    }
+
+    /**
+     * Captures and processes the Vaadin endpoint requests using the CBOR wire
+     * format.
+     * <p>
+     * This method works as
+     * {@link #serveEndpoint(String, String, ObjectNode, HttpServletRequest, HttpServletResponse)},
+     * but both the request body and the response, including the error
+     * objects, are CBOR instead of JSON. The values are read and written with
+     * the same mapper as JSON. It is only mapped when the optional
+     * {@code jackson-dataformat-cbor} dependency is on the classpath.
+     *
+     * @param endpointName
+     *            the name of an endpoint to address the calls to, not case
+     *            sensitive
+     * @param methodName
+     *            the method name to execute on an endpoint, not case sensitive
+     * @param request
+     *            the current request which triggers the endpoint call
+     * @param response
+     *            the current response
+     * @return execution result as CBOR or an error object as CBOR
+     */
+    @PostMapping(path = ENDPOINT_METHODS, consumes = EndpointCborFormat.MEDIA_TYPE_VALUE, produces = EndpointCborFormat.MEDIA_TYPE_VALUE)
+    public ResponseEntity<byte[]> serveCborEndpoint(
+            @PathVariable("endpoint") String endpointName,
+            @PathVariable("method") String methodName,
+            HttpServletRequest request, HttpServletResponse response) {
+        if (cborFormat == null) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .build();
+        }
+        ObjectNode body;
+        try {
+            body = cborFormat.readBody(objectMapper, request.getInputStream());
+        } catch (IOException | JacksonException e) {
+            LOGGER.debug("Unable to read the request body", e);
+            return toCborResponse(ResponseEntity.badRequest()
+                    .body(endpointInvoker.createResponseErrorObject(
+                            "Unable to read the request body")));
+        }
+        return toCborResponse(doServeEndpoint(endpointName, methodName, body,
+                request, response, false, true));
     }
 
     /**
@@ -248,12 +418,202 @@ public class EndpointController {
      */
     public ResponseEntity<String> serveEndpoint(String endpointName,
             String methodName, ObjectNode body, HttpServletRequest request) {
-        return doServeEndpoint(endpointName, methodName, body, request, null);
+        return doServeEndpoint(endpointName, methodName, body, request, null,
+                false, false);
+    }
+
+    /**
+     * Captures and processes the {@code GET} requests of the endpoint methods
+     * annotated with {@link EndpointReadOnly}.
+     * <p>
+     * Every query parameter holds the JSON value of the method parameter of
+     * the same name. Successful responses have a strong {@code ETag} and the
+     * {@code Cache-Control} header declared on the method, and are replaced
+     * with an empty {@code 304 Not Modified} response when the
+     * {@code If-None-Match} request header matches their ETag.
+     *
+     * @param endpointName
+     *            the name of an endpoint to address the calls to, not case
+     *            sensitive
+     * @param methodName
+     *            the method name to execute on an endpoint, not case sensitive
+     * @param request
+     *            the current request which triggers the endpoint call
+     * @return execution result as a JSON string, an empty
+     *         {@code 304 Not Modified} response or an error message string
+     */
+    @GetMapping(path = ENDPOINT_METHODS, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> serveReadOnlyEndpoint(
+            @PathVariable("endpoint") String endpointName,
+            @PathVariable("method") String methodName,
+            HttpServletRequest request) {
+        EndpointRoute route = getRoute(request, endpointName, methodName);
+        EndpointReadOnly readOnly = route == null ? null
+                : route.getPlan().getMethod()
+                        .getAnnotation(EndpointReadOnly.class);
+        if (readOnly == null) {
+            return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED)
+                    .allow(HttpMethod.POST).build();
+        }
+
+        ObjectNode body = objectMapper.createObjectNode();
+        try {
+            for (var parameter : request.getParameterMap().entrySet()) {
+                if (parameter.getKey().equals(EndpointFieldSelection.PARAMETER)
+                        && !isMethodParameter(route,
+                                EndpointFieldSelection.PARAMETER)) {
+                    continue;
+                }
+                body.set(parameter.getKey(),
+                        objectMapper.readTree(parameter.getValue()[0]));
+            }
+        } catch (JacksonException e) {
+            LOGGER.debug("Query parameter does not contain valid JSON", e);
+            return ResponseEntity.badRequest()
+                    .body(endpointInvoker.createResponseErrorObject(
+                            "Query parameter does not contain valid JSON"));
+        }
+
+        // Without a response, the result is always returned as a string,
+        // which the ETag is computed from
+        ResponseEntity<String> response = doServeEndpoint(endpointName,
+                methodName, body, request, null, false, false);
+        if (!response.getStatusCode().is2xxSuccessful()
+                || response.getBody() == null) {
+            return response;
+        }
+        String eTag = EndpointUtil.createETag(response.getBody());
+        // The headers tell how the body is encoded, which depends on the
+        // encoding the client accepts
+        if (EndpointUtil.matchesETag(
+                request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .headers(response.getHeaders()).eTag(eTag)
+                    .header(HttpHeaders.CACHE_CONTROL, readOnly.cacheControl())
+                    .varyBy(EndpointReferenceEncoding.HEADER).build();
+        }
+        return ResponseEntity.ok().headers(response.getHeaders()).eTag(eTag)
+                .header(HttpHeaders.CACHE_CONTROL, readOnly.cacheControl())
+                .varyBy(EndpointReferenceEncoding.HEADER)
+                .body(response.getBody());
+    }
+
+    /**
+     * Captures and processes a batch of Vaadin endpoint calls sent in a single
+     * request.
+     * <p>
+     * The request body is an array of calls, each one being an object with
+     * the {@code endpoint} and {@code method} names and an optional
+     * {@code params} object. The CSRF check and the DAU tracking are done once
+     * for the whole batch, while the access to every called method is checked
+     * separately. The calls are run concurrently.
+     * <p>
+     * The response is an array having, in the order of the calls, an object
+     * with the HTTP {@code status} of each call and its {@code body}, which is
+     * either the return value of the method or an error object.
+     *
+     * @param calls
+     *            the calls to run
+     * @param request
+     *            the current request which triggers the endpoint calls
+     * @param response
+     *            the current response
+     * @return the results of the calls as a JSON string or an error message
+     *         string
+     */
+    @PostMapping(path = ENDPOINT_BATCH, consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> serveBatch(@RequestBody ArrayNode calls,
+            HttpServletRequest request, HttpServletResponse response) {
+        if (!csrfChecker.validateCsrfTokenInRequest(request)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(endpointInvoker.createResponseErrorObject(
+                            EndpointAccessChecker.ACCESS_DENIED_MSG));
+        }
+
+        DAUUtils.EnforcementResult enforcementResult = null;
+        try {
+            var batchCalls = EndpointBatch.parse(calls,
+                    endpointProperties != null
+                            ? endpointProperties.getBatchMaxCalls()
+                            : EndpointProperties.DEFAULT_BATCH_MAX_CALLS);
+
+            enforcementResult = DAUUtils.trackDAU(this.vaadinService, request,
+                    response);
+            if (enforcementResult.isEnforcementNeeded()) {
+                return buildEnforcementResponseEntity(enforcementResult);
+            }
+
+            PrincipalSnapshot user = PrincipalSnapshot.of(request);
+            var results = EndpointBatch.run(batchCalls,
+                    call -> serveBatchCall(call, user));
+            return ResponseEntity.ok(EndpointBatch.write(results));
+        } catch (EndpointHttpException e) {
+            return createErrorResponse(e);
+        } finally {
+            if (enforcementResult != null
+                    && enforcementResult.endRequestAction() != null) {
+                enforcementResult.endRequestAction().run();
+            } else {
+                CurrentInstance.set(VaadinRequest.class, null);
+            }
+        }
+    }
+
+    private EndpointBatch.Result serveBatchCall(EndpointBatch.Call call,
+            PrincipalSnapshot user) {
+        EndpointRoute route = endpointRegistry.getRoute(call.endpoint(),
+                call.method());
+        EndpointCallTrace trace = route == null ? EndpointCallTrace.NONE
+                : endpointInvoker.startTrace(route, false);
+        try {
+            Object returnValue = endpointInvoker.invoke(call.endpoint(),
+                    call.method(), route, trace, null, call.params(),
+                    user.getPrincipal(), user.getRolesChecker());
+            if (returnValue instanceof CompletionStage<?> asyncResult) {
+                // Batch calls run on their own threads, which can wait
+                returnValue = awaitAsyncResult(asyncResult);
+            }
+            if (EndpointDownload.isDownload(returnValue)) {
+                throw new EndpointBadRequestException(String.format(
+                        "Endpoint '%s' method '%s' returns a download, "
+                                + "which cannot be called in a batch",
+                        call.endpoint(), call.method()));
+            }
+            return new EndpointBatch.Result(HttpStatus.OK.value(),
+                    writeReturnValue(call.endpoint(), call.method(),
+                            returnValue, null, trace));
+        } catch (EndpointException e) {
+            String body;
+            try {
+                body = endpointInvoker
+                        .createResponseErrorObject(e.getSerializationData());
+            } catch (JacksonException ee) {
+                String errorMessage = "Failed to serialize error object for endpoint exception";
+                LOGGER.error(errorMessage, e);
+                body = endpointInvoker.createResponseErrorObject(errorMessage);
+            }
+            return new EndpointBatch.Result(HttpStatus.BAD_REQUEST.value(),
+                    body);
+        } catch (EndpointHttpException e) {
+            var message = e.getMessage();
+            return new EndpointBatch.Result(e.getHttpStatusCode(),
+                    message == null ? null
+                            : endpointInvoker
+                                    .createResponseErrorObject(message));
+        } catch (RuntimeException e) {
+            LOGGER.error("Endpoint '{}' method '{}' batch call failure",
+                    call.endpoint(), call.method(), e);
+            return new EndpointBatch.Result(
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(), null);
+        } finally {
+            trace.finish();
+        }
     }
 
     private ResponseEntity<String> doServeEndpoint(String endpointName,
             String methodName, ObjectNode body, HttpServletRequest request,
-            HttpServletResponse response) {
+            HttpServletResponse response, boolean streamingBody,
+            boolean cbor) {
         LOGGER.debug("Endpoint: {}, method: {}, request body: {}", endpointName,
                 methodName, body);
 
@@ -264,6 +624,7 @@ public class EndpointController {
         }
 
         DAUUtils.EnforcementResult enforcementResult = null;
+        EndpointCallTrace trace = EndpointCallTrace.NONE;
         try {
             enforcementResult = DAUUtils.trackDAU(this.vaadinService, request,
                     response);
@@ -271,7 +632,16 @@ public class EndpointController {
                 return buildEnforcementResponseEntity(enforcementResult);
             }
 
-            if (isMultipartRequest(request)) {
+            EndpointRoute route = getRoute(request, endpointName, methodName);
+            if (route != null) {
+                endpointInvoker.recordRequestSize(route,
+                        request.getContentLengthLong());
+            }
+            EndpointInvocationPlan streamingPlan = getMultipartStreamPlan(
+                    route, request);
+            if (streamingPlan != null) {
+                body = readMultipartStream(request, streamingPlan);
+            } else if (isMultipartRequest(request)) {
                 var multipartRequest = (MultipartHttpServletRequest) request;
 
                 // retrieve the body from a part having the correct name
@@ -309,38 +679,114 @@ public class EndpointController {
                 }
             }
 
-            Object returnValue = endpointInvoker.invoke(endpointName,
-                    methodName, body, request.getUserPrincipal(),
-                    request::isUserInRole);
-            try {
-                return ResponseEntity
-                        .ok(endpointInvoker.writeValueAsString(returnValue));
-            } catch (JacksonException e) {
-                String errorMessage = String.format(
-                        "Failed to serialize endpoint '%s' method '%s' response. "
-                                + "Double check method's return type or specify a custom mapper bean with qualifier '%s'",
-                        endpointName, methodName,
-                        EndpointController.ENDPOINT_MAPPER_FACTORY_BEAN_QUALIFIER);
-                LOGGER.error(errorMessage, e);
-                throw new EndpointInternalException(errorMessage);
+            PrincipalSnapshot user = PrincipalSnapshot.of(request);
+            EndpointFieldSelection fields = getFieldSelection(request, route);
+            EndpointResponseCache.Key cacheKey = null;
+            // The shared responses hold all the fields
+            EndpointInvocationPlan sharedPlan = isMultipartRequest(request)
+                    || fields != null ? null
+                            : getSharedResponsePlan(route, user);
+            if (sharedPlan != null) {
+                if (streamingBody) {
+                    // The keys are made from the whole body
+                    body = readRequestBody(request);
+                    streamingBody = false;
+                }
+                if (responseCache.isCacheable(sharedPlan)) {
+                    responseCache
+                            .checkRegistryVersion(endpointRegistry.getVersion());
+                    cacheKey = responseCache.createKey(endpointName,
+                            methodName, sharedPlan, body, user.getPrincipal());
+                    String cachedResponse = responseCache.get(cacheKey);
+                    if (cachedResponse != null) {
+                        return ResponseEntity.ok(cachedResponse);
+                    }
+                }
+                if (callCoalescer.isCoalesced(sharedPlan)) {
+                    ObjectNode params = body;
+                    EndpointResponseCache.Key responseKey = cacheKey;
+                    return callCoalescer.execute(
+                            callCoalescer.createKey(endpointName, methodName,
+                                    sharedPlan, body, user.getPrincipal()),
+                            () -> serveSharedCall(endpointName, methodName,
+                                    route, params, user, responseKey));
+                }
             }
-        } catch (EndpointException e) {
-            try {
-                return ResponseEntity.badRequest().body(endpointInvoker
-                        .createResponseErrorObject(e.getSerializationData()));
-            } catch (JacksonException ee) {
-                String errorMessage = "Failed to serialize error object for endpoint exception. ";
-                LOGGER.error(errorMessage, e);
-                return ResponseEntity.internalServerError().body(errorMessage);
+
+            // The shared, selected and binary responses are written as is
+            boolean references = !cbor && fields == null && cacheKey == null
+                    && isReferenceEncoding(request);
+            if (route != null) {
+                trace = endpointInvoker.startTrace(route,
+                        endpointProperties != null
+                                && endpointProperties.isServerTiming());
+                trace.setRequestSize(request.getContentLengthLong());
+            }
+            Object returnValue;
+            if (streamingBody) {
+                InputStream bodyStream;
+                try {
+                    bodyStream = request.getInputStream();
+                } catch (IOException e) {
+                    LOGGER.debug("Unable to read the request body", e);
+                    return ResponseEntity.badRequest()
+                            .body(endpointInvoker.createResponseErrorObject(
+                                    "Unable to read the request body"));
+                }
+                returnValue = endpointInvoker.invokeStreaming(endpointName,
+                        methodName, route, trace, fields, bodyStream,
+                        user.getPrincipal(), user.getRolesChecker());
+            } else {
+                returnValue = endpointInvoker.invoke(endpointName, methodName,
+                        route, trace, fields, body, user.getPrincipal(),
+                        user.getRolesChecker());
+            }
+            if (returnValue instanceof CompletionStage<?> asyncResult) {
+                // Downloads are written to the response by the request thread
+                if (response != null && request.isAsyncSupported()
+                        && (route == null || !route.getPlan().isDownload())) {
+                    // The trace is finished with the asynchronous response
+                    EndpointCallTrace asyncTrace = trace;
+                    trace = EndpointCallTrace.NONE;
+                    return serveAsyncResult(endpointName, methodName,
+                            asyncResult, cacheKey, cbor, fields, references,
+                            asyncTrace, request);
+                }
+                // Without servlet async support, the request thread waits
+                returnValue = awaitAsyncResult(asyncResult);
             }
+            if (response != null && EndpointDownload.isDownload(returnValue)) {
+                setServerTiming(response, trace);
+                writeDownload(endpointName, methodName, returnValue, request,
+                        response);
+                // The response has been written, nothing left for Spring
+                return null;
+            }
+            if (cacheKey != null) {
+                String json = writeReturnValue(endpointName, methodName,
+                        returnValue, null, trace);
+                responseCache.put(cacheKey, json);
+                return withServerTiming(ResponseEntity.ok(json), trace);
+            }
+            if (references) {
+                returnValue = EndpointReferenceEncoding.wrap(returnValue);
+            }
+            if (cbor || (response != null && endpointProperties != null
+                    && endpointProperties.isStreamingResponse())) {
+                writeResponse(endpointName, methodName, returnValue, response,
+                        cbor, fields, trace);
+                // The response has been written, nothing left for Spring
+                return null;
+            }
+            return withServerTiming(createResponse(writeReturnValue(
+                    endpointName, methodName, returnValue, fields, trace),
+                    returnValue), trace);
+        } catch (EndpointException e) {
+            return withServerTiming(createErrorResponse(e), trace);
         } catch (EndpointHttpException e) {
-            var resp = ResponseEntity.status(e.getHttpStatusCode());
-            var message = e.getMessage();
-
-            return message == null ? resp.build()
-                    : resp.body(
-                            endpointInvoker.createResponseErrorObject(message));
+            return withServerTiming(createErrorResponse(e), trace);
         } finally {
+            trace.finish();
 
             if (enforcementResult != null
                     && enforcementResult.endRequestAction() != null) {
@@ -351,6 +797,502 @@ public class EndpointController {
         }
     }
 
+    /**
+     * Sends the response once the asynchronous result of an endpoint method is
+     * available, releasing the request thread in the meantime.
+     */
+    private ResponseEntity<String> serveAsyncResult(String endpointName,
+            String methodName, CompletionStage<?> asyncResult,
+            EndpointResponseCache.Key cacheKey, boolean cbor,
+            EndpointFieldSelection fields, boolean references,
+            EndpointCallTrace trace, HttpServletRequest request) {
+        var deferredResult = new DeferredResult<ResponseEntity<?>>();
+        asyncResult.whenComplete((value, error) -> {
+            try {
+                deferredResult.setResult(createAsyncResponse(endpointName,
+                        methodName, cacheKey, cbor, fields, references, trace,
+                        value, error));
+            } finally {
+                trace.finish();
+            }
+        });
+        try {
+            WebAsyncUtils.getAsyncManager(request)
+                    .startDeferredResultProcessing(deferredResult);
+        } catch (Exception e) {
+            throw new IllegalStateException(String.format(
+                    "Failed to start asynchronous processing of endpoint '%s' method '%s'",
+                    endpointName, methodName), e);
+        }
+        // Spring sends the deferred result in an asynchronous dispatch
+        return null;
+    }
+
+    private ResponseEntity<?> createAsyncResponse(String endpointName,
+            String methodName, EndpointResponseCache.Key cacheKey, boolean cbor,
+            EndpointFieldSelection fields, boolean references,
+            EndpointCallTrace trace, Object value, Throwable error) {
+        Throwable cause = error instanceof CompletionException
+                && error.getCause() != null ? error.getCause() : error;
+        try {
+            if (cause instanceof EndpointException e) {
+                return toWireFormat(
+                        withServerTiming(createErrorResponse(e), trace), cbor);
+            } else if (cause instanceof EndpointHttpException e) {
+                throw e;
+            } else if (cause != null) {
+                String errorMessage = String.format(
+                        "Endpoint '%s' method '%s' execution failure",
+                        endpointName, methodName);
+                LOGGER.error(errorMessage, cause);
+                throw new EndpointInternalException(errorMessage);
+            }
+            if (cbor && cacheKey == null) {
+                return withServerTiming(ResponseEntity.ok()
+                        .contentType(EndpointCborFormat.MEDIA_TYPE)
+                        .body(writeCborValue(endpointName, methodName, value,
+                                fields, trace)),
+                        trace);
+            }
+            Object returnValue = references
+                    ? EndpointReferenceEncoding.wrap(value)
+                    : value;
+            String json = writeReturnValue(endpointName, methodName,
+                    returnValue, fields, trace);
+            if (cacheKey != null) {
+                responseCache.put(cacheKey, json);
+            }
+            return toWireFormat(withServerTiming(
+                    createResponse(json, returnValue), trace), cbor);
+        } catch (EndpointHttpException e) {
+            return toWireFormat(withServerTiming(createErrorResponse(e), trace),
+                    cbor);
+        }
+    }
+
+    private ResponseEntity<?> toWireFormat(ResponseEntity<String> response,
+            boolean cbor) {
+        return cbor ? toCborResponse(response) : response;
+    }
+
+    /**
+     * Converts a response having a JSON body, such as an error object or a
+     * cached response, into a CBOR response.
+     */
+    private ResponseEntity<byte[]> toCborResponse(
+            ResponseEntity<String> response) {
+        if (response == null) {
+            // Written to the servlet response already, or asynchronously
+            return null;
+        }
+        var builder = ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders());
+        return response.getBody() == null ? builder.build()
+                : builder.contentType(EndpointCborFormat.MEDIA_TYPE)
+                        .body(cborFormat.transcode(objectMapper,
+                                response.getBody()));
+    }
+
+    /**
+     * Gets the properties of the return value selected by the request, if
+     * any. In the query string of a {@code GET} request, the selection
+     * parameter is a method parameter if the method has one of that name.
+     */
+    private EndpointFieldSelection getFieldSelection(
+            HttpServletRequest request, EndpointRoute route)
+            throws EndpointBadRequestException {
+        String expression = request
+                .getParameter(EndpointFieldSelection.PARAMETER);
+        if (expression == null || route == null) {
+            return null;
+        }
+        if (isReadOnlyRequest(request)
+                && isMethodParameter(route, EndpointFieldSelection.PARAMETER)) {
+            return null;
+        }
+        return EndpointFieldSelection.parse(expression);
+    }
+
+    /**
+     * Checks whether the shared objects of the return value are written once,
+     * which needs to be enabled and accepted by the client.
+     */
+    private boolean isReferenceEncoding(HttpServletRequest request) {
+        return endpointProperties != null
+                && endpointProperties.isReferenceEncoding()
+                && EndpointReferenceEncoding.isAccepted(request);
+    }
+
+    private static boolean isReadOnlyRequest(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod());
+    }
+
+    private static boolean isMethodParameter(EndpointRoute route,
+            String name) {
+        return route.getPlan().getParameterNames().contains(name);
+    }
+
+    /**
+     * Gets the invocation plan of the given method if its responses are
+     * cached or shared by identical concurrent calls, and the user may call
+     * it. Calls denied by the access check never get a shared response, the
+     * invocation reports the denial.
+     */
+    private EndpointInvocationPlan getSharedResponsePlan(EndpointRoute route,
+            PrincipalSnapshot user) {
+        EndpointInvocationPlan plan = route == null ? null : route.getPlan();
+        // The downloads are streamed to every call, they cannot be shared as
+        // a serialized response
+        if (plan == null || plan.isDownload()
+                || (!responseCache.isCacheable(plan)
+                        && !callCoalescer.isCoalesced(plan))) {
+            return null;
+        }
+        return endpointInvoker.checkAccess(route.getEndpointData(),
+                plan.getMethod(), user.getPrincipal(),
+                user.getRolesChecker()) == null ? plan : null;
+    }
+
+    /**
+     * Invokes a method whose response is shared with identical concurrent
+     * calls. The response is completely serialized, waiting for asynchronous
+     * results, so that it can be given to every call.
+     */
+    private ResponseEntity<String> serveSharedCall(String endpointName,
+            String methodName, EndpointRoute route, ObjectNode body,
+            PrincipalSnapshot user, EndpointResponseCache.Key cacheKey) {
+        // The response is shared, so it has no Server-Timing header
+        EndpointCallTrace trace = endpointInvoker.startTrace(route, false);
+        try {
+            Object returnValue = endpointInvoker.invoke(endpointName,
+                    methodName, route, trace, null, body, user.getPrincipal(),
+                    user.getRolesChecker());
+            if (returnValue instanceof CompletionStage<?> asyncResult) {
+                returnValue = awaitAsyncResult(asyncResult);
+            }
+            String json = writeReturnValue(endpointName, methodName,
+                    returnValue, null, trace);
+            if (cacheKey != null) {
+                responseCache.put(cacheKey, json);
+            }
+            return ResponseEntity.ok(json);
+        } catch (EndpointException e) {
+            return createErrorResponse(e);
+        } catch (EndpointHttpException e) {
+            return createErrorResponse(e);
+        } finally {
+            trace.finish();
+        }
+    }
+
+    /**
+     * Gets the invocation plan of the given method if the multipart request
+     * is streamed to it, which is the case when streaming is enabled and the
+     * method has {@link InputStream} parameters.
+     */
+    private EndpointInvocationPlan getMultipartStreamPlan(EndpointRoute route,
+            HttpServletRequest request) {
+        if (route == null || !isMultipartRequest(request)
+                || endpointProperties == null
+                || !endpointProperties.isStreamingMultipart()) {
+            return null;
+        }
+        EndpointInvocationPlan plan = route.getPlan();
+        for (int i = 0; i < plan.getParameterCount(); i++) {
+            if (plan.getParameterType(i) == InputStream.class) {
+                return plan;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the body part of a multipart request, and binds the
+     * {@link InputStream} parameters of the method to the following parts,
+     * which are read from the request input stream while the method runs.
+     */
+    private ObjectNode readMultipartStream(HttpServletRequest request,
+            EndpointInvocationPlan plan) throws EndpointHttpException {
+        String boundary = EndpointMultipartStream
+                .getBoundary(request.getContentType());
+        if (boundary == null) {
+            throw new EndpointBadRequestException(
+                    "Missing boundary in multipart request");
+        }
+        try {
+            var parts = new EndpointMultipartStream(request.getInputStream(),
+                    boundary,
+                    endpointProperties.getStreamingMultipartMaxRequestSize());
+            if (!BODY_PART_NAME.equals(parts.nextPart())) {
+                throw new EndpointBadRequestException(
+                        "Missing body part in multipart request");
+            }
+            ObjectNode body = objectMapper.readValue(parts.getPart(),
+                    ObjectNode.class);
+            for (int i = 0; i < plan.getParameterCount(); i++) {
+                if (plan.getParameterType(i) == InputStream.class) {
+                    // The files are sent in parts named after their JSON
+                    // pointer in the body
+                    String name = plan.getParameterNames().get(i);
+                    body.putPOJO(name, parts.openPart("/" + name,
+                            endpointProperties
+                                    .getStreamingMultipartMaxFileSize()));
+                }
+            }
+            return body;
+        } catch (EndpointMultipartStream.SizeLimitExceededException e) {
+            throw new EndpointContentTooLargeException(e.getMessage());
+        } catch (IOException | JacksonException e) {
+            LOGGER.debug("Unable to read the multipart request", e);
+            throw new EndpointBadRequestException(
+                    "Unable to read the body part of the multipart request");
+        }
+    }
+
+    private ObjectNode readRequestBody(HttpServletRequest request)
+            throws EndpointBadRequestException {
+        try {
+            JsonNode tree = objectMapper.readTree(request.getInputStream());
+            return tree instanceof ObjectNode object ? object : null;
+        } catch (IOException | JacksonException e) {
+            LOGGER.debug("Unable to read the request body", e);
+            throw new EndpointBadRequestException(
+                    "Unable to read the request body");
+        }
+    }
+
+    /**
+     * Waits for the asynchronous result of an endpoint method, rethrowing the
+     * failure of the method.
+     */
+    private static Object awaitAsyncResult(CompletionStage<?> asyncResult)
+            throws EndpointHttpException {
+        try {
+            return asyncResult.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof EndpointHttpException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private ResponseEntity<String> createErrorResponse(EndpointException e) {
+        try {
+            return ResponseEntity.badRequest().body(endpointInvoker
+                    .createResponseErrorObject(e.getSerializationData()));
+        } catch (JacksonException ee) {
+            String errorMessage = "Failed to serialize error object for endpoint exception. ";
+            LOGGER.error(errorMessage, e);
+            return ResponseEntity.internalServerError().body(errorMessage);
+        }
+    }
+
+    private ResponseEntity<String> createErrorResponse(
+            EndpointHttpException e) {
+        var resp = ResponseEntity.status(e.getHttpStatusCode());
+        var message = e.getMessage();
+
+        return message == null ? resp.build()
+                : resp.body(endpointInvoker.createResponseErrorObject(message));
+    }
+
+    private String writeReturnValue(String endpointName, String methodName,
+            Object returnValue, EndpointFieldSelection fields,
+            EndpointCallTrace trace) throws EndpointInternalException {
+        long start = trace.start();
+        try {
+            String json = endpointInvoker.writeValueAsString(returnValue,
+                    fields);
+            trace.end(EndpointMetrics.Phase.SERIALIZE, start);
+            trace.recordResponseSize(json.length());
+            return json;
+        } catch (JacksonException e) {
+            String errorMessage = getSerializationErrorMessage(endpointName,
+                    methodName);
+            LOGGER.error(errorMessage, e);
+            trace.recordError(e);
+            throw new EndpointInternalException(errorMessage);
+        }
+    }
+
+    private byte[] writeCborValue(String endpointName, String methodName,
+            Object returnValue, EndpointFieldSelection fields,
+            EndpointCallTrace trace) throws EndpointInternalException {
+        long start = trace.start();
+        var output = new ByteArrayOutputStream();
+        try (JsonGenerator generator = cborFormat.createGenerator(output)) {
+            endpointInvoker.writeValue(generator, returnValue, fields);
+        } catch (JacksonException e) {
+            String errorMessage = getSerializationErrorMessage(endpointName,
+                    methodName);
+            LOGGER.error(errorMessage, e);
+            trace.recordError(e);
+            throw new EndpointInternalException(errorMessage);
+        }
+        trace.end(EndpointMetrics.Phase.SERIALIZE, start);
+        trace.recordResponseSize(output.size());
+        return output.toByteArray();
+    }
+
+    /**
+     * Serializes the return value directly to the response output stream, as
+     * JSON or as CBOR.
+     * <p>
+     * If serialization fails before any part of the response has been sent,
+     * the buffered output is discarded and an
+     * {@link EndpointInternalException} is thrown, so that the usual error
+     * object is returned. If the response has already been committed, the
+     * response can only be aborted.
+     */
+    private void writeResponse(String endpointName, String methodName,
+            Object returnValue, HttpServletResponse response, boolean cbor,
+            EndpointFieldSelection fields, EndpointCallTrace trace)
+            throws EndpointInternalException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cbor ? EndpointCborFormat.MEDIA_TYPE_VALUE
+                : MediaType.APPLICATION_JSON_VALUE);
+        if (EndpointReferenceEncoding.isWrapped(returnValue)) {
+            response.setHeader(EndpointReferenceEncoding.HEADER,
+                    EndpointReferenceEncoding.NAME);
+        }
+        // Sent ahead of the body, so without the serialization
+        setServerTiming(response, trace);
+        long start = trace.start();
+        try {
+            // Jackson closes the target when done, or on failure after
+            // flushing, which would commit the response
+            var output = new CountingOutputStream(
+                    StreamUtils.nonClosing(response.getOutputStream()));
+            if (cbor) {
+                try (JsonGenerator generator = cborFormat
+                        .createGenerator(output)) {
+                    endpointInvoker.writeValue(generator, returnValue, fields);
+                }
+            } else {
+                endpointInvoker.writeValue(output, returnValue, fields);
+            }
+            response.flushBuffer();
+            trace.end(EndpointMetrics.Phase.SERIALIZE, start);
+            trace.recordResponseSize(output.getByteCount());
+        } catch (JacksonException e) {
+            String errorMessage = getSerializationErrorMessage(endpointName,
+                    methodName);
+            LOGGER.error(errorMessage, e);
+            trace.recordError(e);
+            if (response.isCommitted()) {
+                throw new IllegalStateException(errorMessage, e);
+            }
+            response.resetBuffer();
+            throw new EndpointInternalException(errorMessage);
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                    "Failed to write endpoint response", e);
+        }
+    }
+
+    /**
+     * Creates the response of a successful call, naming the encoding of the
+     * return value unless it is plain JSON.
+     */
+    private static ResponseEntity<String> createResponse(String json,
+            Object returnValue) {
+        var builder = ResponseEntity.ok();
+        if (EndpointReferenceEncoding.isWrapped(returnValue)) {
+            builder.header(EndpointReferenceEncoding.HEADER,
+                    EndpointReferenceEncoding.NAME);
+        }
+        return builder.body(json);
+    }
+
+    /**
+     * Adds the {@code Server-Timing} header listing the durations of the
+     * phases of the call to the given response, if the header is requested.
+     */
+    private static <T> ResponseEntity<T> withServerTiming(
+            ResponseEntity<T> response, EndpointCallTrace trace) {
+        String serverTiming = trace.getServerTiming();
+        if (serverTiming == null) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(EndpointCallTrace.SERVER_TIMING, serverTiming)
+                .body(response.getBody());
+    }
+
+    private static void setServerTiming(HttpServletResponse response,
+            EndpointCallTrace trace) {
+        String serverTiming = trace.getServerTiming();
+        if (serverTiming != null) {
+            response.setHeader(EndpointCallTrace.SERVER_TIMING, serverTiming);
+        }
+    }
+
+    /**
+     * Gets the route of the given method, reusing the one resolved for the
+     * request by the security checks if any. Otherwise, the route is looked up
+     * in the index of the registry and kept for the rest of the request.
+     *
+     * @return the route, or {@code null} if there is no such method
+     */
+    private EndpointRoute getRoute(HttpServletRequest request,
+            String endpointName, String methodName) {
+        EndpointRoute route = EndpointRoute.get(request);
+        if (route != null && route.matches(endpointName, methodName)) {
+            return route;
+        }
+        route = endpointRegistry.getRoute(endpointName, methodName);
+        if (route != null) {
+            EndpointRoute.set(request, route);
+        }
+        return route;
+    }
+
+    /**
+     * Writes a file or a resource returned by an endpoint method as the raw
+     * body of the response.
+     *
+     * @see EndpointDownload
+     */
+    private void writeDownload(String endpointName, String methodName,
+            Object returnValue, HttpServletRequest request,
+            HttpServletResponse response) throws EndpointInternalException {
+        try {
+            if (!EndpointDownload.write(returnValue, request, response)) {
+                String errorMessage = String.format(
+                        "Endpoint '%s' method '%s' returned a download "
+                                + "that cannot be read",
+                        endpointName, methodName);
+                LOGGER.error(errorMessage);
+                throw new EndpointInternalException(errorMessage);
+            }
+        } catch (IOException e) {
+            if (!response.isCommitted()) {
+                String errorMessage = String.format(
+                        "Failed to read the download returned by endpoint "
+                                + "'%s' method '%s'",
+                        endpointName, methodName);
+                LOGGER.error(errorMessage, e);
+                response.reset();
+                throw new EndpointInternalException(errorMessage);
+            }
+            throw new UncheckedIOException(
+                    "Failed to write endpoint response", e);
+        }
+    }
+
+    private static String getSerializationErrorMessage(String endpointName,
+            String methodName) {
+        return String.format(
+                "Failed to serialize endpoint '%s' method '%s' response. "
+                        + "Double check method's return type or specify a custom mapper bean with qualifier '%s'",
+                endpointName, methodName,
+                EndpointController.ENDPOINT_MAPPER_FACTORY_BEAN_QUALIFIER);
+    }
+
     private boolean isMultipartRequest(HttpServletRequest request) {
         String contentType = request.getContentType();
         return contentType != null
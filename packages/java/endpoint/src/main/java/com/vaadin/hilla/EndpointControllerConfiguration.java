@@ -26,6 +26,7 @@ import org.springframework.boot.webmvc.autoconfigure.WebMvcRegistrations;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.util.pattern.PathPatternParser;
@@ -44,6 +45,12 @@ import com.vaadin.hilla.parser.jackson.JacksonObjectMapperFactory;
 @Configuration
 public class EndpointControllerConfiguration {
     private static final EndpointTransferMapper ENDPOINT_TRANSFER_MAPPER = new EndpointTransferMapper();
+    private static final boolean MICROMETER_AVAILABLE = ClassUtils.isPresent(
+            "io.micrometer.core.instrument.MeterRegistry",
+            EndpointControllerConfiguration.class.getClassLoader());
+    private static final boolean OPENTELEMETRY_AVAILABLE = ClassUtils
+            .isPresent("io.opentelemetry.api.OpenTelemetry",
+                    EndpointControllerConfiguration.class.getClassLoader());
     private final EndpointProperties endpointProperties;
     private ObjectMapper endpointMapper;
 
@@ -146,6 +153,10 @@ public class EndpointControllerConfiguration {
      *            the servlet context
      * @param endpointRegistry
      *            the registry used to store endpoint information
+     * @param endpointMetrics
+     *            the metrics the endpoint calls are measured for
+     * @param endpointTracer
+     *            the tracer creating the spans of the endpoint calls
      *
      * @return the endpoint invoker
      */
@@ -153,10 +164,78 @@ public class EndpointControllerConfiguration {
     EndpointInvoker endpointInvoker(ApplicationContext applicationContext,
             @Qualifier("hillaEndpointObjectMapper") ObjectMapper hillaEndpointObjectMapper,
             ExplicitNullableTypeChecker explicitNullableTypeChecker,
-            ServletContext servletContext, EndpointRegistry endpointRegistry) {
-        return new EndpointInvoker(applicationContext,
+            ServletContext servletContext, EndpointRegistry endpointRegistry,
+            EndpointMetrics endpointMetrics, EndpointTracer endpointTracer) {
+        var endpointInvoker = new EndpointInvoker(applicationContext,
                 hillaEndpointObjectMapper, explicitNullableTypeChecker,
                 servletContext, endpointRegistry);
+        endpointInvoker.setExecutor(new EndpointExecutor(
+                endpointProperties.isVirtualThreads(),
+                endpointProperties.getMaxConcurrentCalls(),
+                endpointProperties.getMaxQueuedCalls()));
+        endpointInvoker.setMetrics(endpointMetrics);
+        endpointInvoker.setTracer(endpointTracer);
+        return endpointInvoker;
+    }
+
+    /**
+     * Registers the metrics the endpoint calls are measured for, which report
+     * to the Micrometer registry of the application if there is one and the
+     * {@code vaadin.endpoint.metrics} property is not disabled.
+     *
+     * @param applicationContext
+     *            The Spring application context
+     * @return the endpoint metrics
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    EndpointMetrics endpointMetrics(ApplicationContext applicationContext) {
+        if (!MICROMETER_AVAILABLE || !endpointProperties.isMetrics()) {
+            return EndpointMetrics.NONE;
+        }
+        return MicrometerEndpointMetrics.create(applicationContext);
+    }
+
+    /**
+     * Registers the tracer creating the spans of the endpoint calls, which
+     * uses the OpenTelemetry instance of the application if there is one and
+     * the {@code vaadin.endpoint.tracing} property is not disabled.
+     *
+     * @param applicationContext
+     *            The Spring application context
+     * @return the endpoint tracer
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    EndpointTracer endpointTracer(ApplicationContext applicationContext) {
+        if (!OPENTELEMETRY_AVAILABLE || !endpointProperties.isTracing()) {
+            return EndpointTracer.NONE;
+        }
+        return OpenTelemetryEndpointTracer.create(applicationContext);
+    }
+
+    /**
+     * Registers the cache of the responses of the endpoint methods annotated
+     * with {@link EndpointCacheable}.
+     *
+     * @return the endpoint response cache
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    EndpointResponseCache endpointResponseCache() {
+        return new EndpointResponseCache();
+    }
+
+    /**
+     * Registers the coalescer of the identical concurrent calls of the
+     * endpoint methods annotated with {@link EndpointCoalescing}.
+     *
+     * @return the endpoint call coalescer
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    EndpointCallCoalescer endpointCallCoalescer() {
+        return new EndpointCallCoalescer();
     }
 
     /**
@@ -199,7 +278,9 @@ public class EndpointControllerConfiguration {
      */
     @Bean
     ExplicitNullableTypeChecker typeChecker() {
-        return new ExplicitNullableTypeChecker();
+        return new ExplicitNullableTypeChecker(
+                endpointProperties.getNullableCheckSampleRate(),
+                endpointProperties.isNullableCheckInProduction());
     }
 
     /**
@@ -228,6 +309,12 @@ public class EndpointControllerConfiguration {
 
                         if (EndpointController.class
                                 .equals(method.getDeclaringClass())) {
+                            if (!isSelectedHandler(method)) {
+                                // Both JSON handlers have the same mapping,
+                                // only one of them may be registered, and
+                                // CBOR is only served when it is supported
+                                return;
+                            }
                             mapping = prependEndpointPrefixUrl(mapping);
                         }
 
@@ -238,6 +325,16 @@ public class EndpointControllerConfiguration {
         };
     }
 
+    private boolean isSelectedHandler(Method method) {
+        boolean streaming = endpointProperties.isStreamingRequestBinding();
+        return switch (method.getName()) {
+        case "serveEndpoint" -> !streaming;
+        case "serveStreamingEndpoint" -> streaming;
+        case "serveCborEndpoint" -> EndpointController.CBOR_AVAILABLE;
+        default -> true;
+        };
+    }
+
     /**
      * Prepends the endpoint prefix URL from the Vaadin properties to the
      * {@code pattern} of a {@link RequestMappingInfo} object, and returns the
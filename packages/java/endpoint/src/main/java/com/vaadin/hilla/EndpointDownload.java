@@ -0,0 +1,207 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import com.googlecode.gentyref.GenericTypeReflector;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Writes the {@link Resource} and {@link Path} values returned by endpoint
+ * methods as the raw body of the response, instead of serializing them.
+ * <p>
+ * The files are transferred from their channel to the response, without
+ * copying their content through a Java buffer where the platform allows it.
+ * When the length of the content is known, the response has a
+ * {@code Content-Length} header, and a single range requested with the
+ * {@code Range} header is answered with a {@code 206 Partial Content}
+ * response. Requests for several ranges get the whole content.
+ */
+final class EndpointDownload {
+
+    private EndpointDownload() {
+    }
+
+    /**
+     * Checks whether the given value returned by an endpoint method is
+     * written as a download.
+     *
+     * @param value
+     *            the return value
+     * @return {@code true} if the value is a download, {@code false}
+     *         otherwise
+     */
+    static boolean isDownload(Object value) {
+        return value instanceof Resource || value instanceof Path;
+    }
+
+    /**
+     * Checks whether the values of the given type are written as downloads.
+     *
+     * @param type
+     *            the return type or asynchronous value type of a method
+     * @return {@code true} if the values are downloads, {@code false}
+     *         otherwise
+     */
+    static boolean isDownloadType(Type type) {
+        Class<?> cls = GenericTypeReflector.erase(type);
+        return Resource.class.isAssignableFrom(cls)
+                || Path.class.isAssignableFrom(cls);
+    }
+
+    /**
+     * Writes the given download to the response.
+     *
+     * @param value
+     *            the {@link Resource} or {@link Path} to write
+     * @param request
+     *            the request, which may ask for a range of the content
+     * @param response
+     *            the response to write to
+     * @return {@code false} if the content cannot be read, in which case
+     *         nothing has been written, {@code true} otherwise
+     * @throws IOException
+     *             if reading the content or writing the response fails
+     */
+    static boolean write(Object value, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Resource resource = value instanceof Path path
+                ? new FileSystemResource(path)
+                : (Resource) value;
+        if (!resource.isReadable()) {
+            return false;
+        }
+        // The length of an input stream resource is only known by reading
+        // it, which can only be done once
+        long length = resource.getClass() == InputStreamResource.class ? -1
+                : resource.contentLength();
+
+        response.setContentType(MediaTypeFactory.getMediaType(resource)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                getContentDisposition(resource.getFilename()));
+        if (length < 0) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            try (InputStream input = resource.getInputStream()) {
+                input.transferTo(response.getOutputStream());
+            }
+            response.flushBuffer();
+            return true;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = getRange(request.getHeader(HttpHeaders.RANGE));
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes */" + length);
+                response.setStatus(
+                        HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return true;
+            }
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + start + "-" + end + "/" + length);
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        } else {
+            response.setStatus(HttpServletResponse.SC_OK);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+
+        OutputStream output = response.getOutputStream();
+        if (resource.isFile()) {
+            try (FileChannel channel = FileChannel.open(
+                    resource.getFile().toPath(), StandardOpenOption.READ)) {
+                transfer(channel, start, count, Channels.newChannel(output));
+            }
+        } else {
+            try (InputStream input = resource.getInputStream()) {
+                StreamUtils.copyRange(input, output, start, end);
+            }
+        }
+        response.flushBuffer();
+        return true;
+    }
+
+    private static String getContentDisposition(String filename) {
+        var builder = ContentDisposition.attachment();
+        if (filename == null) {
+            return builder.build().toString();
+        }
+        // Only the names that are not ASCII need to be encoded
+        return (StandardCharsets.US_ASCII.newEncoder().canEncode(filename)
+                ? builder.filename(filename)
+                : builder.filename(filename, StandardCharsets.UTF_8)).build()
+                .toString();
+    }
+
+    /**
+     * Gets the single range requested by the given {@code Range} header, or
+     * {@code null} if the whole content is sent, which is also the case when
+     * the header is invalid or has several ranges.
+     */
+    private static HttpRange getRange(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void transfer(FileChannel channel, long position,
+            long count, WritableByteChannel target) throws IOException {
+        while (count > 0) {
+            long transferred = channel.transferTo(position, count, target);
+            if (transferred <= 0) {
+                // The file has been truncated meanwhile
+                throw new IOException("Unexpected end of file");
+            }
+            position += transferred;
+            count -= transferred;
+        }
+    }
+}
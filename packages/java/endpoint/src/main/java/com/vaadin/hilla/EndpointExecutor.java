@@ -0,0 +1,351 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.hilla.EndpointInvocationException.EndpointHttpException;
+import com.vaadin.hilla.EndpointInvocationException.EndpointUnavailableException;
+
+/**
+ * Runs the endpoint method calls, applying the concurrency limits of the
+ * endpoints and methods and optionally moving the calls to virtual threads.
+ * <p>
+ * The concurrency limits are given by the {@link EndpointBulkhead} annotation
+ * or, for the endpoints without it, by the default limits of the executor.
+ * Calls exceeding a limit are rejected with an
+ * {@link EndpointUnavailableException} before anything is run.
+ * <p>
+ * When virtual threads are used, the call returns a {@link CompletionStage}
+ * right away, so that the request thread is released while the endpoint
+ * method runs. The security context, the request attributes and the Vaadin
+ * current instances of the calling thread are made available to the virtual
+ * thread. The methods returning a subscription, see
+ * {@link EndpointInvocationPlan#isSubscription()}, always run on the calling
+ * thread, as their callers use the returned value directly.
+ */
+final class EndpointExecutor {
+
+    /**
+     * Runs the calls on the calling thread, without concurrency limits.
+     */
+    static final EndpointExecutor DIRECT = new EndpointExecutor(false, 0, 0);
+
+    private static final ExecutorService VIRTUAL_THREAD_EXECUTOR = Executors
+            .newVirtualThreadPerTaskExecutor();
+
+    private static final Bulkhead UNLIMITED = new Bulkhead(0, 0);
+
+    private static final boolean OPENTELEMETRY_AVAILABLE = ClassUtils
+            .isPresent("io.opentelemetry.context.Context",
+                    EndpointExecutor.class.getClassLoader());
+
+    /**
+     * An endpoint method call.
+     */
+    @FunctionalInterface
+    interface Call {
+        Object call() throws EndpointHttpException;
+    }
+
+    private final boolean virtualThreads;
+    private final int defaultMaxConcurrentCalls;
+    private final int defaultMaxQueuedCalls;
+    private final Map<Method, Bulkhead> methodBulkheads = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Bulkhead> endpointBulkheads = new ConcurrentHashMap<>();
+    private volatile long registryVersion;
+
+    /**
+     * Creates a new executor.
+     *
+     * @param virtualThreads
+     *            whether the calls run on virtual threads
+     * @param defaultMaxConcurrentCalls
+     *            the maximum number of concurrent calls of every method of the
+     *            endpoints without the {@link EndpointBulkhead} annotation, or
+     *            {@code 0} for no limit
+     * @param defaultMaxQueuedCalls
+     *            the maximum number of calls waiting for the default
+     *            concurrency limit
+     */
+    EndpointExecutor(boolean virtualThreads, int defaultMaxConcurrentCalls,
+            int defaultMaxQueuedCalls) {
+        this.virtualThreads = virtualThreads;
+        this.defaultMaxConcurrentCalls = defaultMaxConcurrentCalls;
+        this.defaultMaxQueuedCalls = defaultMaxQueuedCalls;
+    }
+
+    /**
+     * Gets the executor of the virtual threads used to run endpoint calls.
+     *
+     * @return the virtual thread executor
+     */
+    static ExecutorService getVirtualThreadExecutor() {
+        return VIRTUAL_THREAD_EXECUTOR;
+    }
+
+    /**
+     * Runs an endpoint method call.
+     *
+     * @param plan
+     *            the invocation plan of the method
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method
+     * @param call
+     *            the call to run
+     * @return the result of the call, or a {@link CompletionStage} of it when
+     *         the call runs on a virtual thread, which is never the case for
+     *         the methods returning a subscription
+     * @throws EndpointUnavailableException
+     *             if the concurrency limit of the method is exceeded
+     * @throws EndpointHttpException
+     *             if the call fails
+     */
+    Object execute(EndpointInvocationPlan plan, String endpointName,
+            String methodName, Call call) throws EndpointHttpException {
+        Bulkhead bulkhead = getBulkhead(plan);
+        if (!bulkhead.tryAdmit()) {
+            throw new EndpointUnavailableException(String.format(
+                    "Endpoint '%s' method '%s' has too many concurrent calls",
+                    endpointName, methodName));
+        }
+        if (!virtualThreads || plan.isSubscription()) {
+            return run(bulkhead, call, endpointName, methodName);
+        }
+
+        var result = new CompletableFuture<Object>();
+        Supplier<Void> task = withRequestContext(() -> {
+            try {
+                Object value = run(bulkhead, call, endpointName, methodName);
+                if (value instanceof CompletionStage<?> stage) {
+                    stage.whenComplete((completed, error) -> {
+                        if (error != null) {
+                            result.completeExceptionally(error);
+                        } else {
+                            result.complete(completed);
+                        }
+                    });
+                } else {
+                    result.complete(value);
+                }
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+            return null;
+        });
+        try {
+            VIRTUAL_THREAD_EXECUTOR.execute(task::get);
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            throw new EndpointUnavailableException(String.format(
+                    "Endpoint '%s' method '%s' cannot be run", endpointName,
+                    methodName));
+        }
+        return result;
+    }
+
+    /**
+     * Removes the concurrency limits built for the methods when the endpoints
+     * have been registered again since they were built, so that the limits of
+     * the updated endpoint classes are used.
+     *
+     * @param version
+     *            the current version of the endpoint registry
+     * @see EndpointRegistry#getVersion()
+     */
+    void checkRegistryVersion(long version) {
+        if (registryVersion != version) {
+            methodBulkheads.clear();
+            endpointBulkheads.clear();
+            registryVersion = version;
+        }
+    }
+
+    /**
+     * Wraps a task to run it with the security context, the request attributes,
+     * the Vaadin current instances and, if available, the OpenTelemetry
+     * context of the calling thread.
+     *
+     * @param task
+     *            the task to wrap
+     * @return the wrapped task, to run on another thread
+     */
+    static <T> Supplier<T> withRequestContext(Supplier<T> task) {
+        Supplier<T> contextTask = OPENTELEMETRY_AVAILABLE
+                ? OpenTelemetryEndpointTracer.withCurrentContext(task)
+                : task;
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        RequestAttributes requestAttributes = RequestContextHolder
+                .getRequestAttributes();
+        Map<Class<?>, CurrentInstance> instances = CurrentInstance
+                .getInstances();
+        return () -> {
+            SecurityContextHolder.setContext(securityContext);
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            CurrentInstance.restoreInstances(instances);
+            try {
+                return contextTask.get();
+            } finally {
+                CurrentInstance.clearAll();
+                RequestContextHolder.resetRequestAttributes();
+                SecurityContextHolder.clearContext();
+            }
+        };
+    }
+
+    private static Object run(Bulkhead bulkhead, Call call,
+            String endpointName, String methodName)
+            throws EndpointHttpException {
+        try {
+            bulkhead.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            bulkhead.release();
+            throw new EndpointUnavailableException(String.format(
+                    "Endpoint '%s' method '%s' was interrupted while waiting",
+                    endpointName, methodName));
+        }
+        Object result = null;
+        try {
+            result = call.call();
+        } finally {
+            if (!(result instanceof CompletionStage<?>)) {
+                bulkhead.exit();
+            }
+        }
+        if (result instanceof CompletionStage<?> stage) {
+            // Asynchronous methods keep their slot until their result completes
+            return stage.whenComplete((value, error) -> bulkhead.exit());
+        }
+        return result;
+    }
+
+    private Bulkhead getBulkhead(EndpointInvocationPlan plan) {
+        return methodBulkheads.computeIfAbsent(plan.getMethod(),
+                method -> createBulkhead(plan));
+    }
+
+    private Bulkhead createBulkhead(EndpointInvocationPlan plan) {
+        EndpointBulkhead annotation = plan.getMethod()
+                .getAnnotation(EndpointBulkhead.class);
+        if (annotation != null) {
+            return Bulkhead.of(annotation, plan.getMethod());
+        }
+        Class<?> endpointClass = plan.getEndpointClass();
+        if (endpointClass.isAnnotationPresent(EndpointBulkhead.class)) {
+            return endpointBulkheads.computeIfAbsent(endpointClass,
+                    cls -> Bulkhead.of(
+                            cls.getAnnotation(EndpointBulkhead.class), cls));
+        }
+        return defaultMaxConcurrentCalls > 0
+                ? new Bulkhead(defaultMaxConcurrentCalls,
+                        Math.max(defaultMaxQueuedCalls, 0))
+                : UNLIMITED;
+    }
+
+    /**
+     * The concurrency limit of an endpoint or of an endpoint method.
+     * <p>
+     * A call is first admitted, which fails fast when the running and waiting
+     * calls already fill the limits, and then acquires one of the concurrent
+     * slots, waiting for it if needed.
+     */
+    private static final class Bulkhead {
+        private final int maxAdmittedCalls;
+        private final AtomicInteger admittedCalls = new AtomicInteger();
+        private final Semaphore slots;
+
+        private Bulkhead(int maxConcurrentCalls, int maxQueuedCalls) {
+            this.maxAdmittedCalls = maxConcurrentCalls + maxQueuedCalls;
+            this.slots = maxConcurrentCalls > 0
+                    ? new Semaphore(maxConcurrentCalls, true)
+                    : null;
+        }
+
+        private static Bulkhead of(EndpointBulkhead annotation,
+                Object annotated) {
+            if (annotation.maxConcurrentCalls() <= 0
+                    || annotation.maxQueuedCalls() < 0) {
+                throw new IllegalStateException(String.format(
+                        "Invalid @%s limits on %s, the maximum number of "
+                                + "concurrent calls must be positive and the "
+                                + "maximum number of queued calls must not be "
+                                + "negative",
+                        EndpointBulkhead.class.getSimpleName(), annotated));
+            }
+            return new Bulkhead(annotation.maxConcurrentCalls(),
+                    annotation.maxQueuedCalls());
+        }
+
+        boolean tryAdmit() {
+            if (slots == null) {
+                return true;
+            }
+            int admitted;
+            do {
+                admitted = admittedCalls.get();
+                if (admitted >= maxAdmittedCalls) {
+                    return false;
+                }
+            } while (!admittedCalls.compareAndSet(admitted, admitted + 1));
+            return true;
+        }
+
+        void acquire() throws InterruptedException {
+            if (slots != null) {
+                slots.acquire();
+            }
+        }
+
+        /**
+         * Gives back the admission of a call that did not acquire a slot.
+         */
+        void release() {
+            if (slots != null) {
+                admittedCalls.decrementAndGet();
+            }
+        }
+
+        /**
+         * Gives back the slot and the admission of a completed call.
+         */
+        void exit() {
+            if (slots != null) {
+                slots.release();
+                admittedCalls.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.TokenStreamContext;
+import tools.jackson.core.Version;
+import tools.jackson.databind.AnnotationIntrospector;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.cfg.MapperConfig;
+import tools.jackson.databind.introspect.Annotated;
+import tools.jackson.databind.introspect.AnnotatedClass;
+import tools.jackson.databind.introspect.NopAnnotationIntrospector;
+import tools.jackson.databind.ser.FilterProvider;
+import tools.jackson.databind.ser.PropertyFilter;
+import tools.jackson.databind.ser.PropertyWriter;
+import tools.jackson.databind.ser.std.SimpleBeanPropertyFilter;
+
+import com.vaadin.hilla.EndpointInvocationException.EndpointBadRequestException;
+
+/**
+ * The properties of the return value selected by a call, sent as a comma
+ * separated list of dotted paths in the {@value #PARAMETER} query parameter,
+ * e.g. {@code fields=id,name,address.city}.
+ * <p>
+ * A selection is a tree of property names: a path ending at a property
+ * selects the whole value of the property. The items of arrays and
+ * collections share the selection of the property holding them, and the keys
+ * of maps are selected like property names.
+ * <p>
+ * The selections are parsed once per expression and cached. They are applied
+ * by a property filter of a mapper which gives every bean and map without a
+ * filter of the application the same filter id, so that the serializers built
+ * by Jackson for every type are shared by all the selections. The filters of
+ * the application are still applied to the types having them.
+ */
+final class EndpointFieldSelection {
+    /**
+     * The name of the query parameter holding the selection.
+     */
+    static final String PARAMETER = "fields";
+
+    /**
+     * The selection of the whole value.
+     */
+    static final EndpointFieldSelection ALL = new EndpointFieldSelection(
+            null);
+
+    private static final String FILTER_ID = "com.vaadin.hilla.fields";
+    private static final int MAX_CACHED_SELECTIONS = 256;
+    private static final Map<String, EndpointFieldSelection> CACHE = new ConcurrentHashMap<>();
+
+    private final Map<String, EndpointFieldSelection> properties;
+    private SelectionFilter filter;
+
+    private EndpointFieldSelection(
+            Map<String, EndpointFieldSelection> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Gets the selection of the given expression.
+     *
+     * @param expression
+     *            the comma separated list of dotted property paths
+     * @return the selection
+     * @throws EndpointBadRequestException
+     *             if the expression has an empty path or property name
+     */
+    static EndpointFieldSelection parse(String expression)
+            throws EndpointBadRequestException {
+        EndpointFieldSelection selection = CACHE.get(expression);
+        if (selection == null) {
+            List<String[]> paths = new ArrayList<>();
+            for (String path : expression.split(",", -1)) {
+                String[] names = path.trim().split("\\.", -1);
+                for (String name : names) {
+                    if (name.isBlank()) {
+                        throw new EndpointBadRequestException(String.format(
+                                "Invalid '%s' selection '%s', paths must be "
+                                        + "dot separated property names",
+                                PARAMETER, expression));
+                    }
+                }
+                paths.add(names);
+            }
+            selection = create(paths, 0);
+            selection.filter = new SelectionFilter(selection);
+            // The expressions come from the clients, so only a bounded
+            // number of them is kept
+            if (CACHE.size() < MAX_CACHED_SELECTIONS) {
+                CACHE.put(expression, selection);
+            }
+        }
+        return selection;
+    }
+
+    private static EndpointFieldSelection create(List<String[]> paths,
+            int depth) {
+        // A null list means that the whole property is selected
+        Map<String, List<String[]>> nested = new LinkedHashMap<>();
+        for (String[] path : paths) {
+            String name = path[depth].trim();
+            if (path.length == depth + 1) {
+                nested.put(name, null);
+            } else if (!nested.containsKey(name)) {
+                List<String[]> nestedPaths = new ArrayList<>();
+                nestedPaths.add(path);
+                nested.put(name, nestedPaths);
+            } else if (nested.get(name) != null) {
+                nested.get(name).add(path);
+            }
+        }
+        Map<String, EndpointFieldSelection> properties = new LinkedHashMap<>();
+        nested.forEach((name, nestedPaths) -> properties.put(name,
+                nestedPaths == null ? ALL : create(nestedPaths, depth + 1)));
+        return new EndpointFieldSelection(Map.copyOf(properties));
+    }
+
+    /**
+     * Creates the mapper applying the selections, which is a copy of the
+     * given mapper giving the same filter id to every bean and map type that
+     * has no filter id of its own.
+     *
+     * @param mapper
+     *            the mapper to copy
+     * @return the mapper applying the selections
+     */
+    static ObjectMapper createMapper(ObjectMapper mapper) {
+        var introspector = AnnotationIntrospector.pair(
+                mapper.serializationConfig().getAnnotationIntrospector(),
+                new FilterIdIntrospector());
+        return mapper.rebuild().annotationIntrospector(introspector).build();
+    }
+
+    /**
+     * Checks whether the whole value is selected.
+     *
+     * @return {@code true} if the whole value is selected, {@code false} if
+     *         only some of its properties are
+     */
+    boolean isAll() {
+        return properties == null;
+    }
+
+    /**
+     * Gets the selection of the given property.
+     *
+     * @param name
+     *            the name of the property
+     * @return the selection of the property, or {@code null} if the property
+     *         is not selected
+     */
+    EndpointFieldSelection get(String name) {
+        return properties == null ? ALL : properties.get(name);
+    }
+
+    /**
+     * Gets the writer serializing only the selected properties with the given
+     * mapper, created by {@link #createMapper(ObjectMapper)}.
+     *
+     * @param mapper
+     *            the mapper applying the selections
+     * @return the writer
+     */
+    ObjectWriter getWriter(ObjectMapper mapper) {
+        return mapper.writer(new SelectionFilterProvider(filter,
+                mapper.serializationConfig().getFilterProvider()));
+    }
+
+    /**
+     * Gets the selection of the object or array written in the given context,
+     * from the names of the properties holding it.
+     */
+    private EndpointFieldSelection resolve(TokenStreamContext context) {
+        TokenStreamContext parent = context.getParent();
+        if (parent == null || parent.inRoot()) {
+            return this;
+        }
+        EndpointFieldSelection parentSelection = resolve(parent);
+        if (parent.inArray() || parentSelection == null) {
+            return parentSelection;
+        }
+        return parentSelection.get(parent.currentName());
+    }
+
+    private static final class SelectionFilter
+            extends SimpleBeanPropertyFilter {
+        private final EndpointFieldSelection selection;
+
+        private SelectionFilter(EndpointFieldSelection selection) {
+            this.selection = selection;
+        }
+
+        @Override
+        public void serializeAsProperty(Object pojo, JsonGenerator g,
+                SerializationContext ctxt, PropertyWriter writer)
+                throws Exception {
+            EndpointFieldSelection current = resolve(pojo,
+                    g.streamWriteContext(), ctxt);
+            if (current == null || current.get(writer.getName()) != null) {
+                writer.serializeAsProperty(pojo, g, ctxt);
+            } else if (!g.canOmitProperties()) {
+                writer.serializeAsOmittedProperty(pojo, g, ctxt);
+            }
+        }
+
+        /**
+         * Gets the selection of the given object, which is resolved from the
+         * write context once for all its properties. The properties of an
+         * object are filtered one after the other, only interrupted by the
+         * nested values, so the last resolved object of the call is
+         * remembered.
+         */
+        private EndpointFieldSelection resolve(Object pojo,
+                TokenStreamContext context, SerializationContext ctxt) {
+            var resolved = (ResolvedObject) ctxt.getAttribute(this);
+            if (resolved == null) {
+                resolved = new ResolvedObject();
+                ctxt.setAttribute(this, resolved);
+            } else if (resolved.pojo == pojo && resolved.context == context) {
+                return resolved.selection;
+            }
+            resolved.pojo = pojo;
+            resolved.context = context;
+            resolved.selection = selection.resolve(context);
+            return resolved.selection;
+        }
+    }
+
+    /**
+     * The last object whose selection has been resolved during a call.
+     */
+    private static final class ResolvedObject {
+        private Object pojo;
+        private TokenStreamContext context;
+        private EndpointFieldSelection selection;
+    }
+
+    /**
+     * Gives the selection filter for the filter id of the selections, and the
+     * filters of the application for the other ids.
+     */
+    private static final class SelectionFilterProvider extends FilterProvider {
+        private final SelectionFilter filter;
+        private final FilterProvider applicationFilters;
+
+        private SelectionFilterProvider(SelectionFilter filter,
+                FilterProvider applicationFilters) {
+            this.filter = filter;
+            this.applicationFilters = applicationFilters;
+        }
+
+        @Override
+        public PropertyFilter findPropertyFilter(SerializationContext ctxt,
+                Object filterId, Object valueToFilter) {
+            if (FILTER_ID.equals(filterId)) {
+                return filter;
+            }
+            return applicationFilters == null ? null
+                    : applicationFilters.findPropertyFilter(ctxt, filterId,
+                            valueToFilter);
+        }
+
+        @Override
+        public FilterProvider snapshot() {
+            return applicationFilters == null ? this
+                    : new SelectionFilterProvider(filter,
+                            applicationFilters.snapshot());
+        }
+    }
+
+    private static final class FilterIdIntrospector
+            extends NopAnnotationIntrospector {
+        @Override
+        public Version version() {
+            return Version.unknownVersion();
+        }
+
+        @Override
+        public Object findFilterId(MapperConfig<?> config, Annotated ann) {
+            return ann instanceof AnnotatedClass ? FILTER_ID : null;
+        }
+    }
+}
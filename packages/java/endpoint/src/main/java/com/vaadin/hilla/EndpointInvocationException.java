@@ -141,6 +141,37 @@ public abstract class EndpointInvocationException extends Exception {
         }
     }
 
+    /**
+     * Exception indicating the endpoint cannot take more calls at the moment,
+     * as its concurrency limit is reached.
+     */
+    public static class EndpointUnavailableException
+            extends EndpointHttpException {
+        public EndpointUnavailableException(String message) {
+            super(message);
+        }
+
+        @Override
+        public HttpStatus getHttpStatus() {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
+    }
+
+    /**
+     * Exception indicating the request is larger than the configured limit.
+     */
+    public static class EndpointContentTooLargeException
+            extends EndpointHttpException {
+        public EndpointContentTooLargeException(String message) {
+            super(message);
+        }
+
+        @Override
+        public HttpStatus getHttpStatus() {
+            return HttpStatus.CONTENT_TOO_LARGE;
+        }
+    }
+
     /**
      * Allows to specify the HTTP status code and message to return as error.
      * While most common specialized exceptions are already provided, other can
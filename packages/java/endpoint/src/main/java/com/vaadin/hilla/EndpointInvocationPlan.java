@@ -0,0 +1,382 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import jakarta.validation.Validator;
+import jakarta.validation.metadata.MethodDescriptor;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.googlecode.gentyref.GenericTypeReflector;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.KotlinDetector;
+import org.springframework.lang.NonNullApi;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import com.vaadin.flow.signals.shared.AbstractSharedSignal;
+
+/**
+ * The precomputed information needed to invoke an endpoint method.
+ * <p>
+ * A plan is created once for every endpoint method when the endpoint is
+ * registered, so that the reflection based lookups (parameter names, exact
+ * generic types, package nullability, access check target) are not repeated
+ * for every call.
+ * <p>
+ * The continuation parameter of a Kotlin suspend function is not one of the
+ * parameters of the plan, and the function is asynchronous, completing with
+ * the result of the coroutine.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ */
+public final class EndpointInvocationPlan {
+    private final Method method;
+    private final Class<?> endpointClass;
+    private final boolean suspending;
+    private final List<String> parameterNames;
+    private final Type[] parameterTypes;
+    private final Class<?>[] rawParameterTypes;
+    private final String parameterTypeNames;
+    private final boolean nonNullApi;
+    private final boolean methodAccessTarget;
+    private final Type asyncValueType;
+    private final boolean download;
+    private final boolean subscription;
+    private final EndpointMethodDispatcher dispatcher;
+
+    private volatile BoundReaders boundReaders;
+    private volatile ValidationSteps validationSteps;
+
+    private EndpointInvocationPlan(Method method, Class<?> endpointClass) {
+        this.method = method;
+        this.endpointClass = endpointClass;
+        this.suspending = KotlinDetector.isSuspendingFunction(method);
+        // The continuation of a suspend function is passed by the dispatcher
+        int parameterCount = method.getParameterCount() - (suspending ? 1 : 0);
+        Type[] exactParameterTypes = GenericTypeReflector
+                .getExactParameterTypes(method, endpointClass);
+        this.parameterNames = Arrays.stream(method.getParameters())
+                .limit(parameterCount).map(Parameter::getName).toList();
+        this.parameterTypes = Arrays.copyOf(exactParameterTypes,
+                parameterCount);
+        this.rawParameterTypes = Arrays.copyOf(method.getParameterTypes(),
+                parameterCount);
+        this.parameterTypeNames = Stream.of(parameterTypes)
+                .map(Type::getTypeName).collect(Collectors.joining(", "));
+        this.nonNullApi = isNonNullApi(method.getDeclaringClass().getPackage());
+        // Methods inherited from an @EndpointExposed class are checked
+        // against the endpoint class annotations
+        this.methodAccessTarget = method.getDeclaringClass()
+                .equals(endpointClass);
+        this.asyncValueType = suspending
+                ? getSuspendValueType(exactParameterTypes[parameterCount])
+                : getAsyncValueType(method, endpointClass);
+        this.download = EndpointDownload.isDownloadType(
+                asyncValueType != null ? asyncValueType
+                        : method.getReturnType());
+        this.subscription = isSubscriptionType(method.getReturnType());
+        this.dispatcher = suspending
+                ? EndpointMethodDispatcher.suspending(method)
+                : EndpointMethodDispatcher.of(method);
+    }
+
+    /**
+     * Creates the invocation plan for the given method of the given endpoint.
+     *
+     * @param method
+     *            the endpoint method
+     * @param endpointObject
+     *            the endpoint instance the method is invoked on
+     * @return the invocation plan
+     */
+    static EndpointInvocationPlan create(Method method,
+            Object endpointObject) {
+        return new EndpointInvocationPlan(method,
+                ClassUtils.getUserClass(endpointObject));
+    }
+
+    /**
+     * Gets the endpoint method.
+     *
+     * @return the endpoint method
+     */
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * Gets the user class of the endpoint, i.e. the class without any proxies.
+     *
+     * @return the endpoint class
+     */
+    public Class<?> getEndpointClass() {
+        return endpointClass;
+    }
+
+    /**
+     * Checks whether the access control annotations of the method itself or of
+     * the endpoint class apply to the invocation.
+     *
+     * @return {@code true} if the method is the access check target,
+     *         {@code false} if the endpoint class is
+     */
+    public boolean isMethodAccessTarget() {
+        return methodAccessTarget;
+    }
+
+    /**
+     * Gets the dispatcher used to call the endpoint method.
+     *
+     * @return the dispatcher
+     */
+    public EndpointMethodDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Checks that the given arguments can be passed to the endpoint method,
+     * i.e. that their number matches and that every argument is an instance of
+     * the corresponding parameter type, primitive parameters not accepting
+     * {@code null}.
+     *
+     * @param arguments
+     *            the arguments to check
+     * @return {@code true} if the arguments can be passed to the method,
+     *         {@code false} otherwise
+     */
+    public boolean acceptsArguments(Object[] arguments) {
+        if (arguments.length != rawParameterTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < rawParameterTypes.length; i++) {
+            if (!ClassUtils.isAssignableValue(rawParameterTypes[i],
+                    arguments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    int getParameterCount() {
+        return parameterTypes.length;
+    }
+
+    Type getParameterType(int index) {
+        return parameterTypes[index];
+    }
+
+    String getParameterTypeNames() {
+        return parameterTypeNames;
+    }
+
+    boolean isNonNullApi() {
+        return nonNullApi;
+    }
+
+    /**
+     * Checks whether the method returns its result asynchronously, as a
+     * {@link CompletionStage} or a {@link Mono}.
+     *
+     * @return {@code true} if the result is asynchronous, {@code false}
+     *         otherwise
+     */
+    public boolean isAsync() {
+        return asyncValueType != null;
+    }
+
+    /**
+     * Gets the type of the value an asynchronous method completes with.
+     *
+     * @return the type of the value, or {@code null} if the method is not
+     *         asynchronous
+     */
+    Type getAsyncValueType() {
+        return asyncValueType;
+    }
+
+    /**
+     * Checks whether the method is a Kotlin suspend function, which is called
+     * without its continuation parameter and completes asynchronously.
+     *
+     * @return {@code true} if the method is a suspend function, {@code false}
+     *         otherwise
+     */
+    public boolean isSuspending() {
+        return suspending;
+    }
+
+    /**
+     * Gets the arguments to validate the parameters of the method with, which
+     * include a {@code null} continuation for a suspend function.
+     */
+    Object[] getValidationArguments(Object[] arguments) {
+        return suspending ? Arrays.copyOf(arguments, arguments.length + 1)
+                : arguments;
+    }
+
+    /**
+     * Checks whether the method returns a file or a resource, directly or
+     * asynchronously, which is written as the raw body of the response.
+     *
+     * @return {@code true} if the method returns a download, {@code false}
+     *         otherwise
+     */
+    public boolean isDownload() {
+        return download;
+    }
+
+    /**
+     * Checks whether the method returns a {@link Flux}, an
+     * {@link EndpointSubscription} or a shared signal, which the caller
+     * subscribes to on the calling thread rather than reading it as a value.
+     *
+     * @return {@code true} if the method returns a subscription,
+     *         {@code false} otherwise
+     */
+    public boolean isSubscription() {
+        return subscription;
+    }
+
+    /**
+     * Gets the readers for the method parameters, built with the given mapper.
+     * The readers are created on first use and reused as long as the same
+     * mapper is given.
+     */
+    ObjectReader[] getParameterReaders(ObjectMapper mapper) {
+        var bound = boundReaders;
+        if (bound == null || bound.mapper() != mapper) {
+            var readers = new ObjectReader[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                readers[i] = mapper.readerFor(mapper.getTypeFactory()
+                        .constructType(parameterTypes[i]));
+            }
+            bound = new BoundReaders(mapper, readers);
+            boundReaders = bound;
+        }
+        return bound.readers();
+    }
+
+    /**
+     * Gets the validation steps that can find violations for the method, as
+     * described by the metadata of the given validator. The steps are computed
+     * on first use and reused as long as the same validator is given.
+     */
+    ValidationSteps getValidationSteps(Validator validator) {
+        var steps = validationSteps;
+        if (steps == null || steps.validator() != validator) {
+            steps = createValidationSteps(validator);
+            validationSteps = steps;
+        }
+        return steps;
+    }
+
+    private ValidationSteps createValidationSteps(Validator validator) {
+        try {
+            MethodDescriptor descriptor = validator
+                    .getConstraintsForClass(endpointClass)
+                    .getConstraintsForMethod(method.getName(),
+                            method.getParameterTypes());
+            if (descriptor == null) {
+                // Neither the parameters nor the return value are constrained
+                return new ValidationSteps(validator, false, false);
+            }
+            return new ValidationSteps(validator,
+                    descriptor.hasConstrainedParameters(),
+                    descriptor.hasConstrainedReturnValue());
+        } catch (RuntimeException e) {
+            LoggerFactory.getLogger(EndpointInvocationPlan.class).debug(
+                    "Unable to read the constraints of method '{}', "
+                            + "it will always be validated",
+                    method, e);
+            return new ValidationSteps(validator, true, true);
+        }
+    }
+
+    private static Type getAsyncValueType(Method method,
+            Class<?> endpointClass) {
+        Class<?> returnType = method.getReturnType();
+        if (!CompletionStage.class.isAssignableFrom(returnType)
+                && !Mono.class.isAssignableFrom(returnType)) {
+            return null;
+        }
+        Type exactReturnType = GenericTypeReflector
+                .getExactReturnType(method, endpointClass);
+        Type valueType = GenericTypeReflector.getTypeParameter(
+                exactReturnType,
+                CompletionStage.class.isAssignableFrom(returnType)
+                        ? CompletionStage.class.getTypeParameters()[0]
+                        : Mono.class.getTypeParameters()[0]);
+        return valueType != null ? valueType : Object.class;
+    }
+
+    /**
+     * Gets the type of the value a suspend function completes with, which is
+     * the type argument of its {@code Continuation<? super T>} parameter.
+     * Functions completing with {@code Unit} have no value.
+     */
+    private static Type getSuspendValueType(Type continuationType) {
+        if (!(continuationType instanceof ParameterizedType parameterized)) {
+            return Object.class;
+        }
+        Type valueType = parameterized.getActualTypeArguments()[0];
+        if (valueType instanceof WildcardType wildcard) {
+            valueType = wildcard.getLowerBounds().length > 0
+                    ? wildcard.getLowerBounds()[0]
+                    : wildcard.getUpperBounds()[0];
+        }
+        return "kotlin.Unit".equals(valueType.getTypeName()) ? Void.class
+                : valueType;
+    }
+
+    private static boolean isSubscriptionType(Class<?> returnType) {
+        return Flux.class.isAssignableFrom(returnType)
+                || EndpointSubscription.class.isAssignableFrom(returnType)
+                || AbstractSharedSignal.class.isAssignableFrom(returnType);
+    }
+
+    private static boolean isNonNullApi(Package pkg) {
+        return pkg != null && Stream.of(pkg.getAnnotations())
+                .anyMatch(ann -> ann.annotationType().getSimpleName()
+                        .equals(NonNullApi.class.getSimpleName()));
+    }
+
+    private record BoundReaders(ObjectMapper mapper, ObjectReader[] readers) {
+    }
+
+    /**
+     * The method level validation steps that need to run for a method.
+     */
+    record ValidationSteps(Validator validator, boolean parameters,
+            boolean returnValue) {
+    }
+}
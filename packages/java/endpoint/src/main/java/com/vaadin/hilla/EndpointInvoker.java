@@ -20,13 +20,11 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 
-import java.lang.reflect.InvocationTargetException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.lang.reflect.Type;
 import java.security.Principal;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -34,21 +32,26 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import com.googlecode.gentyref.GenericTypeReflector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.http.ResponseEntity;
-import org.springframework.lang.NonNullApi;
-import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Mono;
 import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.exc.StreamReadException;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
 import tools.jackson.databind.node.ObjectNode;
 
 import com.vaadin.flow.server.VaadinServletContext;
@@ -60,6 +63,7 @@ import com.vaadin.hilla.EndpointInvocationException.EndpointNotFoundException;
 import com.vaadin.hilla.EndpointInvocationException.EndpointUnauthorizedException;
 import com.vaadin.hilla.EndpointRegistry.VaadinEndpointData;
 import com.vaadin.hilla.auth.EndpointAccessChecker;
+import com.vaadin.hilla.endpointransfermapper.EndpointTransferMapper;
 import com.vaadin.hilla.exception.EndpointException;
 import com.vaadin.hilla.exception.EndpointValidationException;
 import com.vaadin.hilla.exception.EndpointValidationException.ValidationErrorData;
@@ -74,12 +78,22 @@ import com.vaadin.hilla.exception.EndpointValidationException.ValidationErrorDat
  * For internal use only. May be renamed or removed in a future release.
  */
 public class EndpointInvoker {
+    private static final AtomicInteger constrainedBeanTypesGeneration = new AtomicInteger();
+
     private final ApplicationContext applicationContext;
     private final ObjectMapper endpointObjectMapper;
     private final EndpointRegistry endpointRegistry;
     private final ExplicitNullableTypeChecker explicitNullableTypeChecker;
     private final ServletContext servletContext;
     private final Validator validator;
+    private volatile ConstrainedBeanTypes constrainedBeanTypes = new ConstrainedBeanTypes(
+            constrainedBeanTypesGeneration.get());
+    private volatile EndpointAccessChecker accessChecker;
+    private EndpointExecutor executor = EndpointExecutor.DIRECT;
+    private EndpointMetrics metrics = EndpointMetrics.NONE;
+    private EndpointTracer tracer = EndpointTracer.NONE;
+    private volatile ObjectMapper fieldSelectionMapper;
+    private volatile ObjectMapper referenceEncodingMapper;
 
     /**
      * Creates an instance of this bean.
@@ -126,6 +140,156 @@ public class EndpointInvoker {
         return LoggerFactory.getLogger(EndpointInvoker.class);
     }
 
+    /**
+     * Sets the executor running the endpoint method calls. By default, the
+     * calls run on the request thread without concurrency limits.
+     *
+     * @param executor
+     *            the executor to use
+     */
+    void setExecutor(EndpointExecutor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the metrics the calls are measured for. By default, the calls are
+     * not measured.
+     *
+     * @param metrics
+     *            the metrics to use
+     */
+    void setMetrics(EndpointMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the tracer creating the spans of the calls. By default, the calls
+     * are not traced.
+     *
+     * @param tracer
+     *            the tracer to use
+     */
+    void setTracer(EndpointTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Starts the trace of a call of the given method, which reports the
+     * phases of the call to the metrics, to a new span and to a Flight
+     * Recorder event.
+     *
+     * @param route
+     *            the route of the method
+     * @param serverTiming
+     *            whether the durations of the phases are kept for the
+     *            {@code Server-Timing} header
+     * @return the trace, which must be finished once the call is over
+     */
+    EndpointCallTrace startTrace(EndpointRoute route, boolean serverTiming) {
+        boolean traced = tracer.isEnabled();
+        // Cheap when no recording has the event enabled
+        var event = new EndpointCallEvent();
+        boolean recorded = event.isEnabled();
+        if (!traced && !recorded && !serverTiming && !metrics.isEnabled()) {
+            return EndpointCallTrace.NONE;
+        }
+        return new EndpointCallTrace(route, metrics,
+                traced ? tracer.startSpan(route.getEndpointName(),
+                        route.getMethodName()) : null,
+                recorded ? event : null, serverTiming);
+    }
+
+    /**
+     * Records the size of the body of a request calling the given method, if
+     * the calls are measured and the size is known.
+     *
+     * @param route
+     *            the route of the method
+     * @param size
+     *            the size of the request body, or {@code -1} if unknown
+     */
+    void recordRequestSize(EndpointRoute route, long size) {
+        if (size >= 0 && metrics.isEnabled()) {
+            metrics.recordRequestSize(route.getEndpointName(),
+                    route.getMethodName(), size);
+        }
+    }
+
+    /**
+     * Reads the validation metadata of the given endpoint ahead of the first
+     * call: the constraints of the endpoint class, of its methods and of their
+     * parameter types. The validation steps that cannot find any violation are
+     * then skipped when the methods are invoked.
+     *
+     * @param endpointData
+     *            the endpoint to prepare
+     */
+    public void prepareValidation(VaadinEndpointData endpointData) {
+        for (var plan : endpointData.getInvocationPlans()) {
+            plan.getValidationSteps(validator);
+            for (var parameterType : plan.getMethod().getParameterTypes()) {
+                isConstrainedBeanType(parameterType);
+            }
+        }
+    }
+
+    /**
+     * Builds ahead of the first calls the readers of the parameters, the
+     * writers of the return values and the validation metadata of the methods
+     * of the given endpoints, which are otherwise built by the first call of
+     * every method.
+     *
+     * @param endpoints
+     *            the endpoints to warm up
+     * @return the number of methods warmed up
+     */
+    int warmUp(Collection<VaadinEndpointData> endpoints) {
+        var warmUp = new EndpointWarmUp(endpointObjectMapper, validator,
+                new EndpointTransferMapper());
+        int methods = 0;
+        for (var endpointData : endpoints) {
+            for (var plan : endpointData.getInvocationPlans()) {
+                warmUp.warmUp(plan);
+                methods++;
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Discards the cached information about which types have bean
+     * constraints, so that it is read again from the current classes. Used
+     * when classes are redefined at runtime.
+     */
+    static void clearCache() {
+        constrainedBeanTypesGeneration.incrementAndGet();
+    }
+
+    private boolean isConstrainedBeanType(Class<?> type) {
+        ConstrainedBeanTypes types = constrainedBeanTypes;
+        int generation = constrainedBeanTypesGeneration.get();
+        if (types.generation != generation) {
+            types = new ConstrainedBeanTypes(generation);
+            constrainedBeanTypes = types;
+        }
+        return types.get(type);
+    }
+
+    private boolean isBeanConstrained(Class<?> type) {
+        if (type.isPrimitive()) {
+            return false;
+        }
+        try {
+            return validator.getConstraintsForClass(type).isBeanConstrained();
+        } catch (RuntimeException e) {
+            getLogger().debug(
+                    "Unable to read the constraints of type '{}', "
+                            + "its instances will always be validated",
+                    type, e);
+            return true;
+        }
+    }
+
     /**
      * Gets the return type of the given method.
      *
@@ -135,18 +299,25 @@ public class EndpointInvoker {
      *            the name of the method
      */
     public Class<?> getReturnType(String endpointName, String methodName) {
-        Method method = getMethod(endpointName, methodName);
-        if (method == null) {
+        EndpointInvocationPlan plan = getInvocationPlan(endpointName,
+                methodName);
+        if (plan == null) {
             getLogger().debug("Method '{}' not found in endpoint '{}'",
                     methodName, endpointName);
             return null;
         }
-        return method.getReturnType();
+        return plan.getMethod().getReturnType();
     }
 
     /**
      * Invoke the given endpoint method with the given parameters if the user
      * has access to do so.
+     * <p>
+     * If the method returns a {@link CompletionStage} or a {@link Mono}, the
+     * result is a {@link CompletionStage} that completes with the checked
+     * value of the method, or exceptionally with a
+     * {@link CompletionException} caused by the {@link EndpointHttpException}
+     * or {@link EndpointException} describing the failure.
      *
      * @param endpointName
      *            the name of the endpoint
@@ -168,20 +339,86 @@ public class EndpointInvoker {
             ObjectNode body, Principal principal,
             Function<String, Boolean> rolesChecker)
             throws EndpointHttpException {
-        VaadinEndpointData vaadinEndpointData = getVaadinEndpointData(
-                endpointName);
+        return invoke(endpointName, methodName, null, null, null, body,
+                principal, rolesChecker);
+    }
 
-        Method methodToInvoke = getMethod(endpointName, methodName);
-        if (methodToInvoke == null) {
-            getLogger().debug("Method '{}' not found in endpoint '{}'",
-                    methodName, endpointName);
-            throw new EndpointNotFoundException();
-        }
+    /**
+     * Invoke the given endpoint method like
+     * {@link #invoke(String, String, ObjectNode, Principal, Function)}, using
+     * the route already resolved for the request if any. The phases of the
+     * call are reported to the given trace, which the caller finishes, or to
+     * a trace of the call itself if none is given. Only the given selected
+     * properties of the return value are checked for implicit nulls, if any.
+     */
+    Object invoke(String endpointName, String methodName, EndpointRoute route,
+            EndpointCallTrace trace, EndpointFieldSelection fields,
+            ObjectNode body, Principal principal,
+            Function<String, Boolean> rolesChecker)
+            throws EndpointHttpException {
+        EndpointRoute methodRoute = route != null ? route
+                : getRoute(endpointName, methodName);
+        EndpointInvocationPlan plan = methodRoute.getPlan();
 
         return invokeVaadinEndpointMethod(endpointName, methodName,
-                methodToInvoke, body, vaadinEndpointData, principal,
-                rolesChecker);
+                methodRoute, trace, fields, principal, rolesChecker,
+                () -> getVaadinEndpointParameters(body, plan, methodName,
+                        endpointName));
+    }
+
+    /**
+     * Invoke the given endpoint method if the user has access to do so,
+     * reading the parameters from the given stream.
+     * <p>
+     * Unlike {@link #invoke(String, String, ObjectNode, Principal, Function)},
+     * the request body is not read as a JSON tree first: each parameter is
+     * deserialized into its target type directly from the stream. The stream
+     * is only read after the access check has passed.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method in the endpoint
+     * @param body
+     *            the stream containing the JSON request body, which is an
+     *            object having a property for each method parameter
+     * @param principal
+     *            the user principal object
+     * @param rolesChecker
+     *            a function for checking if a user is in a given role
+     * @return the return value of the invoked endpoint method
+     * @throws EndpointHttpException
+     *             if thrown by the endpoint
+     */
+    public Object invokeStreaming(String endpointName, String methodName,
+            InputStream body, Principal principal,
+            Function<String, Boolean> rolesChecker)
+            throws EndpointHttpException {
+        return invokeStreaming(endpointName, methodName, null, null, null,
+                body, principal, rolesChecker);
+    }
 
+    /**
+     * Invoke the given endpoint method like
+     * {@link #invokeStreaming(String, String, InputStream, Principal, Function)},
+     * using the route already resolved for the request if any and reporting
+     * the phases of the call as
+     * {@link #invoke(String, String, EndpointRoute, EndpointCallTrace, EndpointFieldSelection, ObjectNode, Principal, Function)}
+     * does.
+     */
+    Object invokeStreaming(String endpointName, String methodName,
+            EndpointRoute route, EndpointCallTrace trace,
+            EndpointFieldSelection fields, InputStream body,
+            Principal principal, Function<String, Boolean> rolesChecker)
+            throws EndpointHttpException {
+        EndpointRoute methodRoute = route != null ? route
+                : getRoute(endpointName, methodName);
+        EndpointInvocationPlan plan = methodRoute.getPlan();
+
+        return invokeVaadinEndpointMethod(endpointName, methodName,
+                methodRoute, trace, fields, principal, rolesChecker,
+                () -> readVaadinEndpointParameters(body, plan, methodName,
+                        endpointName));
     }
 
     public VaadinEndpointData getVaadinEndpointData(String endpointName)
@@ -207,21 +444,87 @@ public class EndpointInvoker {
     }
 
     EndpointAccessChecker getAccessChecker() {
-        VaadinServletContext vaadinServletContext = new VaadinServletContext(
-                servletContext);
-        VaadinConnectAccessCheckerWrapper wrapper = vaadinServletContext
-                .getAttribute(VaadinConnectAccessCheckerWrapper.class, () -> {
-                    EndpointAccessChecker accessChecker = applicationContext
-                            .getBean(EndpointAccessChecker.class);
-                    return new VaadinConnectAccessCheckerWrapper(accessChecker);
-                });
-        return wrapper.accessChecker;
+        EndpointAccessChecker checker = accessChecker;
+        if (checker == null) {
+            VaadinServletContext vaadinServletContext = new VaadinServletContext(
+                    servletContext);
+            VaadinConnectAccessCheckerWrapper wrapper = vaadinServletContext
+                    .getAttribute(VaadinConnectAccessCheckerWrapper.class,
+                            () -> new VaadinConnectAccessCheckerWrapper(
+                                    applicationContext.getBean(
+                                            EndpointAccessChecker.class)));
+            checker = wrapper.accessChecker;
+            // Resolved once, instead of on every endpoint call
+            accessChecker = checker;
+        }
+        return checker;
     }
 
     String writeValueAsString(Object returnValue) throws JacksonException {
         return endpointObjectMapper.writeValueAsString(returnValue);
     }
 
+    String writeValueAsString(Object returnValue,
+            EndpointFieldSelection fields) throws JacksonException {
+        if (EndpointReferenceEncoding.isWrapped(returnValue)) {
+            return getReferenceEncodingMapper()
+                    .writeValueAsString(returnValue);
+        } else if (fields == null) {
+            return writeValueAsString(returnValue);
+        }
+        return fields.getWriter(getFieldSelectionMapper())
+                .writeValueAsString(returnValue);
+    }
+
+    void writeValue(OutputStream outputStream, Object returnValue,
+            EndpointFieldSelection fields) throws JacksonException {
+        if (EndpointReferenceEncoding.isWrapped(returnValue)) {
+            getReferenceEncodingMapper().writeValue(outputStream, returnValue);
+        } else if (fields == null) {
+            endpointObjectMapper.writeValue(outputStream, returnValue);
+        } else {
+            fields.getWriter(getFieldSelectionMapper()).writeValue(outputStream,
+                    returnValue);
+        }
+    }
+
+    void writeValue(JsonGenerator generator, Object returnValue,
+            EndpointFieldSelection fields) throws JacksonException {
+        if (fields == null) {
+            endpointObjectMapper.writeValue(generator, returnValue);
+        } else {
+            fields.getWriter(getFieldSelectionMapper()).writeValue(generator,
+                    returnValue);
+        }
+    }
+
+    /**
+     * Gets the copy of the endpoint mapper applying the field selections,
+     * created on first use as most applications never select fields.
+     */
+    private ObjectMapper getFieldSelectionMapper() {
+        ObjectMapper mapper = fieldSelectionMapper;
+        if (mapper == null) {
+            mapper = EndpointFieldSelection.createMapper(endpointObjectMapper);
+            fieldSelectionMapper = mapper;
+        }
+        return mapper;
+    }
+
+    /**
+     * Gets the copy of the endpoint mapper writing the shared objects once,
+     * created on first use as the encoding is disabled by default.
+     */
+    private ObjectMapper getReferenceEncodingMapper() {
+        ObjectMapper mapper = referenceEncodingMapper;
+        if (mapper == null) {
+            mapper = EndpointReferenceEncoding
+                    .createMapper(endpointObjectMapper);
+            referenceEncodingMapper = mapper;
+        }
+        return mapper;
+    }
+
     private List<ValidationErrorData> createBeanValidationErrors(
             Collection<ConstraintViolation<Object>> beanConstraintViolations) {
         return beanConstraintViolations.stream().map(constraintViolation -> {
@@ -283,19 +586,30 @@ public class EndpointInvoker {
         return new EndpointValidationException(message, validationErrorData);
     }
 
-    private Type[] getJavaParameters(Method methodToInvoke, Type classType) {
-        return Stream.of(GenericTypeReflector
-                .getExactParameterTypes(methodToInvoke, classType))
-                .toArray(Type[]::new);
+    private EndpointRoute getRoute(String endpointName, String methodName)
+            throws EndpointNotFoundException {
+        EndpointRoute route = endpointRegistry.getRoute(endpointName,
+                methodName);
+        if (route == null) {
+            // Logs when the endpoint itself is missing
+            getVaadinEndpointData(endpointName);
+            getLogger().debug("Method '{}' not found in endpoint '{}'",
+                    methodName, endpointName);
+            throw new EndpointNotFoundException();
+        }
+        return route;
     }
 
-    private Method getMethod(String endpointName, String methodName) {
-        VaadinEndpointData endpointData = endpointRegistry.get(endpointName);
-        if (endpointData == null) {
-            getLogger().debug("Endpoint '{}' not found", endpointName);
+    private EndpointInvocationPlan getInvocationPlan(String endpointName,
+            String methodName) {
+        EndpointRoute route = endpointRegistry.getRoute(endpointName,
+                methodName);
+        if (route == null) {
+            getLogger().debug("Endpoint '{}' method '{}' not found",
+                    endpointName, methodName);
             return null;
         }
-        return endpointData.getMethod(methodName).orElse(null);
+        return route.getPlan();
     }
 
     private Map<String, JsonNode> getRequestParameters(ObjectNode body,
@@ -330,36 +644,117 @@ public class EndpointInvoker {
         return orderedData;
     }
 
-    private Object[] getVaadinEndpointParameters(
-            Map<String, JsonNode> requestParameters, Type[] javaParameters,
-            String methodName, String endpointName) {
-        Object[] endpointParameters = new Object[javaParameters.length];
+    private Object[] getVaadinEndpointParameters(ObjectNode body,
+            EndpointInvocationPlan plan, String methodName,
+            String endpointName) throws EndpointBadRequestException {
+        Map<String, JsonNode> requestParameters = getRequestParameters(body,
+                plan.getParameterNames());
+        if (plan.getParameterCount() != requestParameters.size()) {
+            throw createIncorrectParameterCountException(endpointName,
+                    methodName, plan, requestParameters.size());
+        }
+
+        Object[] endpointParameters = new Object[plan.getParameterCount()];
         String[] parameterNames = new String[requestParameters.size()];
         requestParameters.keySet().toArray(parameterNames);
+        ObjectReader[] readers = plan
+                .getParameterReaders(endpointObjectMapper);
         Map<String, String> errorParams = new HashMap<>();
         Set<ConstraintViolation<Object>> constraintViolations = new LinkedHashSet<>();
 
-        for (int i = 0; i < javaParameters.length; i++) {
-            Type parameterType = javaParameters[i];
-            Type incomingType = parameterType;
-            try {
-                Object parameter = endpointObjectMapper
-                        .readerFor(endpointObjectMapper.getTypeFactory()
-                                .constructType(incomingType))
-                        .readValue(requestParameters.get(parameterNames[i]));
-                endpointParameters[i] = parameter;
-
-                if (parameter != null) {
-                    constraintViolations.addAll(validator.validate(parameter));
+        for (int i = 0; i < endpointParameters.length; i++) {
+            JsonNode parameterData = requestParameters.get(parameterNames[i]);
+            ObjectReader reader = readers[i];
+            readVaadinEndpointParameter(endpointParameters, i,
+                    parameterNames[i], () -> reader.readValue(parameterData),
+                    plan, endpointName, methodName, errorParams,
+                    constraintViolations);
+        }
+
+        if (errorParams.isEmpty() && constraintViolations.isEmpty()) {
+            return endpointParameters;
+        }
+        throw getInvalidEndpointParametersException(methodName, endpointName,
+                errorParams, constraintViolations);
+    }
+
+    private Object[] readVaadinEndpointParameters(InputStream body,
+            EndpointInvocationPlan plan, String methodName,
+            String endpointName) throws EndpointBadRequestException {
+        List<String> parameterNames = plan.getParameterNames();
+        Object[] endpointParameters = new Object[plan.getParameterCount()];
+        boolean[] boundParameters = new boolean[endpointParameters.length];
+        int boundCount = 0;
+        ObjectReader[] readers = plan
+                .getParameterReaders(endpointObjectMapper);
+        // Values whose names do not match any parameter, bound by position
+        // once the whole body has been read
+        Map<String, JsonNode> unmatchedParameters = new LinkedHashMap<>();
+        Map<String, String> errorParams = new HashMap<>();
+        Set<ConstraintViolation<Object>> constraintViolations = new LinkedHashSet<>();
+
+        try (JsonParser parser = endpointObjectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token != null && token != JsonToken.VALUE_NULL) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new EndpointBadRequestException(
+                            "Request body must be a JSON object");
+                }
+                int depth = parser.streamReadContext().getNestingDepth();
+                while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                    String name = parser.currentName();
+                    parser.nextToken();
+                    int index = parameterNames.indexOf(name);
+                    if (index < 0) {
+                        unmatchedParameters.put(name,
+                                endpointObjectMapper.readTree(parser));
+                        continue;
+                    }
+                    if (!boundParameters[index]) {
+                        boundParameters[index] = true;
+                        boundCount++;
+                    }
+                    ObjectReader reader = readers[index];
+                    if (!readVaadinEndpointParameter(endpointParameters, index,
+                            name, () -> reader.readValue(parser), plan,
+                            endpointName, methodName, errorParams,
+                            constraintViolations)) {
+                        // Skip the rest of the value that failed to bind
+                        while (parser.streamReadContext()
+                                .getNestingDepth() > depth
+                                && parser.nextToken() != null) {
+                        }
+                    }
                 }
-            } catch (JacksonException e) {
-                String typeName = parameterType.getTypeName();
-                getLogger().error(
-                        "Unable to deserialize an endpoint '{}' method '{}' "
-                                + "parameter '{}' with type '{}'",
-                        endpointName, methodName, parameterNames[i], typeName,
-                        e);
-                errorParams.put(parameterNames[i], typeName);
+            }
+        } catch (JacksonException e) {
+            getLogger().debug("Unable to read the request body of endpoint "
+                    + "'{}' method '{}'", endpointName, methodName, e);
+            throw new EndpointBadRequestException(
+                    "Request body does not contain valid JSON");
+        }
+
+        if (!unmatchedParameters.isEmpty()) {
+            getLogger().debug(
+                    "The parameter names in the request body do not match the method parameters. Expected: {}, but got: {}",
+                    parameterNames, unmatchedParameters.keySet());
+        }
+        int receivedCount = boundCount + unmatchedParameters.size();
+        if (receivedCount != endpointParameters.length) {
+            throw createIncorrectParameterCountException(endpointName,
+                    methodName, plan, receivedCount);
+        }
+
+        var unmatched = unmatchedParameters.entrySet().iterator();
+        for (int i = 0; i < endpointParameters.length; i++) {
+            if (!boundParameters[i]) {
+                var entry = unmatched.next();
+                ObjectReader reader = readers[i];
+                readVaadinEndpointParameter(endpointParameters, i,
+                        entry.getKey(),
+                        () -> reader.readValue(entry.getValue()), plan,
+                        endpointName, methodName, errorParams,
+                        constraintViolations);
             }
         }
 
@@ -370,15 +765,50 @@ public class EndpointInvoker {
                 errorParams, constraintViolations);
     }
 
+    private boolean readVaadinEndpointParameter(Object[] endpointParameters,
+            int index, String parameterName, ParameterValueReader valueReader,
+            EndpointInvocationPlan plan, String endpointName,
+            String methodName, Map<String, String> errorParams,
+            Set<ConstraintViolation<Object>> constraintViolations) {
+        try {
+            Object parameter = valueReader.read();
+            endpointParameters[index] = parameter;
+
+            if (parameter != null
+                    && isConstrainedBeanType(parameter.getClass())) {
+                constraintViolations.addAll(validator.validate(parameter));
+            }
+            return true;
+        } catch (StreamReadException e) {
+            // Not recoverable, the rest of the body cannot be read
+            throw e;
+        } catch (JacksonException e) {
+            String typeName = plan.getParameterType(index).getTypeName();
+            getLogger().error(
+                    "Unable to deserialize an endpoint '{}' method '{}' "
+                            + "parameter '{}' with type '{}'",
+                    endpointName, methodName, parameterName, typeName, e);
+            errorParams.put(parameterName, typeName);
+            return false;
+        }
+    }
+
+    private EndpointBadRequestException createIncorrectParameterCountException(
+            String endpointName, String methodName,
+            EndpointInvocationPlan plan, int receivedCount) {
+        return new EndpointBadRequestException(String.format(
+                "Incorrect number of parameters for endpoint '%s' method '%s', "
+                        + "expected: %s, got: %s",
+                endpointName, methodName, plan.getParameterCount(),
+                receivedCount));
+    }
+
     private ResponseEntity<String> handleMethodExecutionError(
-            String endpointName, String methodName, InvocationTargetException e)
+            String endpointName, String methodName, Throwable e)
             throws EndpointHttpException {
-        var wrappedException = e.getCause();
-        if (wrappedException instanceof EndpointHttpException ex) {
+        if (e instanceof EndpointHttpException ex) {
             throw ex;
-        } else if (EndpointException.class
-                .isAssignableFrom(wrappedException.getClass())) {
-            EndpointException endpointException = ((EndpointException) wrappedException);
+        } else if (e instanceof EndpointException endpointException) {
             getLogger().debug("Endpoint '{}' method '{}' aborted the execution",
                     endpointName, methodName, endpointException);
             throw endpointException;
@@ -387,37 +817,89 @@ public class EndpointInvoker {
                     "Endpoint '%s' method '%s' execution failure", endpointName,
                     methodName);
             getLogger().error(errorMessage, e);
-            throw new EndpointInternalException(errorMessage);
+            var internalException = new EndpointInternalException(
+                    errorMessage);
+            internalException.initCause(e);
+            throw internalException;
         }
     }
 
     public String checkAccess(EndpointRegistry.VaadinEndpointData endpointData,
             Method methodToInvoke, Principal principal,
             Function<String, Boolean> rolesChecker) {
-        var methodDeclaringClass = methodToInvoke.getDeclaringClass();
-        var invokedEndpointClass = ClassUtils
-                .getUserClass(endpointData.getEndpointObject());
+        var plan = endpointData.getInvocationPlan(methodToInvoke.getName())
+                .filter(p -> p.getMethod().equals(methodToInvoke))
+                .orElseGet(() -> EndpointInvocationPlan.create(methodToInvoke,
+                        endpointData.getEndpointObject()));
+        return checkAccess(plan, principal, rolesChecker);
+    }
+
+    private String checkAccess(EndpointInvocationPlan plan,
+            Principal principal, Function<String, Boolean> rolesChecker) {
         EndpointAccessChecker accessChecker = getAccessChecker();
-        String checkError;
-        if (methodDeclaringClass.equals(invokedEndpointClass)) {
-            checkError = accessChecker.check(methodToInvoke, principal,
+        if (plan.isMethodAccessTarget()) {
+            return accessChecker.check(plan.getMethod(), principal,
                     rolesChecker);
         } else {
-            checkError = accessChecker.check(invokedEndpointClass, principal,
+            return accessChecker.check(plan.getEndpointClass(), principal,
                     rolesChecker);
         }
-        return checkError;
     }
 
     private Object invokeVaadinEndpointMethod(String endpointName,
-            String methodName, Method methodToInvoke, ObjectNode body,
-            VaadinEndpointData vaadinEndpointData, Principal principal,
-            Function<String, Boolean> rolesChecker)
-            throws EndpointHttpException {
+            String methodName, EndpointRoute route, EndpointCallTrace trace,
+            EndpointFieldSelection fields, Principal principal,
+            Function<String, Boolean> rolesChecker,
+            ParametersReader parametersReader) throws EndpointHttpException {
         HillaStats.reportEndpointActive();
 
-        var checkError = checkAccess(vaadinEndpointData, methodToInvoke,
-                principal, rolesChecker);
+        // Without a trace given by the caller, the call has its own one
+        EndpointCallTrace callTrace = trace != null ? trace
+                : startTrace(route, false);
+        Object result;
+        try {
+            result = checkAndInvokeVaadinEndpointMethod(endpointName,
+                    methodName, route, callTrace, fields, principal,
+                    rolesChecker, parametersReader);
+        } catch (EndpointHttpException | RuntimeException e) {
+            callTrace.recordError(e);
+            if (trace == null) {
+                callTrace.finish();
+            }
+            throw e;
+        }
+        if (result instanceof CompletionStage<?> stage
+                && callTrace.isActive()) {
+            // Asynchronous methods, or methods running on virtual threads.
+            // The returned stage completes once the trace is updated.
+            return stage.whenComplete((value, error) -> {
+                if (error != null) {
+                    callTrace.recordError(error instanceof CompletionException
+                            && error.getCause() != null ? error.getCause()
+                                    : error);
+                }
+                if (trace == null) {
+                    callTrace.finish();
+                }
+            });
+        }
+        if (trace == null) {
+            callTrace.finish();
+        }
+        return result;
+    }
+
+    private Object checkAndInvokeVaadinEndpointMethod(String endpointName,
+            String methodName, EndpointRoute route, EndpointCallTrace trace,
+            EndpointFieldSelection fields, Principal principal,
+            Function<String, Boolean> rolesChecker,
+            ParametersReader parametersReader) throws EndpointHttpException {
+        EndpointInvocationPlan plan = route.getPlan();
+        VaadinEndpointData vaadinEndpointData = route.getEndpointData();
+
+        long start = trace.start();
+        var checkError = checkAccess(plan, principal, rolesChecker);
+        trace.end(EndpointMetrics.Phase.ACCESS_CHECK, start);
         if (checkError != null) {
             var message = String.format(
                     "Endpoint '%s' method '%s' request cannot be accessed, reason: '%s'",
@@ -429,63 +911,72 @@ public class EndpointInvoker {
             }
         }
 
-        var parameterNames = Arrays.stream(methodToInvoke.getParameters())
-                .map(Parameter::getName).toList();
-        Map<String, JsonNode> requestParameters = getRequestParameters(body,
-                parameterNames);
-        Type[] javaParameters = getJavaParameters(methodToInvoke, ClassUtils
-                .getUserClass(vaadinEndpointData.getEndpointObject()));
-        if (javaParameters.length != requestParameters.size()) {
-            throw new EndpointBadRequestException(String.format(
-                    "Incorrect number of parameters for endpoint '%s' method '%s', "
-                            + "expected: %s, got: %s",
-                    endpointName, methodName, javaParameters.length,
-                    requestParameters.size()));
-        }
-
-        Object[] vaadinEndpointParameters = getVaadinEndpointParameters(
-                requestParameters, javaParameters, methodName, endpointName);
-
-        Set<ConstraintViolation<Object>> methodParameterConstraintViolations = validator
-                .forExecutables()
-                .validateParameters(vaadinEndpointData.getEndpointObject(),
-                        methodToInvoke, vaadinEndpointParameters);
-        if (!methodParameterConstraintViolations.isEmpty()) {
-            throw new EndpointValidationException(
-                    String.format(
-                            "Validation error in endpoint '%s' method '%s'",
-                            endpointName, methodName),
-                    createMethodValidationErrors(
-                            methodParameterConstraintViolations));
+        Method methodToInvoke = plan.getMethod();
+        start = trace.start();
+        Object[] vaadinEndpointParameters = parametersReader.read();
+        trace.end(EndpointMetrics.Phase.DESERIALIZE, start);
+
+        var validationSteps = plan.getValidationSteps(validator);
+        if (validationSteps.parameters()) {
+            start = trace.start();
+            Set<ConstraintViolation<Object>> methodParameterConstraintViolations = validator
+                    .forExecutables()
+                    .validateParameters(vaadinEndpointData.getEndpointObject(),
+                            methodToInvoke, plan.getValidationArguments(
+                                    vaadinEndpointParameters));
+            trace.end(EndpointMetrics.Phase.VALIDATION, start);
+            if (!methodParameterConstraintViolations.isEmpty()) {
+                throw new EndpointValidationException(
+                        String.format(
+                                "Validation error in endpoint '%s' method '%s'",
+                                endpointName, methodName),
+                        createMethodValidationErrors(
+                                methodParameterConstraintViolations));
+            }
         }
 
-        Object returnValue;
-        try {
-            returnValue = methodToInvoke.invoke(
-                    vaadinEndpointData.getEndpointObject(),
-                    vaadinEndpointParameters);
-        } catch (IllegalArgumentException e) {
+        if (!plan.acceptsArguments(vaadinEndpointParameters)) {
             String errorMessage = String.format(
                     "Received incorrect arguments for endpoint '%s' method '%s'. "
                             + "Expected parameter types (and their order) are: '[%s]'",
-                    endpointName, methodName,
-                    listMethodParameterTypes(javaParameters));
-            getLogger().debug(errorMessage, e);
+                    endpointName, methodName, plan.getParameterTypeNames());
+            getLogger().debug(errorMessage);
             throw new EndpointBadRequestException(errorMessage);
-        } catch (IllegalAccessException e) {
-            String errorMessage = String.format(
-                    "Endpoint '%s' method '%s' access failure", endpointName,
-                    methodName);
-            getLogger().error(errorMessage, e);
-            throw new EndpointInternalException(errorMessage);
-        } catch (InvocationTargetException e) {
+        }
+
+        executor.checkRegistryVersion(endpointRegistry.getVersion());
+        return executor.execute(plan, endpointName, methodName,
+                () -> callVaadinEndpointMethod(endpointName, methodName, route,
+                        trace, fields, vaadinEndpointParameters,
+                        validationSteps));
+    }
+
+    private Object callVaadinEndpointMethod(String endpointName,
+            String methodName, EndpointRoute route, EndpointCallTrace trace,
+            EndpointFieldSelection fields, Object[] vaadinEndpointParameters,
+            EndpointInvocationPlan.ValidationSteps validationSteps)
+            throws EndpointHttpException {
+        EndpointInvocationPlan plan = route.getPlan();
+        VaadinEndpointData vaadinEndpointData = route.getEndpointData();
+        Method methodToInvoke = plan.getMethod();
+        long invokeStart = trace.start();
+        Object returnValue;
+        try (var scope = trace.makeCurrent()) {
+            returnValue = plan.getDispatcher().dispatch(
+                    vaadinEndpointData.getEndpointObject(),
+                    vaadinEndpointParameters);
+        } catch (Throwable e) {
+            trace.end(EndpointMetrics.Phase.INVOKE, invokeStart);
             return handleMethodExecutionError(endpointName, methodName, e);
         }
+        boolean async = plan.isAsync() && returnValue != null;
+        if (!async) {
+            trace.end(EndpointMetrics.Phase.INVOKE, invokeStart);
+        }
 
-        String implicitNullError = this.explicitNullableTypeChecker
-                .checkValueForAnnotatedElement(returnValue, methodToInvoke,
-                        isNonNullApi(methodToInvoke.getDeclaringClass()
-                                .getPackage()));
+        long start = trace.start();
+        String implicitNullError = checkReturnValue(plan, returnValue, fields);
+        trace.end(EndpointMetrics.Phase.NULL_CHECK, start);
         if (implicitNullError != null) {
             String errorMessage = String.format(
                     "Unexpected return value in endpoint '%s' method '%s'. %s",
@@ -494,29 +985,118 @@ public class EndpointInvoker {
             throw new EndpointInternalException(errorMessage);
         }
 
-        Set<ConstraintViolation<Object>> returnValueConstraintViolations = validator
-                .forExecutables()
-                .validateReturnValue(vaadinEndpointData.getEndpointObject(),
-                        methodToInvoke, returnValue);
-        if (!returnValueConstraintViolations.isEmpty()) {
+        if (validationSteps.returnValue()) {
+            start = trace.start();
+            Set<ConstraintViolation<Object>> returnValueConstraintViolations = validator
+                    .forExecutables()
+                    .validateReturnValue(vaadinEndpointData.getEndpointObject(),
+                            methodToInvoke, returnValue);
+            trace.end(EndpointMetrics.Phase.VALIDATION, start);
+            if (!returnValueConstraintViolations.isEmpty()) {
+                String errorMessage = String.format(
+                        "Endpoint '%s' method '%s' returned a value that has validation errors: '%s'",
+                        endpointName, methodName,
+                        returnValueConstraintViolations);
+                throw new EndpointInternalException(errorMessage);
+            }
+        }
+
+        if (async) {
+            return completeAsync(endpointName, methodName, route, trace,
+                    fields, returnValue, invokeStart);
+        }
+        return returnValue;
+    }
+
+    private String checkReturnValue(EndpointInvocationPlan plan,
+            Object returnValue, EndpointFieldSelection fields) {
+        if (plan.isSuspending()) {
+            // Only the value the coroutine completes with is sent
+            return null;
+        }
+        // The public check is kept for the calls sending the whole value
+        return fields == null
+                ? explicitNullableTypeChecker.checkValueForAnnotatedElement(
+                        returnValue, plan.getMethod(), plan.isNonNullApi())
+                : explicitNullableTypeChecker.checkValueForAnnotatedElement(
+                        returnValue, plan.getMethod(), plan.isNonNullApi(),
+                        fields);
+    }
+
+    /**
+     * Applies the return value checks to the value an asynchronous endpoint
+     * method completes with, and maps its failures in the same way as the
+     * failures of synchronous methods.
+     */
+    private CompletionStage<Object> completeAsync(String endpointName,
+            String methodName, EndpointRoute route, EndpointCallTrace trace,
+            EndpointFieldSelection fields, Object returnValue,
+            long invokeStart) {
+        CompletionStage<?> stage = returnValue instanceof Mono<?> mono
+                ? mono.toFuture()
+                : (CompletionStage<?>) returnValue;
+        return stage.handle((value, error) -> {
+            trace.end(EndpointMetrics.Phase.INVOKE, invokeStart);
+            try {
+                return checkAsyncValue(endpointName, methodName, route, trace,
+                        fields, value, error);
+            } catch (EndpointHttpException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    private Object checkAsyncValue(String endpointName, String methodName,
+            EndpointRoute route, EndpointCallTrace trace,
+            EndpointFieldSelection fields, Object value, Throwable error)
+            throws EndpointHttpException {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException
+                    && error.getCause() != null ? error.getCause() : error;
+            handleMethodExecutionError(endpointName, methodName, cause);
+        }
+
+        EndpointInvocationPlan plan = route.getPlan();
+        long start = trace.start();
+        String implicitNullError = explicitNullableTypeChecker.checkAsyncValue(
+                value, plan.getMethod(), plan.getAsyncValueType(),
+                plan.isNonNullApi(), fields);
+        trace.end(EndpointMetrics.Phase.NULL_CHECK, start);
+        if (implicitNullError != null) {
             String errorMessage = String.format(
-                    "Endpoint '%s' method '%s' returned a value that has validation errors: '%s'",
-                    endpointName, methodName, returnValueConstraintViolations);
+                    "Unexpected return value in endpoint '%s' method '%s'. %s",
+                    endpointName, methodName, implicitNullError);
+            getLogger().error(errorMessage);
             throw new EndpointInternalException(errorMessage);
         }
+        return value;
+    }
 
-        return returnValue;
+    @FunctionalInterface
+    private interface ParametersReader {
+        Object[] read() throws EndpointHttpException;
     }
 
-    private boolean isNonNullApi(Package pkg) {
-        return Stream.of(pkg.getAnnotations())
-                .anyMatch(ann -> ann.annotationType().getSimpleName()
-                        .equals(NonNullApi.class.getSimpleName()));
+    @FunctionalInterface
+    private interface ParameterValueReader {
+        Object read() throws JacksonException;
     }
 
-    private String listMethodParameterTypes(Type[] javaParameters) {
-        return Stream.of(javaParameters).map(Type::getTypeName)
-                .collect(Collectors.joining(", "));
+    /**
+     * Caches whether the types have bean constraints, for the classes as they
+     * were when the cache was created.
+     */
+    private final class ConstrainedBeanTypes extends ClassValue<Boolean> {
+        private final int generation;
+
+        private ConstrainedBeanTypes(int generation) {
+            this.generation = generation;
+        }
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return isBeanConstrained(type);
+        }
     }
 
     private static class VaadinConnectAccessCheckerWrapper {
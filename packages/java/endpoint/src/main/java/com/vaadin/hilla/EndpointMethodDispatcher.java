@@ -0,0 +1,133 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.slf4j.LoggerFactory;
+import org.springframework.core.CoroutinesUtils;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Mono;
+
+/**
+ * Calls an endpoint method on a given endpoint instance.
+ * <p>
+ * Unlike {@link Method#invoke(Object, Object...)}, exceptions thrown by the
+ * endpoint method are propagated as is, without being wrapped in an
+ * {@link InvocationTargetException}. The arguments are expected to match the
+ * method parameter types, see
+ * {@link EndpointInvocationPlan#acceptsArguments(Object[])}.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ */
+@FunctionalInterface
+public interface EndpointMethodDispatcher {
+    /**
+     * Invokes the method.
+     *
+     * @param target
+     *            the endpoint instance, ignored for static methods
+     * @param arguments
+     *            the method arguments
+     * @return the value returned by the method, or {@code null} for void
+     *         methods
+     * @throws Throwable
+     *             any exception thrown by the method
+     */
+    Object dispatch(Object target, Object[] arguments) throws Throwable;
+
+    /**
+     * Creates a dispatcher for the given method.
+     * <p>
+     * The dispatcher is backed by a {@link MethodHandle} adapted to a generic
+     * {@code (Object, Object[])Object} signature. If the handle cannot be
+     * created, reflection is used instead.
+     *
+     * @param method
+     *            the method to dispatch calls to, made accessible if not
+     *            public
+     * @return the dispatcher
+     */
+    static EndpointMethodDispatcher of(Method method) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+        } catch (IllegalAccessException | RuntimeException e) {
+            LoggerFactory.getLogger(EndpointMethodDispatcher.class).debug(
+                    "Falling back to reflection for method '{}'", method, e);
+            return reflective(method);
+        }
+
+        handle = handle.asSpreader(Object[].class, method.getParameterCount());
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        MethodHandle dispatchHandle = handle.asType(MethodType
+                .methodType(Object.class, Object.class, Object[].class));
+        return (target, arguments) -> (Object) dispatchHandle
+                .invokeExact(target, arguments);
+    }
+
+    /**
+     * Creates a dispatcher for the given Kotlin suspend function.
+     * <p>
+     * The arguments do not include the continuation. The dispatcher starts the
+     * coroutine and returns a {@link Mono} completing with its result, so
+     * that the calling thread is not blocked while the coroutine is
+     * suspended. This needs {@code kotlinx-coroutines-reactor} on the
+     * classpath.
+     *
+     * @param method
+     *            the suspend function to dispatch calls to
+     * @return the dispatcher
+     */
+    static EndpointMethodDispatcher suspending(Method method) {
+        if (!ClassUtils.isPresent("kotlinx.coroutines.reactor.MonoKt",
+                method.getDeclaringClass().getClassLoader())) {
+            return (target, arguments) -> {
+                throw new IllegalStateException(String.format(
+                        "Calling the suspend function '%s' requires "
+                                + "kotlinx-coroutines-reactor on the classpath",
+                        method));
+            };
+        }
+        return (target, arguments) -> Mono.from(
+                CoroutinesUtils.invokeSuspendingFunction(method, target,
+                        arguments));
+    }
+
+    /**
+     * Creates a dispatcher that uses {@link Method#invoke(Object, Object...)}.
+     *
+     * @param method
+     *            the method to dispatch calls to
+     * @return the dispatcher
+     */
+    static EndpointMethodDispatcher reflective(Method method) {
+        return (target, arguments) -> {
+            try {
+                return method.invoke(target, arguments);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+/**
+ * Receives the measurements of the endpoint method calls.
+ * <p>
+ * The measurements are made for the registered methods only, and name them
+ * with the registered endpoint name and the Java method name, whatever their
+ * case in the request. They are made on the threads running the calls, so
+ * implementations must be thread safe and should not block.
+ * <p>
+ * When Micrometer is on the classpath and the application has a
+ * {@code MeterRegistry} bean, the measurements are reported to it. Otherwise,
+ * an application can register its own bean implementing this interface.
+ */
+public interface EndpointMetrics {
+
+    /**
+     * The metrics implementation that ignores all the measurements, which are
+     * then not made at all.
+     */
+    EndpointMetrics NONE = new EndpointMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * The phases of an endpoint method call that are timed.
+     */
+    enum Phase {
+        /**
+         * Reading the method parameters from the request body.
+         */
+        DESERIALIZE("deserialize"),
+        /**
+         * Checking that the user may call the method.
+         */
+        ACCESS_CHECK("access-check"),
+        /**
+         * Validating the parameters or the return value of the method.
+         */
+        VALIDATION("validation"),
+        /**
+         * Running the method, until the value of an asynchronous method is
+         * available.
+         */
+        INVOKE("invoke"),
+        /**
+         * Checking the return value for unexpected {@code null} values.
+         */
+        NULL_CHECK("null-check"),
+        /**
+         * Writing the return value to the response.
+         */
+        SERIALIZE("serialize");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Gets the name of the phase, in lower case with hyphens, e.g.
+         * {@code access-check}.
+         *
+         * @return the name of the phase
+         */
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Checks whether the measurements are used at all. When they are not, the
+     * calls are not measured.
+     *
+     * @return {@code true} if the measurements are used, {@code false}
+     *         otherwise
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Records the duration of a phase of a call. The phases that have nothing
+     * to do for a call, such as the validation of a method without
+     * constraints, are not recorded.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method
+     * @param phase
+     *            the phase
+     * @param nanos
+     *            the duration of the phase, in nanoseconds
+     */
+    default void recordPhase(String endpointName, String methodName,
+            Phase phase, long nanos) {
+    }
+
+    /**
+     * Records the size of the body of a request calling a method, when it is
+     * known from the {@code Content-Length} header.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method
+     * @param bytes
+     *            the size of the request body, in bytes
+     */
+    default void recordRequestSize(String endpointName, String methodName,
+            long bytes) {
+    }
+
+    /**
+     * Records the size of the serialized return value of a method. The size
+     * of a value serialized to a JSON string is its number of characters.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method
+     * @param bytes
+     *            the size of the serialized return value
+     */
+    default void recordResponseSize(String endpointName, String methodName,
+            long bytes) {
+    }
+
+    /**
+     * Records a failed call.
+     * <p>
+     * The failures thrown by the method itself are recorded with their own
+     * type, even when they are reported to the client as an internal error.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method
+     * @param errorType
+     *            the type of the exception the call failed with
+     */
+    default void recordError(String endpointName, String methodName,
+            Class<? extends Throwable> errorType) {
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * Reads the parts of a multipart request one after the other, directly from
+ * the request input stream, without buffering them.
+ * <p>
+ * The content of a part can only be read while the part is the current one.
+ * Moving to a following part skips what is left of the current part.
+ */
+final class EndpointMultipartStream {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final byte[] HEADERS_END = { '\r', '\n', '\r', '\n' };
+
+    private final InputStream input;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private final long maxRequestSize;
+    private final Set<String> passedParts = new HashSet<>();
+    private int head;
+    private int tail;
+    private boolean inputEnded;
+    private long requestSize;
+    private String partName;
+    private PartInputStream part;
+    private boolean ended;
+
+    /**
+     * Creates a stream reading the parts of a multipart request.
+     *
+     * @param input
+     *            the request input stream
+     * @param boundary
+     *            the boundary of the parts
+     * @param maxRequestSize
+     *            the maximum size in bytes of the content of all the parts,
+     *            or a negative value for no limit
+     */
+    EndpointMultipartStream(InputStream input, String boundary,
+            long maxRequestSize) {
+        this.input = input;
+        this.delimiter = ("\r\n--" + boundary)
+                .getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+        this.maxRequestSize = maxRequestSize;
+        // The first delimiter is not preceded by a line break, which is
+        // added so that the preamble can be skipped as a part
+        buffer[tail++] = '\r';
+        buffer[tail++] = '\n';
+        this.part = new PartInputStream(-1, false);
+    }
+
+    /**
+     * Gets the boundary of the parts of a multipart request.
+     *
+     * @param contentType
+     *            the content type of the request
+     * @return the boundary, or {@code null} if there is none
+     */
+    static String getBoundary(String contentType) {
+        String boundary;
+        try {
+            boundary = MediaType.parseMediaType(contentType)
+                    .getParameter("boundary");
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (boundary != null && boundary.length() > 1
+                && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+            return boundary.substring(1, boundary.length() - 1);
+        }
+        return boundary;
+    }
+
+    /**
+     * Moves to the next part, skipping what is left of the current part.
+     *
+     * @return the name of the next part, or {@code null} if there are no more
+     *         parts
+     * @throws IOException
+     *             if the request cannot be read or is malformed
+     */
+    String nextPart() throws IOException {
+        if (ended) {
+            return null;
+        }
+        part.skipRemaining();
+        if (partName != null) {
+            passedParts.add(partName);
+        }
+        if (!ensureBuffered(2)) {
+            throw new IOException("Unexpected end of multipart request");
+        }
+        if (buffer[head] == '-' && buffer[head + 1] == '-') {
+            // The delimiter closing the last part
+            ended = true;
+            partName = null;
+            return null;
+        }
+        partName = readPartName();
+        part = new PartInputStream(-1, true);
+        return partName;
+    }
+
+    /**
+     * Gets the content of the current part.
+     *
+     * @return the content of the current part
+     */
+    InputStream getPart() {
+        return part;
+    }
+
+    /**
+     * Creates a stream of the content of the part having the given name. The
+     * request is read up to the part when the stream is first read, so the
+     * parts must be read in the order they were sent.
+     *
+     * @param name
+     *            the name of the part
+     * @param maxSize
+     *            the maximum size in bytes of the part, or a negative value
+     *            for no limit
+     * @return the content of the part
+     */
+    InputStream openPart(String name, long maxSize) {
+        return new InputStream() {
+            private PartInputStream content;
+
+            @Override
+            public int read() throws IOException {
+                return getContent().read();
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length)
+                    throws IOException {
+                return getContent().read(bytes, offset, length);
+            }
+
+            private PartInputStream getContent() throws IOException {
+                if (content == null) {
+                    content = seekPart(name, maxSize);
+                }
+                return content;
+            }
+        };
+    }
+
+    private PartInputStream seekPart(String name, long maxSize)
+            throws IOException {
+        if (passedParts.contains(name)) {
+            throw new IOException(String.format(
+                    "Part '%s' has already been passed, the parts must be read in the order they are sent",
+                    name));
+        }
+        while (!name.equals(partName)) {
+            if (nextPart() == null) {
+                throw new IOException(String.format(
+                        "Part '%s' is missing from the multipart request",
+                        name));
+            }
+        }
+        part = new PartInputStream(maxSize, true);
+        return part;
+    }
+
+    private String readPartName() throws IOException {
+        int end = indexOf(HEADERS_END);
+        while (end < 0) {
+            if (inputEnded) {
+                throw new IOException("Unexpected end of multipart request");
+            } else if (tail - head == buffer.length) {
+                throw new IOException("Multipart part headers are too large");
+            }
+            fill();
+            end = indexOf(HEADERS_END);
+        }
+        String headers = new String(buffer, head, end - head,
+                StandardCharsets.UTF_8);
+        head = end + 4;
+        for (String header : headers.split("\r\n")) {
+            int colon = header.indexOf(':');
+            if (colon > 0 && header.substring(0, colon).trim()
+                    .equalsIgnoreCase(HttpHeaders.CONTENT_DISPOSITION)) {
+                return ContentDisposition
+                        .parse(header.substring(colon + 1).trim()).getName();
+            }
+        }
+        throw new IOException("Multipart part has no name");
+    }
+
+    private boolean ensureBuffered(int count) throws IOException {
+        while (tail - head < count && !inputEnded) {
+            fill();
+        }
+        return tail - head >= count;
+    }
+
+    private void fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        int read = input.read(buffer, tail, buffer.length - tail);
+        if (read < 0) {
+            inputEnded = true;
+        } else {
+            tail += read;
+        }
+    }
+
+    private int indexOf(byte[] bytes) {
+        outer: for (int i = head; i <= tail - bytes.length; i++) {
+            for (int j = 0; j < bytes.length; j++) {
+                if (buffer[i + j] != bytes[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Thrown when a part or the whole request is larger than allowed.
+     */
+    static final class SizeLimitExceededException extends IOException {
+        SizeLimitExceededException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * The content of a part, ending at the next delimiter.
+     */
+    private final class PartInputStream extends InputStream {
+        private final long maxSize;
+        private final boolean counted;
+        private long size;
+        private boolean partEnded;
+
+        private PartInputStream(long maxSize, boolean counted) {
+            this.maxSize = maxSize;
+            this.counted = counted;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length)
+                throws IOException {
+            if (partEnded || part != this) {
+                return -1;
+            } else if (length == 0) {
+                return 0;
+            }
+            while (true) {
+                int index = indexOf(delimiter);
+                int available;
+                if (index >= 0) {
+                    available = index - head;
+                    if (available == 0) {
+                        head += delimiter.length;
+                        partEnded = true;
+                        return -1;
+                    }
+                } else {
+                    // The end of the buffer can be the start of the delimiter
+                    available = tail - head - delimiter.length + 1;
+                    if (available <= 0) {
+                        if (inputEnded) {
+                            throw new IOException(
+                                    "Unexpected end of multipart request");
+                        }
+                        fill();
+                        continue;
+                    }
+                }
+                int count = Math.min(length, available);
+                countBytes(count);
+                System.arraycopy(buffer, head, bytes, offset, count);
+                head += count;
+                return count;
+            }
+        }
+
+        private void countBytes(int count) throws SizeLimitExceededException {
+            if (!counted) {
+                return;
+            }
+            size += count;
+            requestSize += count;
+            if (maxSize >= 0 && size > maxSize) {
+                throw new SizeLimitExceededException(String.format(
+                        "Part '%s' is larger than the maximum size of %d bytes",
+                        partName, maxSize));
+            } else if (maxRequestSize >= 0 && requestSize > maxRequestSize) {
+                throw new SizeLimitExceededException(String.format(
+                        "Multipart request is larger than the maximum size of %d bytes",
+                        maxRequestSize));
+            }
+        }
+
+        private void skipRemaining() throws IOException {
+            byte[] skipped = new byte[BUFFER_SIZE];
+            while (read(skipped, 0, skipped.length) >= 0) {
+                // Only moving to the end of the part
+            }
+        }
+    }
+}
@@ -26,9 +26,63 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties("vaadin.endpoint")
 public class EndpointProperties {
 
+    static final int DEFAULT_BATCH_MAX_CALLS = 50;
+
     @Value("${vaadin.endpoint.prefix:/connect}")
     private String endpointPrefix;
 
+    @Value("${vaadin.endpoint.streaming-request-binding:false}")
+    private boolean streamingRequestBinding;
+
+    @Value("${vaadin.endpoint.streaming-response:false}")
+    private boolean streamingResponse;
+
+    @Value("${vaadin.endpoint.streaming-multipart:false}")
+    private boolean streamingMultipart;
+
+    @Value("${vaadin.endpoint.streaming-multipart-max-file-size:-1}")
+    private long streamingMultipartMaxFileSize;
+
+    @Value("${vaadin.endpoint.streaming-multipart-max-request-size:-1}")
+    private long streamingMultipartMaxRequestSize;
+
+    @Value("${vaadin.endpoint.batch-max-calls:" + DEFAULT_BATCH_MAX_CALLS
+            + "}")
+    private int batchMaxCalls;
+
+    @Value("${vaadin.endpoint.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${vaadin.endpoint.max-concurrent-calls:0}")
+    private int maxConcurrentCalls;
+
+    @Value("${vaadin.endpoint.max-queued-calls:0}")
+    private int maxQueuedCalls;
+
+    @Value("${vaadin.endpoint.nullable-check-sample-rate:1.0}")
+    private double nullableCheckSampleRate;
+
+    @Value("${vaadin.endpoint.nullable-check-in-production:true}")
+    private boolean nullableCheckInProduction;
+
+    @Value("${vaadin.endpoint.metrics:true}")
+    private boolean metrics;
+
+    @Value("${vaadin.endpoint.tracing:true}")
+    private boolean tracing;
+
+    @Value("${vaadin.endpoint.server-timing:false}")
+    private boolean serverTiming;
+
+    @Value("${vaadin.endpoint.warm-up:false}")
+    private boolean warmUp;
+
+    @Value("${vaadin.endpoint.warm-up-in-background:true}")
+    private boolean warmUpInBackground;
+
+    @Value("${vaadin.endpoint.reference-encoding:false}")
+    private boolean referenceEncoding;
+
     /**
      * Customize the prefix for all Vaadin endpoints. See default value in the
      * {@link EndpointProperties#endpointPrefix} field annotation.
@@ -39,4 +93,208 @@ public class EndpointProperties {
         return endpointPrefix;
     }
 
+    /**
+     * Whether JSON request bodies are bound to the endpoint method parameters
+     * directly from the request input stream, without materializing the whole
+     * body as a JSON tree first. Disabled by default.
+     *
+     * @return {@code true} if request parameters are bound while streaming the
+     *         request body, {@code false} otherwise
+     */
+    public boolean isStreamingRequestBinding() {
+        return streamingRequestBinding;
+    }
+
+    /**
+     * Whether endpoint return values are serialized directly to the response
+     * output stream, instead of being serialized to a string first. The
+     * response is then sent using chunked transfer encoding when it does not
+     * fit in the response buffer. Disabled by default.
+     *
+     * @return {@code true} if endpoint responses are streamed, {@code false}
+     *         otherwise
+     */
+    public boolean isStreamingResponse() {
+        return streamingResponse;
+    }
+
+    /**
+     * Whether the parts of multipart requests are read from the request input
+     * stream while the endpoint method runs, instead of being buffered by the
+     * servlet container beforehand. The {@link java.io.InputStream} parameters
+     * of the method then receive the content of the uploaded files as it
+     * arrives. Disabled by default.
+     * <p>
+     * The multipart resolver must not parse the requests, which is the case
+     * with the {@code spring.servlet.multipart.resolve-lazily} property
+     * enabled.
+     *
+     * @return {@code true} if multipart requests are streamed, {@code false}
+     *         otherwise
+     */
+    public boolean isStreamingMultipart() {
+        return streamingMultipart;
+    }
+
+    /**
+     * The maximum size in bytes of a file uploaded in a streamed multipart
+     * request. Defaults to {@code -1}, meaning no limit.
+     *
+     * @return the maximum size of a streamed file
+     */
+    public long getStreamingMultipartMaxFileSize() {
+        return streamingMultipartMaxFileSize;
+    }
+
+    /**
+     * The maximum size in bytes of all the parts of a streamed multipart
+     * request. Defaults to {@code -1}, meaning no limit.
+     *
+     * @return the maximum size of a streamed multipart request
+     */
+    public long getStreamingMultipartMaxRequestSize() {
+        return streamingMultipartMaxRequestSize;
+    }
+
+    /**
+     * The maximum number of endpoint calls that a single batch request may
+     * contain. Larger batches are rejected. Defaults to 50.
+     *
+     * @return the maximum number of calls in a batch request
+     */
+    public int getBatchMaxCalls() {
+        return batchMaxCalls;
+    }
+
+    /**
+     * Whether endpoint methods run on virtual threads, releasing the request
+     * thread while they run. Disabled by default.
+     *
+     * @return {@code true} if endpoint methods run on virtual threads,
+     *         {@code false} if they run on the request thread
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * The maximum number of concurrent calls of every method of the endpoints
+     * that have no {@link EndpointBulkhead} annotation. Calls over the limit
+     * are rejected with the {@code 503 Service Unavailable} status, unless
+     * they can wait as described by {@link #getMaxQueuedCalls()}. Defaults to
+     * {@code 0}, meaning no limit.
+     *
+     * @return the maximum number of concurrent calls of an endpoint method
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * The maximum number of calls that can wait when the limit given by
+     * {@link #getMaxConcurrentCalls()} is reached. Defaults to {@code 0},
+     * rejecting the calls right away.
+     *
+     * @return the maximum number of waiting calls of an endpoint method
+     */
+    public int getMaxQueuedCalls() {
+        return maxQueuedCalls;
+    }
+
+    /**
+     * The fraction of endpoint return values that are checked for unexpected
+     * {@code null} values, from {@code 0} (none) to {@code 1} (all, the
+     * default).
+     *
+     * @return the sample rate of the nullability check
+     */
+    public double getNullableCheckSampleRate() {
+        return nullableCheckSampleRate;
+    }
+
+    /**
+     * Whether endpoint return values are checked for unexpected {@code null}
+     * values in production mode. Enabled by default.
+     *
+     * @return {@code true} if the nullability check runs in production mode,
+     *         {@code false} otherwise
+     */
+    public boolean isNullableCheckInProduction() {
+        return nullableCheckInProduction;
+    }
+
+    /**
+     * Whether the calls of the endpoint methods are measured and reported to
+     * the Micrometer registry of the application, if there is one. Enabled by
+     * default.
+     *
+     * @return {@code true} if the endpoint metrics are reported to Micrometer,
+     *         {@code false} otherwise
+     */
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Whether the calls of the endpoint methods are traced with OpenTelemetry
+     * spans, if the application has an OpenTelemetry instance. Enabled by
+     * default.
+     *
+     * @return {@code true} if the endpoint calls are traced,
+     *         {@code false} otherwise
+     */
+    public boolean isTracing() {
+        return tracing;
+    }
+
+    /**
+     * Whether the responses of the endpoint methods have a
+     * {@code Server-Timing} header listing the duration of the phases of the
+     * call, which browser developer tools display. Disabled by default, as it
+     * exposes timing information to the clients.
+     *
+     * @return {@code true} if the {@code Server-Timing} header is added,
+     *         {@code false} otherwise
+     */
+    public boolean isServerTiming() {
+        return serverTiming;
+    }
+
+    /**
+     * Whether the readers, writers and validation metadata of the endpoint
+     * methods are built when the endpoints are registered, rather than by the
+     * first call of every method. Disabled by default.
+     *
+     * @return {@code true} if the endpoint methods are warmed up,
+     *         {@code false} otherwise
+     */
+    public boolean isWarmUp() {
+        return warmUp;
+    }
+
+    /**
+     * Whether the warm-up of the endpoint methods, if enabled, runs on a
+     * background thread so that it does not delay the startup. The first
+     * calls can then still happen before the warm-up is over. Enabled by
+     * default.
+     *
+     * @return {@code true} if the warm-up runs in the background,
+     *         {@code false} if it runs when the endpoints are registered
+     */
+    public boolean isWarmUpInBackground() {
+        return warmUpInBackground;
+    }
+
+    /**
+     * Whether the objects used more than once in a return value are written
+     * only once in the response, and referenced elsewhere, for the clients
+     * decoding such responses. Disabled by default.
+     *
+     * @return {@code true} if the shared objects are written once,
+     *         {@code false} otherwise
+     */
+    public boolean isReferenceEncoding() {
+        return referenceEncoding;
+    }
+
 }
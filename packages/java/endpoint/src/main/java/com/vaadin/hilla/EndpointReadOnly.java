@@ -0,0 +1,48 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint method as read-only, allowing it to be called with
+ * {@code GET} requests that browsers and proxies can cache.
+ * <p>
+ * In a {@code GET} request, every method parameter is a query parameter whose
+ * value is the JSON representation of the parameter value. The response has a
+ * strong {@code ETag} computed from its content, and a request whose
+ * {@code If-None-Match} header matches it gets an empty
+ * {@code 304 Not Modified} response. The generated TypeScript client calls
+ * read-only methods with {@code GET} requests automatically.
+ * <p>
+ * Only use it for methods that have no side effects.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface EndpointReadOnly {
+
+    /**
+     * The {@code Cache-Control} header value of the successful responses.
+     * Defaults to {@code private, no-cache}, which lets the browser keep the
+     * response but revalidate it with its ETag on every call.
+     *
+     * @return the {@code Cache-Control} header value
+     */
+    String cacheControl() default "private, no-cache";
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.BeanDescription;
+import tools.jackson.databind.BeanProperty;
+import tools.jackson.databind.JacksonSerializable;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SerializationConfig;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.jsontype.TypeSerializer;
+import tools.jackson.databind.module.SimpleModule;
+import tools.jackson.databind.ser.ValueSerializerModifier;
+import tools.jackson.databind.ser.bean.BeanSerializerBase;
+import tools.jackson.databind.util.NameTransformer;
+import tools.jackson.databind.util.TokenBuffer;
+
+/**
+ * The response encoding writing every object instance used more than once in
+ * the return value only once, e.g. the few customers shared by thousands of
+ * orders.
+ * <p>
+ * The encoded response is an object having the shared objects in the
+ * {@code references} array and the return value in {@code value}. Every
+ * occurrence of a shared object, in the value or in another shared object, is
+ * written as {@code {"@ref": index}}, where the index is the position of the
+ * object in the {@code references} array. The objects used once are written
+ * in place as usual.
+ * <p>
+ * The instances are told apart by identity while serializing: the first time
+ * an instance is met, it is serialized into a token buffer of its own, and
+ * its later occurrences only count the uses. Once the whole value is
+ * serialized, the buffers are written to the response, the shared ones in the
+ * {@code references} array.
+ * <p>
+ * The encoding is used if it is enabled and the client asks for it with the
+ * {@value #HEADER} header, which the response then has too.
+ */
+final class EndpointReferenceEncoding {
+    /**
+     * The request and response header naming the encoding.
+     */
+    static final String HEADER = "X-Hilla-Encoding";
+
+    /**
+     * The value of the {@value #HEADER} header for this encoding.
+     */
+    static final String NAME = "references";
+
+    private EndpointReferenceEncoding() {
+    }
+
+    /**
+     * Checks whether the client of the request decodes the references.
+     *
+     * @param request
+     *            the request
+     * @return {@code true} if the encoding can be used for the response,
+     *         {@code false} otherwise
+     */
+    static boolean isAccepted(HttpServletRequest request) {
+        return NAME.equals(request.getHeader(HEADER));
+    }
+
+    /**
+     * Wraps the given return value, so that it is written with this encoding
+     * by the mapper created with {@link #createMapper(ObjectMapper)}.
+     *
+     * @param value
+     *            the return value, may be {@code null}
+     * @return the wrapped value, or {@code null} if the value is {@code null}
+     */
+    static Object wrap(Object value) {
+        return value == null ? null : new Encoded(value);
+    }
+
+    /**
+     * Checks whether the given value has been wrapped with
+     * {@link #wrap(Object)}.
+     *
+     * @param value
+     *            the value to check
+     * @return {@code true} if the value is wrapped, {@code false} otherwise
+     */
+    static boolean isWrapped(Object value) {
+        return value instanceof Encoded;
+    }
+
+    /**
+     * Creates a copy of the given mapper which tracks the bean instances
+     * while writing the values wrapped with {@link #wrap(Object)}. The other
+     * values are written as with the given mapper.
+     *
+     * @param mapper
+     *            the endpoint mapper
+     * @return the mapper for this encoding
+     */
+    static ObjectMapper createMapper(ObjectMapper mapper) {
+        return mapper.rebuild().addModule(new SimpleModule(
+                EndpointReferenceEncoding.class.getSimpleName())
+                .setSerializerModifier(new ValueSerializerModifier() {
+                    @Override
+                    public ValueSerializer<?> modifySerializer(
+                            SerializationConfig config,
+                            BeanDescription.Supplier beanDesc,
+                            ValueSerializer<?> serializer) {
+                        // Objects having ids of their own keep them
+                        return serializer instanceof BeanSerializerBase
+                                && !serializer.usesObjectId()
+                                        ? new InstanceSerializer(serializer)
+                                        : serializer;
+                    }
+                })).build();
+    }
+
+    /**
+     * The bean instances met while writing a value.
+     */
+    private static final class Graph {
+        private final Map<Object, Instance> instances = new IdentityHashMap<>();
+        private final List<Instance> order = new ArrayList<>();
+    }
+
+    /**
+     * A bean instance, serialized once however many times it is used.
+     */
+    private static final class Instance implements JacksonSerializable {
+        private TokenBuffer tokens;
+        private int uses;
+        private int index = -1;
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializationContext ctxt) {
+            if (index >= 0) {
+                gen.writeStartObject();
+                gen.writeNumberProperty("@ref", index);
+                gen.writeEndObject();
+            } else {
+                tokens.serialize(gen);
+            }
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen,
+                SerializationContext ctxt, TypeSerializer typeSer) {
+            // The type ids are in the tokens already
+            serialize(gen, ctxt);
+        }
+    }
+
+    /**
+     * A return value wrapped for this encoding.
+     */
+    private record Encoded(Object value) implements JacksonSerializable {
+        @Override
+        public void serialize(JsonGenerator gen, SerializationContext ctxt) {
+            var graph = new Graph();
+            ctxt.setAttribute(Graph.class, graph);
+            TokenBuffer valueTokens = ctxt.bufferForValueConversion();
+            ctxt.writeValue(valueTokens, value);
+            ctxt.setAttribute(Graph.class, null);
+
+            List<Instance> shared = new ArrayList<>();
+            for (Instance instance : graph.order) {
+                if (instance.uses > 1) {
+                    instance.index = shared.size();
+                    shared.add(instance);
+                }
+            }
+            gen.writeStartObject();
+            gen.writeName("references");
+            gen.writeStartArray();
+            for (Instance instance : shared) {
+                instance.tokens.serialize(gen);
+            }
+            gen.writeEndArray();
+            gen.writeName("value");
+            valueTokens.serialize(gen);
+            gen.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen,
+                SerializationContext ctxt, TypeSerializer typeSer) {
+            serialize(gen, ctxt);
+        }
+    }
+
+    /**
+     * Serializes a bean once per instance while writing an encoded value,
+     * leaving a placeholder for the instance in the tokens of its user.
+     */
+    private static final class InstanceSerializer
+            extends ValueSerializer<Object> {
+        private final ValueSerializer<Object> delegate;
+
+        @SuppressWarnings("unchecked")
+        private InstanceSerializer(ValueSerializer<?> delegate) {
+            this.delegate = (ValueSerializer<Object>) delegate;
+        }
+
+        @Override
+        public void resolve(SerializationContext ctxt) {
+            delegate.resolve(ctxt);
+        }
+
+        @Override
+        public ValueSerializer<?> createContextual(SerializationContext ctxt,
+                BeanProperty property) {
+            ValueSerializer<?> contextual = delegate.createContextual(ctxt,
+                    property);
+            return contextual == delegate ? this
+                    : new InstanceSerializer(contextual);
+        }
+
+        @Override
+        public ValueSerializer<Object> unwrappingSerializer(
+                NameTransformer unwrapper) {
+            // Unwrapped properties belong to the enclosing object
+            return delegate.unwrappingSerializer(unwrapper);
+        }
+
+        @Override
+        public boolean isEmpty(SerializationContext ctxt, Object value) {
+            return delegate.isEmpty(ctxt, value);
+        }
+
+        @Override
+        public Class<?> handledType() {
+            return delegate.handledType();
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator gen,
+                SerializationContext ctxt) {
+            write(value, gen, ctxt, null);
+        }
+
+        @Override
+        public void serializeWithType(Object value, JsonGenerator gen,
+                SerializationContext ctxt, TypeSerializer typeSer) {
+            write(value, gen, ctxt, typeSer);
+        }
+
+        private void write(Object value, JsonGenerator gen,
+                SerializationContext ctxt, TypeSerializer typeSer) {
+            if (!(ctxt.getAttribute(Graph.class) instanceof Graph graph)) {
+                if (typeSer == null) {
+                    delegate.serialize(value, gen, ctxt);
+                } else {
+                    delegate.serializeWithType(value, gen, ctxt, typeSer);
+                }
+                return;
+            }
+            Instance instance = graph.instances.get(value);
+            if (instance == null) {
+                instance = new Instance();
+                // Added before serializing, for the cycles to be references
+                graph.instances.put(value, instance);
+                graph.order.add(instance);
+                TokenBuffer tokens = ctxt.bufferForValueConversion();
+                if (typeSer == null) {
+                    delegate.serialize(value, tokens, ctxt);
+                } else {
+                    delegate.serializeWithType(value, tokens, ctxt, typeSer);
+                }
+                instance.tokens = tokens;
+            }
+            instance.uses++;
+            // Written as itself or as a reference once the uses are known
+            gen.writeEmbeddedObject(instance);
+        }
+    }
+}
@@ -17,10 +17,12 @@ package com.vaadin.hilla;
 
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -30,6 +32,11 @@ import org.springframework.util.ClassUtils;
 
 /**
  * Keeps track of registered endpoints.
+ * <p>
+ * The registered endpoints form an immutable snapshot, which is replaced as a
+ * whole when endpoints are registered, e.g. on hotswap. Reading the
+ * endpoints is lock-free and does not allocate, and a request always sees a
+ * consistent set of endpoints.
  */
 @Component
 public class EndpointRegistry {
@@ -40,24 +47,41 @@ public class EndpointRegistry {
      * Tracks methods inside a given endpoint class.
      */
     public static class VaadinEndpointData {
-        final Map<String, Method> methods = new HashMap<>();
+        private final Map<String, Method> methods;
+        private final Map<String, EndpointInvocationPlan> invocationPlans;
+        private final Map<String, EndpointRoute> routes;
         private final Object vaadinEndpointObject;
 
-        private VaadinEndpointData(Object vaadinEndpointObject,
-                Method... endpointMethods) {
+        private VaadinEndpointData(String endpointName,
+                Object vaadinEndpointObject, Method... endpointMethods) {
             this.vaadinEndpointObject = vaadinEndpointObject;
+            var methods = new TreeMap<String, Method>(
+                    String.CASE_INSENSITIVE_ORDER);
             Stream.of(endpointMethods)
                     .filter(method -> method.getDeclaringClass() != Object.class
                             && !method.isBridge())
                     .forEach(method -> methods.put(
                             method.getName().toLowerCase(Locale.ENGLISH),
                             method));
+            var invocationPlans = new TreeMap<String, EndpointInvocationPlan>(
+                    String.CASE_INSENSITIVE_ORDER);
+            var routes = new TreeMap<String, EndpointRoute>(
+                    String.CASE_INSENSITIVE_ORDER);
+            methods.forEach((name, method) -> {
+                var plan = EndpointInvocationPlan.create(method,
+                        vaadinEndpointObject);
+                invocationPlans.put(name, plan);
+                routes.put(name, new EndpointRoute(endpointName, this, plan));
+            });
+            this.methods = Collections.unmodifiableMap(methods);
+            this.invocationPlans = Collections.unmodifiableMap(invocationPlans);
+            this.routes = Collections.unmodifiableMap(routes);
         }
 
         /**
          * Gets all the endpoint methods.
          *
-         * @return the endpoint methods
+         * @return the endpoint methods, which cannot be modified
          */
         public Map<String, Method> getMethods() {
             return methods;
@@ -72,8 +96,29 @@ public class EndpointRegistry {
          *         optional if no method was found
          */
         public Optional<Method> getMethod(String methodName) {
-            return Optional.ofNullable(
-                    methods.get(methodName.toLowerCase(Locale.ENGLISH)));
+            return Optional.ofNullable(methods.get(methodName));
+        }
+
+        /**
+         * Finds the invocation plan of the method with the given name.
+         *
+         * @param methodName
+         *            the name to look for
+         * @return An optional containing the invocation plan or an empty
+         *         optional if no method was found
+         */
+        public Optional<EndpointInvocationPlan> getInvocationPlan(
+                String methodName) {
+            return Optional.ofNullable(invocationPlans.get(methodName));
+        }
+
+        /**
+         * Gets the invocation plans of all the endpoint methods.
+         *
+         * @return the invocation plans
+         */
+        public Collection<EndpointInvocationPlan> getInvocationPlans() {
+            return invocationPlans.values();
         }
 
         public Object getEndpointObject() {
@@ -81,8 +126,22 @@ public class EndpointRegistry {
         }
     }
 
+    /**
+     * An immutable set of registered endpoints.
+     *
+     * @param version
+     *            the number of times endpoints have been registered
+     * @param endpoints
+     *            the endpoints, by their case-insensitive name
+     */
+    private record Snapshot(long version,
+            Map<String, VaadinEndpointData> endpoints) {
+    }
+
     private final EndpointNameChecker endpointNameChecker;
-    private final Map<String, VaadinEndpointData> vaadinEndpoints = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(0,
+            Collections.unmodifiableMap(
+                    new TreeMap<>(String.CASE_INSENSITIVE_ORDER)));
 
     /**
      * Creates a new registry using the given name checker.
@@ -102,7 +161,47 @@ public class EndpointRegistry {
                 .orElse(beanType.getSimpleName()).toLowerCase(Locale.ENGLISH);
     }
 
-    String registerEndpoint(Object endpointBean) {
+    /**
+     * Registers the given endpoint, in addition to the already registered
+     * ones, replacing the endpoint having the same name if any.
+     *
+     * @param endpointBean
+     *            the endpoint to register
+     * @return the name of the endpoint
+     */
+    synchronized String registerEndpoint(Object endpointBean) {
+        var endpoints = new TreeMap<String, VaadinEndpointData>(
+                String.CASE_INSENSITIVE_ORDER);
+        endpoints.putAll(snapshot.endpoints());
+        String endpointName = addEndpoint(endpoints, endpointBean);
+        publish(endpoints);
+        return endpointName;
+    }
+
+    /**
+     * Registers the given endpoints, replacing all the registered ones at
+     * once. The requests being processed keep using the previously registered
+     * endpoints.
+     *
+     * @param endpointBeans
+     *            the endpoints to register
+     */
+    synchronized void registerEndpoints(Collection<?> endpointBeans) {
+        var endpoints = new TreeMap<String, VaadinEndpointData>(
+                String.CASE_INSENSITIVE_ORDER);
+        for (Object endpointBean : endpointBeans) {
+            addEndpoint(endpoints, endpointBean);
+        }
+        publish(endpoints);
+    }
+
+    private void publish(TreeMap<String, VaadinEndpointData> endpoints) {
+        snapshot = new Snapshot(snapshot.version() + 1,
+                Collections.unmodifiableMap(endpoints));
+    }
+
+    private String addEndpoint(Map<String, VaadinEndpointData> endpoints,
+            Object endpointBean) {
         // Check the bean type instead of the implementation type in
         // case of e.g. proxies
         Class<?> beanType = ClassUtils.getUserClass(endpointBean.getClass());
@@ -129,8 +228,8 @@ public class EndpointRegistry {
         Method[] endpointPublicMethods = beanType.getMethods();
         AccessibleObject.setAccessible(endpointPublicMethods, true);
 
-        vaadinEndpoints.put(endpointName,
-                new VaadinEndpointData(endpointBean, endpointPublicMethods));
+        endpoints.put(endpointName, new VaadinEndpointData(endpointName,
+                endpointBean, endpointPublicMethods));
         LOGGER.debug("Registered endpoint '{}' with class '{}'", endpointName,
                 beanType);
         return endpointName;
@@ -139,17 +238,46 @@ public class EndpointRegistry {
     /**
      * Gets all registered endpoints.
      *
-     * @return a map of endpoint names to endpoint data
+     * @return a map of endpoint names to endpoint data, which cannot be
+     *         modified
      */
     public Map<String, VaadinEndpointData> getEndpoints() {
-        return vaadinEndpoints;
+        return snapshot.endpoints();
+    }
+
+    /**
+     * Gets the version of the registered endpoints, which changes every time
+     * endpoints are registered. Caches derived from the endpoints can compare
+     * it with the version they have been built for to detect that they are
+     * stale.
+     *
+     * @return the version of the registered endpoints
+     */
+    public long getVersion() {
+        return snapshot.version();
     }
 
     VaadinEndpointData get(String endpointName) {
-        return vaadinEndpoints.get(endpointName.toLowerCase(Locale.ENGLISH));
+        return snapshot.endpoints().get(endpointName);
+    }
+
+    /**
+     * Gets the route of the given endpoint method, which is created when the
+     * endpoint is registered.
+     *
+     * @param endpointName
+     *            the endpoint name, not case sensitive
+     * @param methodName
+     *            the method name, not case sensitive
+     * @return the route, or {@code null} if there is no such method
+     */
+    EndpointRoute getRoute(String endpointName, String methodName) {
+        VaadinEndpointData endpointData = get(endpointName);
+        return endpointData == null ? null
+                : endpointData.routes.get(methodName);
     }
 
     boolean isEmpty() {
-        return vaadinEndpoints.isEmpty();
+        return snapshot.endpoints().isEmpty();
     }
 }
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.security.Principal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Keeps the serialized responses of the endpoint methods annotated with
+ * {@link EndpointCacheable}.
+ * <p>
+ * Every cached response has a key made of the endpoint and method names in
+ * lower case separated by a dot, the canonical JSON of the call parameters,
+ * and, depending on the cache scope, a {@code #} followed by the principal
+ * name or the authorities of the user. For example,
+ * {@code countryendpoint.list{"region":"EU"}}. The keys can be used to
+ * invalidate a part of the cache with {@link #invalidateByKeyPrefix(String)}.
+ */
+public class EndpointResponseCache {
+
+    private final Map<String, Region> regions = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile long registryVersion;
+
+    /**
+     * The cache key of a call.
+     *
+     * @param region
+     *            the name of the method region, i.e. the endpoint and method
+     *            names in lower case separated by a dot
+     * @param value
+     *            the full key
+     * @param ttlNanos
+     *            the time to live of the response, in nanoseconds
+     * @param maxEntries
+     *            the maximum number of responses of the method
+     */
+    record Key(String region, String value, long ttlNanos, int maxEntries) {
+    }
+
+    /**
+     * Checks whether the responses of the method of the given plan are cached.
+     *
+     * @param plan
+     *            the invocation plan of the method
+     * @return {@code true} if the responses are cached, {@code false}
+     *         otherwise
+     */
+    boolean isCacheable(EndpointInvocationPlan plan) {
+        return getAnnotation(plan).isPresent();
+    }
+
+    /**
+     * Creates the cache key of a call.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method
+     * @param plan
+     *            the invocation plan of the method, which must be cacheable
+     * @param body
+     *            the call parameters, or {@code null} if there are none
+     * @param principal
+     *            the user principal, or {@code null} for anonymous calls
+     * @return the cache key
+     */
+    Key createKey(String endpointName, String methodName,
+            EndpointInvocationPlan plan, ObjectNode body,
+            Principal principal) {
+        EndpointCacheable cacheable = getAnnotation(plan).orElseThrow();
+        return new Key(EndpointCallKey.of(endpointName, methodName),
+                EndpointCallKey.of(endpointName, methodName, plan, body,
+                        principal, cacheable.scope()),
+                cacheable.timeUnit().toNanos(cacheable.ttl()),
+                cacheable.maxEntries());
+    }
+
+    /**
+     * Gets the cached response of a call.
+     *
+     * @param key
+     *            the cache key of the call
+     * @return the serialized response, or {@code null} if it is not cached
+     */
+    String get(Key key) {
+        Region region = regions.get(key.region());
+        String response = region != null ? region.get(key.value()) : null;
+        if (response != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return response;
+    }
+
+    /**
+     * Caches the response of a call.
+     *
+     * @param key
+     *            the cache key of the call
+     * @param response
+     *            the serialized response
+     */
+    void put(Key key, String response) {
+        regions.computeIfAbsent(key.region(),
+                name -> new Region(key.maxEntries()))
+                .put(key.value(), response, System.nanoTime() + key.ttlNanos());
+    }
+
+    /**
+     * Removes the cached responses of all the methods of an endpoint.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     */
+    public void invalidate(String endpointName) {
+        String prefix = EndpointCallKey.of(endpointName, "");
+        regions.keySet().removeIf(region -> region.startsWith(prefix));
+    }
+
+    /**
+     * Removes the cached responses of an endpoint method.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method
+     */
+    public void invalidate(String endpointName, String methodName) {
+        regions.remove(EndpointCallKey.of(endpointName, methodName));
+    }
+
+    /**
+     * Removes the cached responses whose key starts with the given prefix.
+     *
+     * @param keyPrefix
+     *            the prefix of the keys to remove
+     */
+    public void invalidateByKeyPrefix(String keyPrefix) {
+        regions.forEach((name, region) -> {
+            if (name.startsWith(keyPrefix)) {
+                regions.remove(name);
+            } else if (keyPrefix.startsWith(name)) {
+                region.removeByPrefix(keyPrefix);
+            }
+        });
+    }
+
+    /**
+     * Removes all the cached responses if the endpoints have been registered
+     * again since the responses were cached, e.g. on hotswap, as the
+     * responses of the new endpoint implementations may differ.
+     *
+     * @param version
+     *            the current version of the endpoint registry
+     * @see EndpointRegistry#getVersion()
+     */
+    void checkRegistryVersion(long version) {
+        if (registryVersion != version) {
+            invalidateAll();
+            registryVersion = version;
+        }
+    }
+
+    /**
+     * Removes all the cached responses.
+     */
+    public void invalidateAll() {
+        regions.clear();
+    }
+
+    /**
+     * Gets the number of calls answered from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of calls of cacheable methods that were not found in
+     * the cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private Optional<EndpointCacheable> getAnnotation(
+            EndpointInvocationPlan plan) {
+        // The annotations are cached by the JDK, no need to keep them
+        EndpointCacheable cacheable = plan.getMethod()
+                .getAnnotation(EndpointCacheable.class);
+        return Optional.ofNullable(cacheable != null ? cacheable
+                : plan.getEndpointClass()
+                        .getAnnotation(EndpointCacheable.class));
+    }
+
+    /**
+     * The cached responses of a single method, evicted by age and, when the
+     * region is full, by least recent use.
+     */
+    private static final class Region {
+        private final LinkedHashMap<String, Entry> entries;
+
+        private Region(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, Entry> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        synchronized String get(String key) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() - System.nanoTime() <= 0) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.response();
+        }
+
+        synchronized void put(String key, String response, long expiresAt) {
+            entries.put(key, new Entry(response, expiresAt));
+        }
+
+        synchronized void removeByPrefix(String keyPrefix) {
+            entries.keySet().removeIf(key -> key.startsWith(keyPrefix));
+        }
+    }
+
+    private record Entry(String response, long expiresAt) {
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import com.vaadin.hilla.EndpointRegistry.VaadinEndpointData;
+
+/**
+ * The endpoint method a request is routed to.
+ * <p>
+ * The routes of the registered methods are created once, when their endpoint
+ * is registered. The route of a request is resolved once and kept in a
+ * request attribute, so that the security checks, the controller and the
+ * invoker do not parse the request path and look up the method again.
+ */
+final class EndpointRoute {
+    /**
+     * The name of the request attribute holding the resolved route.
+     */
+    static final String ATTRIBUTE = EndpointRoute.class.getName();
+
+    /**
+     * The route of the requests that call a batch of methods.
+     */
+    static final EndpointRoute BATCH = new EndpointRoute(null, null, null);
+
+    /**
+     * The route of the requests that do not call any registered method.
+     */
+    static final EndpointRoute NONE = new EndpointRoute(null, null, null);
+
+    private final String endpointName;
+    private final VaadinEndpointData endpointData;
+    private final EndpointInvocationPlan plan;
+
+    EndpointRoute(String endpointName, VaadinEndpointData endpointData,
+            EndpointInvocationPlan plan) {
+        this.endpointName = endpointName;
+        this.endpointData = endpointData;
+        this.plan = plan;
+    }
+
+    /**
+     * Gets the route resolved for the given request.
+     *
+     * @param request
+     *            the request
+     * @return the route, or {@code null} if it has not been resolved yet
+     */
+    static EndpointRoute get(HttpServletRequest request) {
+        try {
+            Object route = request.getAttribute(ATTRIBUTE);
+            return route instanceof EndpointRoute endpointRoute ? endpointRoute
+                    : null;
+        } catch (RuntimeException e) {
+            // See set(HttpServletRequest, EndpointRoute)
+            return null;
+        }
+    }
+
+    /**
+     * Keeps the route resolved for the given request.
+     *
+     * @param request
+     *            the request
+     * @param route
+     *            the route of the request
+     */
+    static void set(HttpServletRequest request, EndpointRoute route) {
+        try {
+            request.setAttribute(ATTRIBUTE, route);
+        } catch (RuntimeException e) {
+            // The requests made up by Spring Security to evaluate the access
+            // to a path, e.g. for error pages, do not support attributes, and
+            // their route is resolved again when needed
+        }
+    }
+
+    /**
+     * Checks whether this route leads to the given method.
+     *
+     * @param endpointName
+     *            the endpoint name, not case sensitive
+     * @param methodName
+     *            the method name, not case sensitive
+     * @return {@code true} if this route leads to the method, {@code false}
+     *         otherwise
+     */
+    boolean matches(String endpointName, String methodName) {
+        return plan != null && this.endpointName.equalsIgnoreCase(endpointName)
+                && plan.getMethod().getName().equalsIgnoreCase(methodName);
+    }
+
+    /**
+     * Gets the registered name of the endpoint, or {@code null} if this route
+     * does not lead to a method.
+     *
+     * @return the endpoint name
+     */
+    String getEndpointName() {
+        return endpointName;
+    }
+
+    /**
+     * Gets the name of the method, or {@code null} if this route does not
+     * lead to a method.
+     *
+     * @return the method name
+     */
+    String getMethodName() {
+        return plan == null ? null : plan.getMethod().getName();
+    }
+
+    /**
+     * Gets the data of the endpoint, or {@code null} if this route does not
+     * lead to a method.
+     *
+     * @return the endpoint data
+     */
+    VaadinEndpointData getEndpointData() {
+        return endpointData;
+    }
+
+    /**
+     * Gets the invocation plan of the method, or {@code null} if this route
+     * does not lead to a method.
+     *
+     * @return the invocation plan
+     */
+    EndpointInvocationPlan getPlan() {
+        return plan;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+/**
+ * Creates the tracing spans of the endpoint method calls.
+ * <p>
+ * Every call of a registered method gets a span, which has a child span for
+ * each phase of the call. The phases are reported once they are over, with
+ * their start and end times, so that no span is left open between them. As
+ * for {@link EndpointMetrics}, the spans are named with the registered
+ * endpoint name and the Java method name, and they can be updated from the
+ * different threads running the call.
+ * <p>
+ * When the OpenTelemetry API is on the classpath and the application has an
+ * {@code OpenTelemetry} bean, the spans are OpenTelemetry spans, children of
+ * the span current when the call starts. Otherwise, an application can
+ * register its own bean implementing this interface.
+ */
+public interface EndpointTracer {
+
+    /**
+     * The tracer that creates no spans.
+     */
+    EndpointTracer NONE = new EndpointTracer() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public Span startSpan(String endpointName, String methodName) {
+            return Span.NONE;
+        }
+    };
+
+    /**
+     * The span of an endpoint method call.
+     */
+    interface Span {
+        /**
+         * The span of a call that is not traced, which ignores everything.
+         */
+        Span NONE = new Span() {
+            @Override
+            public void addPhase(EndpointMetrics.Phase phase, long startNanos,
+                    long endNanos) {
+            }
+
+            @Override
+            public void setError(Throwable error) {
+            }
+
+            @Override
+            public void end() {
+            }
+        };
+
+        /**
+         * Adds a phase of the call, which is over.
+         *
+         * @param phase
+         *            the phase
+         * @param startNanos
+         *            the start time of the phase, as given by
+         *            {@link System#nanoTime()}
+         * @param endNanos
+         *            the end time of the phase, as given by
+         *            {@link System#nanoTime()}
+         */
+        void addPhase(EndpointMetrics.Phase phase, long startNanos,
+                long endNanos);
+
+        /**
+         * Marks the call as failed.
+         *
+         * @param error
+         *            the exception the call failed with
+         */
+        void setError(Throwable error);
+
+        /**
+         * Ends the span. It is called once, after the last phase of the
+         * call.
+         */
+        void end();
+
+        /**
+         * Makes the span current on the calling thread while the endpoint
+         * method runs there, so that the spans the method starts are its
+         * children.
+         *
+         * @return the scope to close once the method has returned
+         */
+        default Scope makeCurrent() {
+            return Scope.NONE;
+        }
+    }
+
+    /**
+     * The time a span is current on a thread, see {@link Span#makeCurrent()}.
+     */
+    interface Scope extends AutoCloseable {
+        /**
+         * The scope of a span that is not made current.
+         */
+        Scope NONE = () -> {
+        };
+
+        /**
+         * Restores the span that was current before.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * Checks whether the calls are traced at all. When they are not, no span
+     * is started.
+     *
+     * @return {@code true} if the calls are traced, {@code false} otherwise
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Starts the span of a call.
+     *
+     * @param endpointName
+     *            the name of the endpoint
+     * @param methodName
+     *            the name of the method
+     * @return the span
+     */
+    Span startSpan(String endpointName, String methodName);
+}
@@ -17,20 +17,22 @@ package com.vaadin.hilla;
 
 import jakarta.servlet.http.HttpServletRequest;
 
-import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Map;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.RequestPath;
 import org.springframework.stereotype.Component;
-import org.springframework.util.ClassUtils;
 import org.springframework.web.util.pattern.PathPattern;
 import org.springframework.web.util.pattern.PathPatternParser;
 
 import com.vaadin.flow.internal.hilla.EndpointRequestUtil;
 import com.vaadin.hilla.auth.EndpointAccessChecker;
+import com.vaadin.hilla.auth.PrincipalSnapshot;
 
 /**
  * A util class related to classes available to the browser.
@@ -47,6 +49,8 @@ public class EndpointUtil implements EndpointRequestUtil {
     @Autowired
     private EndpointAccessChecker accessChecker;
 
+    private volatile RoutePatterns routePatterns;
+
     /**
      * Checks if the request is for an endpoint.
      * <p>
@@ -61,15 +65,18 @@ public class EndpointUtil implements EndpointRequestUtil {
      */
     @Override
     public boolean isEndpointRequest(HttpServletRequest request) {
-        return getEndpoint(request).isPresent();
-    }
-
-    private Optional<Method> getEndpoint(HttpServletRequest request) {
-        return getEndpointData(request).map(EndpointData::method);
+        return getRoute(request) != EndpointRoute.NONE;
     }
 
     /**
      * Checks if the given request goes to an anonymous (public) endpoint.
+     * <p>
+     * Batch requests are never considered anonymous, as the methods they call
+     * are only known after reading the request body, which cannot be done
+     * before the request reaches the endpoint controller. They follow the
+     * rules of the application for authenticated requests, and the access to
+     * every endpoint method called in a batch is still checked separately when
+     * the call is run.
      *
      * @param request
      *            the HTTP request to check
@@ -78,59 +85,127 @@ public class EndpointUtil implements EndpointRequestUtil {
      */
     @Override
     public boolean isAnonymousEndpoint(HttpServletRequest request) {
-        var endpointData = getEndpointData(request);
-        if (endpointData.isEmpty()) {
+        var route = getRoute(request);
+        if (route == EndpointRoute.BATCH) {
             return false;
         }
-        var invokedEndpointClass = ClassUtils
-                .getUserClass(endpointData.get().endpointObject());
-        var methodDeclaringClass = endpointData.get().method()
-                .getDeclaringClass();
-        if (methodDeclaringClass.equals(invokedEndpointClass)) {
-            return accessChecker.getAccessAnnotationChecker().hasAccess(
-                    endpointData.get().method(), null, role -> false);
+        var plan = route.getPlan();
+        if (plan == null) {
+            return false;
+        }
+        var anonymous = PrincipalSnapshot.ANONYMOUS;
+        if (plan.isMethodAccessTarget()) {
+            return accessChecker.hasAccess(plan.getMethod(),
+                    anonymous.getPrincipal(), anonymous.getRolesChecker());
         } else {
-            return accessChecker.getAccessAnnotationChecker()
-                    .hasAccess(invokedEndpointClass, null, role -> false);
+            return accessChecker.hasAccess(plan.getEndpointClass(),
+                    anonymous.getPrincipal(), anonymous.getRolesChecker());
         }
     }
 
-    private Optional<PathPattern.PathMatchInfo> getPathMatchInfo(
-            HttpServletRequest request) {
-        PathPatternParser pathParser = new PathPatternParser();
-        PathPattern pathPattern = pathParser
-                .parse(endpointProperties.getEndpointPrefix()
-                        + EndpointController.ENDPOINT_METHODS);
+    /**
+     * Gets the route of the given request, resolving it from the request path
+     * on first use and keeping it in a request attribute afterwards.
+     *
+     * @param request
+     *            the HTTP request
+     * @return the route of the request, {@link EndpointRoute#BATCH} for batch
+     *         requests or {@link EndpointRoute#NONE} if the request does not
+     *         call any registered endpoint method
+     */
+    EndpointRoute getRoute(HttpServletRequest request) {
+        EndpointRoute route = EndpointRoute.get(request);
+        if (route == null) {
+            route = resolveRoute(request);
+            EndpointRoute.set(request, route);
+        }
+        return route;
+    }
 
-        RequestPath requestPath = RequestPath.parse(request.getRequestURI(),
-                request.getContextPath());
-        PathContainer pathWithinApplication = requestPath
+    private EndpointRoute resolveRoute(HttpServletRequest request) {
+        RoutePatterns patterns = getRoutePatterns();
+        PathContainer pathWithinApplication = RequestPath
+                .parse(request.getRequestURI(), request.getContextPath())
                 .pathWithinApplication();
-        PathPattern.PathMatchInfo matchInfo = pathPattern
+        if (patterns.batch().matches(pathWithinApplication)) {
+            return EndpointRoute.BATCH;
+        }
+        PathPattern.PathMatchInfo matchInfo = patterns.methods()
                 .matchAndExtract(pathWithinApplication);
-        return Optional.ofNullable(matchInfo);
+        if (matchInfo == null) {
+            return EndpointRoute.NONE;
+        }
+        Map<String, String> uriVariables = matchInfo.getUriVariables();
+        EndpointRoute route = registry.getRoute(uriVariables.get("endpoint"),
+                uriVariables.get("method"));
+        return route != null ? route : EndpointRoute.NONE;
     }
 
-    private Optional<EndpointData> getEndpointData(HttpServletRequest request) {
-        Optional<PathPattern.PathMatchInfo> matchInfo = getPathMatchInfo(
-                request);
-        if (matchInfo.isEmpty()) {
-            return Optional.empty();
+    /**
+     * Gets the patterns of the endpoint paths, which are parsed only once for
+     * the configured prefix.
+     */
+    private RoutePatterns getRoutePatterns() {
+        String prefix = endpointProperties.getEndpointPrefix();
+        RoutePatterns patterns = routePatterns;
+        if (patterns == null || !patterns.prefix().equals(prefix)) {
+            PathPatternParser parser = new PathPatternParser();
+            patterns = new RoutePatterns(prefix,
+                    parser.parse(prefix + EndpointController.ENDPOINT_METHODS),
+                    parser.parse(prefix + EndpointController.ENDPOINT_BATCH));
+            routePatterns = patterns;
         }
+        return patterns;
+    }
 
-        Map<String, String> uriVariables = matchInfo.get().getUriVariables();
-        String endpointName = uriVariables.get("endpoint");
-        String methodName = uriVariables.get("method");
-        EndpointRegistry.VaadinEndpointData data = registry.get(endpointName);
-        if (data == null) {
-            return Optional.empty();
+    /**
+     * Creates a strong ETag for a serialized response, as a quoted base64
+     * encoded SHA-256 digest of its content.
+     *
+     * @param body
+     *            the serialized response
+     * @return the quoted ETag
+     */
+    static String createETag(String body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(body.getBytes(StandardCharsets.UTF_8));
+            return '"' + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(digest) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
         }
-        Optional<Method> endpointMethod = data.getMethod(methodName);
-        return endpointMethod.map(
-                method -> new EndpointData(method, data.getEndpointObject()));
     }
 
-    private record EndpointData(Method method, Object endpointObject) {
+    /**
+     * Checks whether an {@code If-None-Match} header value matches an ETag,
+     * using the weak comparison required for this header.
+     *
+     * @param ifNoneMatch
+     *            the header value, possibly {@code null}
+     * @param eTag
+     *            the quoted ETag of the current response
+     * @return {@code true} if the header matches the ETag, {@code false}
+     *         otherwise
+     */
+    static boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if (trimmed.equals("*") || trimmed.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
+    private record RoutePatterns(String prefix, PathPattern methods,
+            PathPattern batch) {
+    }
 }
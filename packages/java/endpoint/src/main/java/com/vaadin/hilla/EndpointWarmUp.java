@@ -0,0 +1,116 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import jakarta.validation.Validator;
+
+import java.lang.reflect.Type;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.googlecode.gentyref.GenericTypeReflector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+
+import com.vaadin.hilla.endpointransfermapper.EndpointTransferMapper;
+
+/**
+ * Builds ahead of the first calls what Jackson and the validator otherwise
+ * build lazily for the endpoint methods: the readers of the parameters, the
+ * writers of the return values and the validation metadata.
+ * <p>
+ * The parameter and return types are walked with their generic type
+ * arguments, and the transfer types they are mapped to by the
+ * {@link EndpointTransferMapper}. Every type is handled once per warm-up.
+ */
+final class EndpointWarmUp {
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(EndpointWarmUp.class);
+
+    private final ObjectMapper mapper;
+    private final Validator validator;
+    private final EndpointTransferMapper transferMapper;
+    private final Set<JavaType> readTypes = new HashSet<>();
+    private final Set<JavaType> writtenTypes = new HashSet<>();
+    private final Set<Class<?>> validatedTypes = new HashSet<>();
+
+    EndpointWarmUp(ObjectMapper mapper, Validator validator,
+            EndpointTransferMapper transferMapper) {
+        this.mapper = mapper;
+        this.validator = validator;
+        this.transferMapper = transferMapper;
+    }
+
+    /**
+     * Warms up the given endpoint method.
+     *
+     * @param plan
+     *            the invocation plan of the method
+     */
+    void warmUp(EndpointInvocationPlan plan) {
+        plan.getParameterReaders(mapper);
+        plan.getValidationSteps(validator);
+        for (int i = 0; i < plan.getParameterCount(); i++) {
+            warmUpType(plan.getParameterType(i), true);
+        }
+        Type returnType = plan.isAsync() ? plan.getAsyncValueType()
+                : GenericTypeReflector.getExactReturnType(plan.getMethod(),
+                        plan.getEndpointClass());
+        warmUpType(returnType, false);
+    }
+
+    private void warmUpType(Type type, boolean read) {
+        warmUpJavaType(mapper.getTypeFactory().constructType(type), read);
+    }
+
+    private void warmUpJavaType(JavaType type, boolean read) {
+        Class<?> rawType = type.getRawClass();
+        if (rawType == Object.class || rawType == Void.class
+                || rawType == void.class
+                || !(read ? readTypes : writtenTypes).add(type)) {
+            return;
+        }
+        // Subscriptions are warmed up through their item type
+        if (rawType != Flux.class && rawType != EndpointSubscription.class) {
+            try {
+                if (read) {
+                    mapper.readerFor(type);
+                } else {
+                    mapper.writerFor(type);
+                }
+                if (!rawType.isPrimitive() && validatedTypes.add(rawType)) {
+                    validator.getConstraintsForClass(rawType);
+                }
+            } catch (RuntimeException e) {
+                // The first call reports the problem, if there is one
+                LOGGER.debug("Unable to warm up type '{}'", type, e);
+            }
+        }
+        Class<?> transferType = transferMapper.getTransferType(rawType);
+        if (transferType != null) {
+            warmUpType(transferType, read);
+        }
+        if (type.isArrayType()) {
+            warmUpJavaType(type.getContentType(), read);
+        }
+        for (int i = 0; i < type.containedTypeCount(); i++) {
+            warmUpJavaType(type.containedType(i), read);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import static com.vaadin.hilla.ExplicitNullableTypeChecker.isRequired;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNullApi;
+
+import com.vaadin.hilla.parser.utils.Generics;
+
+/**
+ * The compiled null check of a type used by
+ * {@link ExplicitNullableTypeCheckerHelper}.
+ * <p>
+ * Everything that only depends on the type is computed once and cached: what
+ * kind of value is expected, the type of the contained items, the error for a
+ * {@code null} value and, for Java Beans, the properties to check with their
+ * getters.
+ */
+final class ExplicitNullableTypeCheck {
+
+    enum Kind {
+        NONE, ITERABLE, ARRAY, MAP, BEAN
+    }
+
+    /**
+     * A Java Bean property that is required to be non-null.
+     */
+    static final class BeanProperty {
+        private final String name;
+        private final Type type;
+        private final Method readMethod;
+        private final MethodHandle getter;
+
+        private BeanProperty(String name, Method readMethod) {
+            this.name = name;
+            this.type = readMethod.getGenericReturnType();
+            this.readMethod = readMethod;
+            this.getter = createGetter(readMethod);
+        }
+
+        String getName() {
+            return name;
+        }
+
+        Type getType() {
+            return type;
+        }
+
+        Object getValue(Object bean) throws Throwable {
+            if (getter != null) {
+                return (Object) getter.invokeExact(bean);
+            }
+            try {
+                return readMethod.invoke(bean);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static MethodHandle createGetter(Method readMethod) {
+            try {
+                return MethodHandles.lookup().unreflect(readMethod)
+                        .asType(MethodType.methodType(Object.class,
+                                Object.class));
+            } catch (IllegalAccessException e) {
+                // Reflection reports the access failure when checking
+                return null;
+            }
+        }
+    }
+
+    private static final ExplicitNullableTypeCheck UNCHECKED = new ExplicitNullableTypeCheck(
+            Object.class, Kind.NONE, null, null, null);
+
+    private static volatile ClassValue<Map<Type, ExplicitNullableTypeCheck>> checks = createCache();
+
+    private final Type type;
+    private final Kind kind;
+    private final Type itemType;
+    private final String itemsDescription;
+    private final String nullValueError;
+    private volatile List<BeanProperty> beanProperties;
+    private volatile String beanError;
+
+    private ExplicitNullableTypeCheck(Type type, Kind kind, Type itemType,
+            String itemsDescription, String nullValueError) {
+        this.type = type;
+        this.kind = kind;
+        this.itemType = itemType;
+        this.itemsDescription = itemsDescription;
+        this.nullValueError = nullValueError;
+    }
+
+    /**
+     * Gets the check for the given type, compiling it on first use.
+     *
+     * @param type
+     *            the expected type
+     * @return the check
+     */
+    static ExplicitNullableTypeCheck of(Type type) {
+        Class<?> rawClass;
+        if (type instanceof Class<?> cls) {
+            rawClass = cls;
+        } else if (type instanceof ParameterizedType parameterizedType) {
+            rawClass = (Class<?>) parameterizedType.getRawType();
+        } else {
+            // Type variables and other generic types are not checked
+            return UNCHECKED;
+        }
+        return checks.get(rawClass).computeIfAbsent(type,
+                t -> compile(t, rawClass));
+    }
+
+    /**
+     * Discards the compiled checks, so that they are compiled again from the
+     * current classes. Used when classes are redefined at runtime.
+     */
+    static void clearCache() {
+        checks = createCache();
+    }
+
+    private static ClassValue<Map<Type, ExplicitNullableTypeCheck>> createCache() {
+        return new ClassValue<>() {
+            @Override
+            protected Map<Type, ExplicitNullableTypeCheck> computeValue(
+                    Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
+
+    private static ExplicitNullableTypeCheck compile(Type type,
+            Class<?> rawClass) {
+        String nullValueError = getNullValueError(type, rawClass);
+        if (EndpointDownload.isDownloadType(rawClass)) {
+            // Files and resources are sent as they are, their content is
+            // neither iterated nor read as bean properties
+            return new ExplicitNullableTypeCheck(type, Kind.NONE, null, null,
+                    nullValueError);
+        } else if (Iterable.class.isAssignableFrom(rawClass)) {
+            Type itemType;
+            if (type instanceof ParameterizedType parameterizedType) {
+                itemType = parameterizedType.getActualTypeArguments()[0];
+            } else {
+                // Let's deal with classes extending or implementing an
+                // iterator
+                itemType = Generics.getExactIterableType(rawClass)
+                        .orElse(Object.class);
+            }
+            return new ExplicitNullableTypeCheck(type, Kind.ITERABLE, itemType,
+                    "collection", nullValueError);
+        } else if (rawClass.isArray()) {
+            return new ExplicitNullableTypeCheck(type, Kind.ARRAY,
+                    rawClass.getComponentType(), "array", nullValueError);
+        } else if (Map.class.isAssignableFrom(rawClass)) {
+            Type valueType = Object.class;
+            if (type instanceof ParameterizedType parameterizedType
+                    && parameterizedType
+                            .getActualTypeArguments().length == 2) {
+                valueType = parameterizedType.getActualTypeArguments()[1];
+            }
+            return new ExplicitNullableTypeCheck(type, Kind.MAP, valueType,
+                    null, nullValueError);
+        } else if (type instanceof Class<?>
+                && !rawClass.getName().startsWith("java.")) {
+            return new ExplicitNullableTypeCheck(type, Kind.BEAN, null, null,
+                    nullValueError);
+        }
+        return new ExplicitNullableTypeCheck(type, Kind.NONE, null, null,
+                nullValueError);
+    }
+
+    private static String getNullValueError(Type type, Class<?> rawClass) {
+        if (type.equals(Void.TYPE)) {
+            // Corner case: void methods return null value by design
+            return null;
+        }
+
+        if (Void.class.isAssignableFrom(rawClass)) {
+            // Corner case: explicit Void parameter
+            return null;
+        }
+
+        if (Optional.class.isAssignableFrom(rawClass)) {
+            return String.format(
+                    "Got null value for type '%s', consider Optional.empty",
+                    type.getTypeName());
+        }
+
+        return String.format(
+                "Got null value for type '%s', which is neither Optional"
+                        + " nor void",
+                type.getTypeName());
+    }
+
+    Type getType() {
+        return type;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the type of the items of an iterable or an array, or of the values
+     * of a map.
+     */
+    Type getItemType() {
+        return itemType;
+    }
+
+    String getItemsDescription() {
+        return itemsDescription;
+    }
+
+    /**
+     * Gets the error reported for a {@code null} value.
+     *
+     * @return the error message, or {@code null} if the value can be null
+     */
+    String getNullValueError() {
+        return nullValueError;
+    }
+
+    /**
+     * Gets the properties of a Java Bean type that must have non-null values.
+     *
+     * @return the properties to check
+     */
+    List<BeanProperty> getBeanProperties() {
+        if (beanProperties == null) {
+            compileBeanProperties();
+        }
+        return beanProperties;
+    }
+
+    /**
+     * Gets the error that prevented introspecting a Java Bean type.
+     *
+     * @return the error message, or {@code null} if the type could be
+     *         introspected
+     */
+    String getBeanError() {
+        if (beanProperties == null) {
+            compileBeanProperties();
+        }
+        return beanError;
+    }
+
+    private synchronized void compileBeanProperties() {
+        if (beanProperties != null) {
+            return;
+        }
+        Class<?> clazz = (Class<?>) type;
+        // the context is the package where the object is defined
+        boolean requiredByContext = clazz.getPackage() != null
+                && clazz.getPackage().isAnnotationPresent(NonNullApi.class);
+        List<BeanProperty> properties = new ArrayList<>();
+        try {
+            for (PropertyDescriptor propertyDescriptor : Introspector
+                    .getBeanInfo(clazz).getPropertyDescriptors()) {
+                if (isPropertySubjectForChecking(propertyDescriptor,
+                        requiredByContext)) {
+                    properties.add(
+                            new BeanProperty(propertyDescriptor.getName(),
+                                    propertyDescriptor.getReadMethod()));
+                }
+            }
+        } catch (IntrospectionException e) {
+            getLogger().error(
+                    "Cannot check for null property values in Java Bean", e);
+            beanError = e.toString();
+        }
+        beanProperties = List.copyOf(properties);
+    }
+
+    private static boolean isPropertySubjectForChecking(
+            PropertyDescriptor propertyDescriptor, boolean requiredByContext) {
+        Method readMethod = propertyDescriptor.getReadMethod();
+        if (readMethod == null) {
+            return false;
+        }
+
+        Field field;
+        try {
+            field = readMethod.getDeclaringClass()
+                    .getDeclaredField(propertyDescriptor.getName());
+        } catch (NoSuchFieldException e) {
+            // Only properties backed by a field of the same name are checked
+            return false;
+        }
+        return (!Modifier.isStatic(field.getModifiers())
+                && !Modifier.isTransient(field.getModifiers())
+                && isRequired(field, requiredByContext)
+                && !field.isAnnotationPresent(JsonIgnore.class));
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(ExplicitNullableTypeCheck.class);
+    }
+}
@@ -22,10 +22,13 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Stream;
 
 import com.github.javaparser.ast.expr.AnnotationExpr;
 
+import com.vaadin.flow.server.VaadinService;
+
 /**
  * A checker for TypeScript null compatibility in Vaadin endpoint methods
  * parameter and return types.
@@ -34,6 +37,31 @@ public class ExplicitNullableTypeChecker {
     private static final String NULLABLE_ANNOTATION_NAME = "nullable";
     private static final String NONNULL_ANNOTATION_NAME = "nonnull";
 
+    private final double sampleRate;
+    private final boolean checkInProductionMode;
+
+    /**
+     * Creates a checker that checks every value.
+     */
+    public ExplicitNullableTypeChecker() {
+        this(1.0, true);
+    }
+
+    /**
+     * Creates a checker that checks only a part of the values.
+     *
+     * @param sampleRate
+     *            the fraction of the values to check, from {@code 0} (none)
+     *            to {@code 1} (all)
+     * @param checkInProductionMode
+     *            {@code false} to skip checking values in production mode
+     */
+    public ExplicitNullableTypeChecker(double sampleRate,
+            boolean checkInProductionMode) {
+        this.sampleRate = sampleRate;
+        this.checkInProductionMode = checkInProductionMode;
+    }
+
     /**
      * Checks if the reflected element should be required (not nullable) in the
      * generated Typescript code based on annotations.
@@ -114,11 +142,13 @@ public class ExplicitNullableTypeChecker {
      *            {@code true} if the context defines that the node is required
      *
      * @return error message when the value is null while the expected type does
-     *         not explicitly allow null, or null meaning the value is OK.
+     *         not explicitly allow null, or null meaning the value is OK or
+     *         has not been sampled for checking.
      */
     public String checkValueForAnnotatedElement(Object value,
             AnnotatedElement annotatedElement, boolean requiredByContext) {
-        if (!isRequired(annotatedElement, requiredByContext)) {
+        if (!isCheckEnabled()
+                || !isRequired(annotatedElement, requiredByContext)) {
             return null;
         }
         if (annotatedElement instanceof Method) {
@@ -128,8 +158,102 @@ public class ExplicitNullableTypeChecker {
         return null;
     }
 
+    /**
+     * Validates the given value for the given expected method return value
+     * type like
+     * {@link #checkValueForAnnotatedElement(Object, AnnotatedElement, boolean)},
+     * checking only the properties selected by the call, which are the only
+     * ones sent to the client.
+     *
+     * @param value
+     *            the value to validate
+     * @param annotatedElement
+     *            the entity to be type checked
+     * @param requiredByContext
+     *            {@code true} if the context defines that the node is required
+     * @param fields
+     *            the selected properties of the value
+     * @return error message when the value is null while the expected type
+     *         does not explicitly allow null, or null meaning the value is OK
+     *         or has not been sampled for checking.
+     */
+    String checkValueForAnnotatedElement(Object value,
+            AnnotatedElement annotatedElement, boolean requiredByContext,
+            EndpointFieldSelection fields) {
+        if (!isCheckEnabled()
+                || !isRequired(annotatedElement, requiredByContext)) {
+            return null;
+        }
+        if (annotatedElement instanceof Method method) {
+            return checkValueForType(value, method.getGenericReturnType(),
+                    fields);
+        }
+        return null;
+    }
+
+    /**
+     * Validates the value an asynchronous endpoint method completed with. The
+     * value is checked for the given type when the method return value is
+     * required.
+     *
+     * @param value
+     *            the value to validate
+     * @param method
+     *            the asynchronous endpoint method
+     * @param valueType
+     *            the type of the value the method completes with
+     * @param requiredByContext
+     *            {@code true} if the context defines that the node is required
+     * @param fields
+     *            the selected properties of the value, or {@code null} if the
+     *            whole value is sent
+     * @return error message when the value is null while the expected type
+     *         does not explicitly allow null, or null meaning the value is OK
+     *         or has not been sampled for checking.
+     */
+    String checkAsyncValue(Object value, Method method, Type valueType,
+            boolean requiredByContext, EndpointFieldSelection fields) {
+        if (!isCheckEnabled() || !isRequired(method, requiredByContext)) {
+            return null;
+        }
+        return fields == null ? checkValueForType(value, valueType)
+                : checkValueForType(value, valueType, fields);
+    }
+
     String checkValueForType(Object value, Type expectedType) {
         return new ExplicitNullableTypeCheckerHelper().checkValueForType(value,
                 expectedType);
     }
+
+    String checkValueForType(Object value, Type expectedType,
+            EndpointFieldSelection fields) {
+        return new ExplicitNullableTypeCheckerHelper(fields)
+                .checkValueForType(value, expectedType);
+    }
+
+    /**
+     * Discards the type information cached for checking values, so that it is
+     * computed again from the current classes. Used when classes are redefined
+     * at runtime.
+     */
+    static void clearCache() {
+        ExplicitNullableTypeCheck.clearCache();
+    }
+
+    private boolean isCheckEnabled() {
+        if (sampleRate <= 0) {
+            return false;
+        }
+        if (!checkInProductionMode && isProductionMode()) {
+            return false;
+        }
+        return sampleRate >= 1
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private boolean isProductionMode() {
+        VaadinService vaadinService = VaadinService.getCurrent();
+        return vaadinService != null && vaadinService
+                .getDeploymentConfiguration().isProductionMode();
+    }
 }
@@ -15,41 +15,44 @@
  */
 package com.vaadin.hilla;
 
-import static com.vaadin.hilla.ExplicitNullableTypeChecker.isRequired;
-
-import java.beans.IntrospectionException;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.lang.reflect.TypeVariable;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.lang.NonNullApi;
-
-import com.vaadin.hilla.parser.utils.Generics;
 
 /**
  * A helper class for ExplicitNullableTypeChecker.
+ * <p>
+ * The checks of the types are compiled once, see
+ * {@link ExplicitNullableTypeCheck}, while an instance of this class tracks the
+ * values visited while checking a single value.
+ * <p>
+ * When a call selects some properties of its return value, only the selected
+ * properties are checked, see {@link EndpointFieldSelection}.
  */
 class ExplicitNullableTypeCheckerHelper {
 
-    // A map for tracking already visited Beans.
+    private final EndpointFieldSelection fields;
+
+    // A map for tracking already visited Beans. Beans are compared by
+    // identity, as equals and hashCode of user classes can be expensive or
+    // depend on the properties being checked.
     private Map<Type, Set<Object>> visitedBeans;
 
+    ExplicitNullableTypeCheckerHelper() {
+        this(EndpointFieldSelection.ALL);
+    }
+
+    ExplicitNullableTypeCheckerHelper(EndpointFieldSelection fields) {
+        this.fields = fields;
+    }
+
     private static Logger getLogger() {
         return LoggerFactory.getLogger(EndpointController.class);
     }
@@ -75,8 +78,9 @@ class ExplicitNullableTypeCheckerHelper {
         if (visitedBeans == null) {
             visitedBeans = new HashMap<>();
         }
-        visitedBeans.putIfAbsent(type, new HashSet<>());
-        visitedBeans.get(type).add(value);
+        visitedBeans.computeIfAbsent(type,
+                t -> Collections.newSetFromMap(new IdentityHashMap<>()))
+                .add(value);
     }
 
     /**
@@ -91,173 +95,108 @@ class ExplicitNullableTypeCheckerHelper {
      *         not explicitly allow null, or null meaning the value is OK.
      */
     String checkValueForType(Object value, Type expectedType) {
-        Class<?> clazz;
-        if (expectedType instanceof TypeVariable) {
-            return null;
-        } else if (expectedType instanceof ParameterizedType) {
-            clazz = (Class<?>) ((ParameterizedType) expectedType).getRawType();
-        } else {
-            clazz = (Class<?>) expectedType;
-        }
-
-        if (value != null) {
-            if (Iterable.class.isAssignableFrom(clazz)) {
-                return checkIterable((Iterable<?>) value, expectedType);
-            } else if (clazz.isArray() && value instanceof Object[]) {
-                return checkIterable(Arrays.asList((Object[]) value),
-                        expectedType);
-            } else if (Map.class.isAssignableFrom(clazz)) {
-                return checkMapValues((Map<?, ?>) value, expectedType);
-            } else if (expectedType instanceof Class<?>
-                    && !clazz.getName().startsWith("java.")) {
-                return checkBeanFields(value, expectedType);
-            } else {
-                return null;
-            }
-        }
-
-        if (expectedType.equals(Void.TYPE)) {
-            // Corner case: void methods return null value by design
-            return null;
-        }
-
-        if (Void.class.isAssignableFrom(clazz)) {
-            // Corner case: explicit Void parameter
-            return null;
-        }
+        return checkValueForType(value, expectedType, fields);
+    }
 
-        if (Optional.class.isAssignableFrom(clazz)) {
-            return String.format(
-                    "Got null value for type '%s', consider Optional.empty",
-                    expectedType.getTypeName());
+    private String checkValueForType(Object value, Type expectedType,
+            EndpointFieldSelection selection) {
+        ExplicitNullableTypeCheck check = ExplicitNullableTypeCheck
+                .of(expectedType);
+        if (value == null) {
+            return check.getNullValueError();
         }
 
-        return String.format(
-                "Got null value for type '%s', which is neither Optional"
-                        + " nor void",
-                expectedType.getTypeName());
+        return switch (check.getKind()) {
+        case ITERABLE -> checkIterable((Iterable<?>) value, check, selection);
+        case ARRAY -> value instanceof Object[] array
+                ? checkIterable(Arrays.asList(array), check, selection)
+                : null;
+        case MAP -> checkMapValues((Map<?, ?>) value, check, selection);
+        case BEAN -> checkBeanFields(value, check, selection);
+        case NONE -> null;
+        };
     }
 
-    private String checkIterable(Iterable<?> value, Type expectedType) {
-        Type itemType = Object.class;
-        String iterableDescription = "iterable";
-        if (expectedType instanceof ParameterizedType) {
-            itemType = ((ParameterizedType) expectedType)
-                    .getActualTypeArguments()[0];
-            iterableDescription = "collection";
-        } else if (expectedType instanceof Class<?>) {
-            var expectedClass = ((Class<?>) expectedType);
-
-            if (Iterable.class.isAssignableFrom(expectedClass)) {
-                // Let's deal with classes extending or implementing an iterator
-                itemType = Generics.getExactIterableType(expectedClass)
-                        .orElse(Object.class);
-                iterableDescription = "collection";
-            } else {
-                itemType = expectedClass.getComponentType();
-                iterableDescription = "array";
-            }
-        }
-
+    private String checkIterable(Iterable<?> value,
+            ExplicitNullableTypeCheck check, EndpointFieldSelection selection) {
+        Type itemType = check.getItemType();
         for (Object item : value) {
-            String error = checkValueForType(item, itemType);
+            String error = checkValueForType(item, itemType, selection);
             if (error != null) {
                 return String.format("Unexpected null item in %s type '%s'. %s",
-                        iterableDescription, expectedType, error);
+                        check.getItemsDescription(), check.getType(), error);
             }
         }
 
         return null;
     }
 
-    private String checkMapValues(Map<?, ?> value, Type expectedType) {
-        Type valueType = Object.class;
-
-        if (expectedType instanceof ParameterizedType) {
-            valueType = ((ParameterizedType) expectedType)
-                    .getActualTypeArguments()[1];
-        }
-
+    private String checkMapValues(Map<?, ?> value,
+            ExplicitNullableTypeCheck check, EndpointFieldSelection selection) {
+        Type valueType = check.getItemType();
         for (Map.Entry<?, ?> e : value.entrySet()) {
-            String error = checkValueForType(e.getValue(), valueType);
+            EndpointFieldSelection valueSelection = selection
+                    .get(String.valueOf(e.getKey()));
+            if (valueSelection == null) {
+                continue;
+            }
+            String error = checkValueForType(e.getValue(), valueType,
+                    valueSelection);
             if (error != null) {
                 return String.format(
                         "Unexpected null value for key '%s' of "
                                 + "map type '%s'. %s",
-                        e.getKey(), expectedType, error);
+                        e.getKey(), check.getType(), error);
             }
         }
 
         return null;
     }
 
-    private String checkBeanFields(Object value, Type expectedType) {
-        if (hasVisited(value, expectedType)) {
-            return null;
-        }
-        markAsVisited(value, expectedType);
-        Class<?> clazz = (Class<?>) expectedType;
-        // the context is the package where the object is defined
-        boolean requiredByContext = clazz.getPackage() != null
-                && clazz.getPackage().isAnnotationPresent(NonNullApi.class);
-        try {
-            for (PropertyDescriptor propertyDescriptor : Introspector
-                    .getBeanInfo(clazz).getPropertyDescriptors()) {
-                if (!isPropertySubjectForChecking(propertyDescriptor,
-                        requiredByContext)) {
-                    continue;
-                }
-
-                Method readMethod = propertyDescriptor.getReadMethod();
-                Type propertyType = readMethod.getGenericReturnType();
-                Object propertyValue = readMethod.invoke(value);
-
-                String error = checkValueForType(propertyValue, propertyType);
-                if (error != null) {
-                    return String.format(
-                            "Unexpected null value in Java "
-                                    + "Bean type '%s' property '%s'. %s",
-                            expectedType.getTypeName(),
-                            propertyDescriptor.getName(), error);
-                }
+    private String checkBeanFields(Object value,
+            ExplicitNullableTypeCheck check, EndpointFieldSelection selection) {
+        Type expectedType = check.getType();
+        // Partial selections are finite trees, they cannot loop
+        if (selection.isAll()) {
+            if (hasVisited(value, expectedType)) {
+                return null;
             }
-        } catch (IntrospectionException | InvocationTargetException
-                | IllegalAccessException e) {
-            getLogger().error(
-                    "Cannot check for null property values in Java Bean", e);
-            return e.toString();
+            markAsVisited(value, expectedType);
+        }
+        if (check.getBeanError() != null) {
+            return check.getBeanError();
         }
 
-        return null;
-    }
-
-    private boolean isPropertySubjectForChecking(
-            PropertyDescriptor propertyDescriptor, boolean requiredByContext) {
-        try {
-            String name = propertyDescriptor.getName();
-            Method readMethod = propertyDescriptor.getReadMethod();
-            if (readMethod == null) {
-                return false;
+        for (ExplicitNullableTypeCheck.BeanProperty property : check
+                .getBeanProperties()) {
+            EndpointFieldSelection propertySelection = selection
+                    .get(property.getName());
+            if (propertySelection == null) {
+                continue;
             }
-
-            Class<?> declaringClass = readMethod.getDeclaringClass();
-            final Set<String> declaredFieldNames = Arrays
-                    .stream(declaringClass.getDeclaredFields())
-                    .map(Field::getName).collect(Collectors.toSet());
-            if (!declaredFieldNames.contains(name)) {
-                return false;
+            Object propertyValue;
+            try {
+                propertyValue = property.getValue(value);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                getLogger().error(
+                        "Cannot check for null property values in Java Bean",
+                        e);
+                return e.toString();
             }
 
-            Field field = readMethod.getDeclaringClass().getDeclaredField(name);
-            return (!Modifier.isStatic(field.getModifiers())
-                    && !Modifier.isTransient(field.getModifiers())
-                    && isRequired(field, requiredByContext)
-                    && !field.isAnnotationPresent(JsonIgnore.class));
-        } catch (NoSuchFieldException e) {
-            getLogger().error("Unexpected missing declared field in Java Bean",
-                    e);
-            return false;
+            String error = checkValueForType(propertyValue, property.getType(),
+                    propertySelection);
+            if (error != null) {
+                return String.format(
+                        "Unexpected null value in Java "
+                                + "Bean type '%s' property '%s'. %s",
+                        expectedType.getTypeName(), property.getName(), error);
+            }
         }
+
+        return null;
     }
 
 }
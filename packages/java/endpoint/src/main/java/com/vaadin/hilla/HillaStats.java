@@ -16,6 +16,7 @@
 package com.vaadin.hilla;
 
 import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,6 +44,8 @@ public class HillaStats {
     static final String ENDPOINT_ACTIVE = "endpoint-active";
     static final String HILLA_USAGE = "hilla";
 
+    private static final AtomicBoolean endpointActiveReported = new AtomicBoolean();
+
     private static void reportHasReactAndLit(
             DeploymentConfiguration deploymentConfiguration,
             String hillaVersion) {
@@ -131,11 +134,26 @@ public class HillaStats {
         }
     }
 
+    /**
+     * Reports that an endpoint is called. Only the first call in the JVM is
+     * reported, the following ones return right away.
+     */
     public static void reportEndpointActive() {
+        if (endpointActiveReported.get()
+                || !endpointActiveReported.compareAndSet(false, true)) {
+            return;
+        }
         try {
             UsageStatistics.markAsUsed(ENDPOINT_ACTIVE, getHillaVersion());
         } catch (Throwable e) {
             LOGGER.debug("Failed to report Hilla statistics", e);
         }
     }
+
+    /**
+     * Allows the endpoint activity to be reported again. For tests only.
+     */
+    static void resetEndpointActive() {
+        endpointActiveReported.set(false);
+    }
 }
@@ -24,6 +24,7 @@ import org.slf4j.LoggerFactory;
 
 import com.vaadin.base.devserver.hotswap.HotswapClassEvent;
 import com.vaadin.base.devserver.hotswap.VaadinHotswapper;
+import com.vaadin.hilla.auth.EndpointAccessChecker;
 
 /**
  * Takes care of updating internals of Hilla that need updates when application
@@ -60,6 +61,12 @@ public class Hotswapper implements VaadinHotswapper {
             if (isIgnoredClasses(changedClasses)) {
                 return;
             }
+            if (Boolean.TRUE.equals(redefined)) {
+                // Annotations and properties might have changed
+                EndpointAccessChecker.clearAccessRules();
+                ExplicitNullableTypeChecker.clearCache();
+                EndpointInvoker.clearCache();
+            }
             if (affectsEndpoints(changedClasses)) {
                 if (getLogger().isDebugEnabled()) {
                     String changed = List.of(changedClasses).toString();
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Reports the measurements of the endpoint method calls to a Micrometer
+ * registry.
+ * <p>
+ * The meters of a method are registered on its first call and kept, so that
+ * recording a measurement only updates the meter, which Micrometer does
+ * without locking. The meters have the {@code endpoint} and {@code method}
+ * tags. The percentile histograms of the timers are published as configured
+ * for the {@value #PHASE} meter, e.g. with the
+ * {@code management.metrics.distribution.percentiles-histogram} property.
+ * <p>
+ * This class must only be loaded when Micrometer is on the classpath.
+ */
+final class MicrometerEndpointMetrics implements EndpointMetrics {
+    /**
+     * The name of the timers of the phases of the calls, tagged with the
+     * {@code phase}.
+     */
+    static final String PHASE = "hilla.endpoint.phase";
+
+    /**
+     * The name of the distribution of the request body sizes.
+     */
+    static final String REQUEST_SIZE = "hilla.endpoint.request.size";
+
+    /**
+     * The name of the distribution of the serialized return value sizes.
+     */
+    static final String RESPONSE_SIZE = "hilla.endpoint.response.size";
+
+    /**
+     * The name of the counters of the failed calls, tagged with the
+     * {@code exception} type.
+     */
+    static final String ERRORS = "hilla.endpoint.errors";
+
+    private static final EndpointMetrics.Phase[] PHASES = EndpointMetrics.Phase
+            .values();
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, ConcurrentMap<String, MethodMeters>> meters = new ConcurrentHashMap<>();
+
+    MicrometerEndpointMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Creates the metrics reporting to the Micrometer registry of the given
+     * application context.
+     *
+     * @param applicationContext
+     *            the application context
+     * @return the metrics, or {@link EndpointMetrics#NONE} if there is no
+     *         registry
+     */
+    static EndpointMetrics create(ApplicationContext applicationContext) {
+        MeterRegistry registry = applicationContext
+                .getBeanProvider(MeterRegistry.class).getIfAvailable();
+        return registry == null ? EndpointMetrics.NONE
+                : new MicrometerEndpointMetrics(registry);
+    }
+
+    @Override
+    public void recordPhase(String endpointName, String methodName,
+            Phase phase, long nanos) {
+        getMeters(endpointName, methodName).phases[phase.ordinal()]
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordRequestSize(String endpointName, String methodName,
+            long bytes) {
+        getMeters(endpointName, methodName).requestSize.record(bytes);
+    }
+
+    @Override
+    public void recordResponseSize(String endpointName, String methodName,
+            long bytes) {
+        getMeters(endpointName, methodName).responseSize.record(bytes);
+    }
+
+    @Override
+    public void recordError(String endpointName, String methodName,
+            Class<? extends Throwable> errorType) {
+        getMeters(endpointName, methodName).getErrors(errorType).increment();
+    }
+
+    private MethodMeters getMeters(String endpointName, String methodName) {
+        // Lookups of existing entries do not lock
+        var methods = meters.get(endpointName);
+        if (methods == null) {
+            methods = meters.computeIfAbsent(endpointName,
+                    name -> new ConcurrentHashMap<>());
+        }
+        var methodMeters = methods.get(methodName);
+        if (methodMeters == null) {
+            methodMeters = methods.computeIfAbsent(methodName,
+                    name -> new MethodMeters(registry,
+                            Tags.of("endpoint", endpointName, "method", name)));
+        }
+        return methodMeters;
+    }
+
+    /**
+     * The meters of an endpoint method.
+     */
+    private static final class MethodMeters {
+        private final MeterRegistry registry;
+        private final Tags tags;
+        private final Timer[] phases = new Timer[PHASES.length];
+        private final DistributionSummary requestSize;
+        private final DistributionSummary responseSize;
+        private final ConcurrentMap<Class<?>, Counter> errors = new ConcurrentHashMap<>();
+
+        private MethodMeters(MeterRegistry registry, Tags tags) {
+            this.registry = registry;
+            this.tags = tags;
+            for (var phase : PHASES) {
+                phases[phase.ordinal()] = Timer.builder(PHASE)
+                        .description("Duration of the endpoint call phases")
+                        .tags(tags).tag("phase", phase.getName())
+                        .register(registry);
+            }
+            requestSize = DistributionSummary.builder(REQUEST_SIZE)
+                    .description("Size of the endpoint request bodies")
+                    .baseUnit("bytes").tags(tags).register(registry);
+            responseSize = DistributionSummary.builder(RESPONSE_SIZE)
+                    .description("Size of the serialized endpoint responses")
+                    .baseUnit("bytes").tags(tags).register(registry);
+        }
+
+        private Counter getErrors(Class<? extends Throwable> errorType) {
+            var counter = errors.get(errorType);
+            if (counter == null) {
+                counter = errors.computeIfAbsent(errorType,
+                        type -> Counter.builder(ERRORS)
+                                .description("Number of failed endpoint calls")
+                                .tags(tags).tag("exception", getName(type))
+                                .register(registry));
+            }
+            return counter;
+        }
+
+        private static String getName(Class<?> type) {
+            String name = type.getSimpleName();
+            return name.isEmpty() ? type.getName() : name;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Creates OpenTelemetry spans for the endpoint method calls.
+ * <p>
+ * The span of a call is named after the endpoint and the method, and has the
+ * {@value #ENDPOINT} and {@value #METHOD} attributes. Its phases are child
+ * spans named after the phase, such as {@code access-check}. The span is
+ * current while the method runs, so the spans started by the method are its
+ * children too.
+ * <p>
+ * This class must only be loaded when the OpenTelemetry API is on the
+ * classpath.
+ */
+final class OpenTelemetryEndpointTracer implements EndpointTracer {
+    /**
+     * The name of the instrumentation scope of the spans.
+     */
+    static final String SCOPE = "com.vaadin.hilla";
+
+    /**
+     * The attribute holding the endpoint name.
+     */
+    static final String ENDPOINT = "hilla.endpoint";
+
+    /**
+     * The attribute holding the method name.
+     */
+    static final String METHOD = "hilla.method";
+
+    private static final AttributeKey<String> ENDPOINT_KEY = AttributeKey
+            .stringKey(ENDPOINT);
+    private static final AttributeKey<String> METHOD_KEY = AttributeKey
+            .stringKey(METHOD);
+
+    private final Tracer tracer;
+
+    OpenTelemetryEndpointTracer(OpenTelemetry openTelemetry) {
+        this.tracer = openTelemetry.getTracer(SCOPE);
+    }
+
+    /**
+     * Creates the tracer using the OpenTelemetry instance of the given
+     * application context.
+     *
+     * @param applicationContext
+     *            the application context
+     * @return the tracer, or {@link EndpointTracer#NONE} if there is no
+     *         OpenTelemetry instance
+     */
+    static EndpointTracer create(ApplicationContext applicationContext) {
+        OpenTelemetry openTelemetry = applicationContext
+                .getBeanProvider(OpenTelemetry.class).getIfAvailable();
+        return openTelemetry == null ? EndpointTracer.NONE
+                : new OpenTelemetryEndpointTracer(openTelemetry);
+    }
+
+    /**
+     * Wraps a task to run it with the OpenTelemetry context of the calling
+     * thread, so that the spans started by the task on another thread have the
+     * same parent.
+     *
+     * @param task
+     *            the task to wrap
+     * @return the wrapped task
+     */
+    static <T> Supplier<T> withCurrentContext(Supplier<T> task) {
+        Context context = Context.current();
+        return () -> {
+            try (var scope = context.makeCurrent()) {
+                return task.get();
+            }
+        };
+    }
+
+    @Override
+    public Span startSpan(String endpointName, String methodName) {
+        // The phases are given as System.nanoTime() values, which are turned
+        // into timestamps relatively to the start of the call
+        Instant now = Instant.now();
+        long startNanos = System.nanoTime();
+        var span = tracer.spanBuilder(endpointName + "." + methodName)
+                .setAttribute(ENDPOINT_KEY, endpointName)
+                .setAttribute(METHOD_KEY, methodName)
+                .setStartTimestamp(now).startSpan();
+        long startEpochNanos = TimeUnit.SECONDS.toNanos(now.getEpochSecond())
+                + now.getNano();
+        return new OpenTelemetrySpan(span, startEpochNanos - startNanos);
+    }
+
+    private final class OpenTelemetrySpan implements Span {
+        private final io.opentelemetry.api.trace.Span span;
+        private final Context context;
+        private final long epochOffset;
+
+        private OpenTelemetrySpan(io.opentelemetry.api.trace.Span span,
+                long epochOffset) {
+            this.span = span;
+            this.context = Context.current().with(span);
+            this.epochOffset = epochOffset;
+        }
+
+        @Override
+        public void addPhase(EndpointMetrics.Phase phase, long startNanos,
+                long endNanos) {
+            tracer.spanBuilder(phase.getName()).setParent(context)
+                    .setStartTimestamp(epochOffset + startNanos,
+                            TimeUnit.NANOSECONDS)
+                    .startSpan()
+                    .end(epochOffset + endNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void setError(Throwable error) {
+            span.recordException(error);
+            span.setStatus(StatusCode.ERROR);
+        }
+
+        @Override
+        public void end() {
+            span.end();
+        }
+
+        @Override
+        public Scope makeCurrent() {
+            return context.makeCurrent()::close;
+        }
+    }
+}
@@ -20,8 +20,11 @@ import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.servlet.http.HttpServletRequest;
 
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import com.vaadin.flow.server.VaadinService;
@@ -78,6 +81,19 @@ public class EndpointAccessChecker {
 
     private final AccessAnnotationChecker accessAnnotationChecker;
 
+    /**
+     * Whether the access annotation checker only looks at annotations, so that
+     * its decisions can be compiled into {@link EndpointAccessRule} instances.
+     * Subclasses may depend on anything else, and are always called.
+     */
+    private final boolean compiledRules;
+
+    /**
+     * The compiled rules, grouped by the class declaring the annotated element.
+     * Rules only depend on annotations, so they are shared by all instances.
+     */
+    private static volatile ClassValue<Map<AnnotatedElement, EndpointAccessRule>> accessRules = createAccessRules();
+
     /**
      * Creates a new instance.
      *
@@ -87,6 +103,9 @@ public class EndpointAccessChecker {
     public EndpointAccessChecker(
             AccessAnnotationChecker accessAnnotationChecker) {
         this.accessAnnotationChecker = accessAnnotationChecker;
+        this.compiledRules = accessAnnotationChecker != null
+                && accessAnnotationChecker
+                        .getClass() == AccessAnnotationChecker.class;
     }
 
     /**
@@ -131,17 +150,10 @@ public class EndpointAccessChecker {
      */
     public String check(Method method, Principal principal,
             Function<String, Boolean> rolesChecker) {
-        if (accessAnnotationChecker.hasAccess(method, principal,
-                rolesChecker)) {
+        if (hasAccess(method, principal, rolesChecker)) {
             return null;
         }
-
-        if (isDevMode()) {
-            // suggest access control annotations in dev mode
-            return ACCESS_DENIED_MSG_DEV_MODE;
-        } else {
-            return ACCESS_DENIED_MSG;
-        }
+        return getAccessDeniedMessage();
     }
 
     /**
@@ -158,10 +170,106 @@ public class EndpointAccessChecker {
      */
     public String check(Class<?> clazz, Principal principal,
             Function<String, Boolean> rolesChecker) {
-        if (accessAnnotationChecker.hasAccess(clazz, principal, rolesChecker)) {
+        if (hasAccess(clazz, principal, rolesChecker)) {
+            return null;
+        }
+        return getAccessDeniedMessage();
+    }
+
+    /**
+     * Checks if the user has access to the endpoint method.
+     *
+     * @param method
+     *            the Vaadin endpoint method to check ACL
+     * @param principal
+     *            the user principal object
+     * @param rolesChecker
+     *            a function for checking if a user is in a given role
+     * @return {@code true} if the user has access, {@code false} otherwise
+     */
+    public boolean hasAccess(Method method, Principal principal,
+            Function<String, Boolean> rolesChecker) {
+        var rule = getAccessRule(method);
+        return rule != null ? rule.allows(principal, rolesChecker)
+                : accessAnnotationChecker.hasAccess(method, principal,
+                        rolesChecker);
+    }
+
+    /**
+     * Checks if the user has access to the endpoint class.
+     *
+     * @param clazz
+     *            the Vaadin endpoint class to check ACL
+     * @param principal
+     *            the user principal object
+     * @param rolesChecker
+     *            a function for checking if a user is in a given role
+     * @return {@code true} if the user has access, {@code false} otherwise
+     */
+    public boolean hasAccess(Class<?> clazz, Principal principal,
+            Function<String, Boolean> rolesChecker) {
+        var rule = getAccessRule(clazz);
+        return rule != null ? rule.allows(principal, rolesChecker)
+                : accessAnnotationChecker.hasAccess(clazz, principal,
+                        rolesChecker);
+    }
+
+    /**
+     * Gets the access rule of the endpoint method, computing it on first use.
+     *
+     * @param method
+     *            the Vaadin endpoint method
+     * @return the access rule, or {@code null} if the access annotation
+     *         checker is customized and has to be called for every check
+     */
+    public EndpointAccessRule getAccessRule(Method method) {
+        if (!compiledRules) {
             return null;
         }
+        return accessRules.get(method.getDeclaringClass()).computeIfAbsent(
+                method,
+                m -> EndpointAccessRule.compile((principal,
+                        rolesChecker) -> accessAnnotationChecker
+                                .hasAccess(method, principal, rolesChecker)));
+    }
+
+    /**
+     * Gets the access rule of the endpoint class, computing it on first use.
+     *
+     * @param clazz
+     *            the Vaadin endpoint class
+     * @return the access rule, or {@code null} if the access annotation
+     *         checker is customized and has to be called for every check
+     */
+    public EndpointAccessRule getAccessRule(Class<?> clazz) {
+        if (!compiledRules) {
+            return null;
+        }
+        return accessRules.get(clazz).computeIfAbsent(clazz,
+                c -> EndpointAccessRule.compile((principal,
+                        rolesChecker) -> accessAnnotationChecker
+                                .hasAccess(clazz, principal, rolesChecker)));
+    }
+
+    /**
+     * Discards the compiled access rules, so that they are computed again from
+     * the current annotations. Used when classes are redefined at runtime.
+     */
+    public static void clearAccessRules() {
+        accessRules = createAccessRules();
+    }
+
+    private static ClassValue<Map<AnnotatedElement, EndpointAccessRule>> createAccessRules() {
+        return new ClassValue<>() {
+            @Override
+            protected Map<AnnotatedElement, EndpointAccessRule> computeValue(
+                    Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+    }
 
+    private String getAccessDeniedMessage() {
         if (isDevMode()) {
             // suggest access control annotations in dev mode
             return ACCESS_DENIED_MSG_DEV_MODE;
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla.auth;
+
+import java.security.Principal;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.vaadin.flow.server.auth.AccessAnnotationChecker;
+
+/**
+ * The access rule of an endpoint method or class, computed once from its
+ * access control annotations.
+ * <p>
+ * A rule either denies everyone, allows anonymous users, allows any
+ * authenticated user, or allows authenticated users having one of a set of
+ * roles.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ */
+public final class EndpointAccessRule {
+
+    /**
+     * The kind of access granted by a rule.
+     */
+    public enum Kind {
+        DENY_ALL, ANONYMOUS, AUTHENTICATED, ROLES
+    }
+
+    static final EndpointAccessRule DENY_ALL = new EndpointAccessRule(
+            Kind.DENY_ALL, Set.of());
+
+    static final EndpointAccessRule ANONYMOUS = new EndpointAccessRule(
+            Kind.ANONYMOUS, Set.of());
+
+    static final EndpointAccessRule AUTHENTICATED = new EndpointAccessRule(
+            Kind.AUTHENTICATED, Set.of());
+
+    private static final Principal PROBE_PRINCIPAL = () -> "";
+
+    private final Kind kind;
+    private final Set<String> roles;
+
+    private EndpointAccessRule(Kind kind, Set<String> roles) {
+        this.kind = kind;
+        this.roles = roles;
+    }
+
+    /**
+     * Computes the rule applied by the given access check.
+     * <p>
+     * The check is run with an anonymous user, and then with an authenticated
+     * user without any role, recording the roles it looks for. This way the
+     * rule follows the annotation precedence of {@link AccessAnnotationChecker}
+     * exactly, as long as the check only depends on annotations.
+     *
+     * @param accessCheck
+     *            the access check of the method or class
+     * @return the rule
+     */
+    static EndpointAccessRule compile(AccessCheck accessCheck) {
+        if (accessCheck.hasAccess(null, role -> false)) {
+            return ANONYMOUS;
+        }
+        Set<String> requestedRoles = new LinkedHashSet<>();
+        if (accessCheck.hasAccess(PROBE_PRINCIPAL, role -> {
+            requestedRoles.add(role);
+            return false;
+        })) {
+            return AUTHENTICATED;
+        }
+        if (requestedRoles.isEmpty()) {
+            return DENY_ALL;
+        }
+        return new EndpointAccessRule(Kind.ROLES, Set.copyOf(requestedRoles));
+    }
+
+    /**
+     * Gets the kind of access granted by the rule.
+     *
+     * @return the kind of the rule
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the roles allowed by the rule, if the rule is of kind
+     * {@link Kind#ROLES}.
+     *
+     * @return the allowed roles, or an empty set
+     */
+    public Set<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * Checks whether the rule allows access to the given user.
+     *
+     * @param principal
+     *            the user principal object, {@code null} for anonymous users
+     * @param rolesChecker
+     *            a function for checking if a user is in a given role
+     * @return {@code true} if access is allowed, {@code false} otherwise
+     */
+    public boolean allows(Principal principal,
+            Function<String, Boolean> rolesChecker) {
+        return switch (kind) {
+        case DENY_ALL -> false;
+        case ANONYMOUS -> true;
+        case AUTHENTICATED -> principal != null;
+        case ROLES -> principal != null && roles.stream().anyMatch(
+                role -> Boolean.TRUE.equals(rolesChecker.apply(role)));
+        };
+    }
+
+    @Override
+    public String toString() {
+        return kind == Kind.ROLES ? kind + " " + roles : kind.toString();
+    }
+
+    @FunctionalInterface
+    interface AccessCheck {
+        boolean hasAccess(Principal principal,
+                Function<String, Boolean> rolesChecker);
+    }
+}
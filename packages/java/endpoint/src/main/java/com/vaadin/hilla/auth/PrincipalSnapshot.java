@@ -0,0 +1,122 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla.auth;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The user principal and the role checks of a single request.
+ * <p>
+ * Role checks are delegated to the underlying checker once per role, and their
+ * results are reused for the rest of the request, so that several access
+ * checks during the same request do not repeat them.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ */
+public final class PrincipalSnapshot {
+
+    /**
+     * A snapshot of an anonymous user, having no roles.
+     */
+    public static final PrincipalSnapshot ANONYMOUS = new PrincipalSnapshot(
+            null, role -> false);
+
+    private static final String REQUEST_ATTRIBUTE = PrincipalSnapshot.class
+            .getName();
+
+    private final Principal principal;
+    private final Function<String, Boolean> rolesChecker;
+    private final Map<String, Boolean> roles = new ConcurrentHashMap<>();
+
+    private PrincipalSnapshot(Principal principal,
+            Function<String, Boolean> rolesChecker) {
+        this.principal = principal;
+        this.rolesChecker = rolesChecker;
+    }
+
+    /**
+     * Creates a snapshot of the given user.
+     *
+     * @param principal
+     *            the user principal object, {@code null} for anonymous users
+     * @param rolesChecker
+     *            a function for checking if a user is in a given role
+     * @return the snapshot
+     */
+    public static PrincipalSnapshot of(Principal principal,
+            Function<String, Boolean> rolesChecker) {
+        return new PrincipalSnapshot(principal, rolesChecker);
+    }
+
+    /**
+     * Gets the snapshot of the user of the given request. The snapshot is
+     * created on first use and stored as a request attribute, so that it is
+     * shared by everything that checks access during the request.
+     *
+     * @param request
+     *            the request
+     * @return the snapshot
+     */
+    public static PrincipalSnapshot of(HttpServletRequest request) {
+        if (request.getAttribute(
+                REQUEST_ATTRIBUTE) instanceof PrincipalSnapshot snapshot) {
+            return snapshot;
+        }
+        var snapshot = new PrincipalSnapshot(request.getUserPrincipal(),
+                request::isUserInRole);
+        request.setAttribute(REQUEST_ATTRIBUTE, snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Gets the user principal object.
+     *
+     * @return the principal, or {@code null} for anonymous users
+     */
+    public Principal getPrincipal() {
+        return principal;
+    }
+
+    /**
+     * Checks if the user is in the given role.
+     *
+     * @param role
+     *            the role to check
+     * @return {@code true} if the user is in the role, {@code false} otherwise
+     */
+    public boolean isUserInRole(String role) {
+        if (role == null) {
+            return Boolean.TRUE.equals(rolesChecker.apply(null));
+        }
+        return roles.computeIfAbsent(role,
+                r -> Boolean.TRUE.equals(rolesChecker.apply(r)));
+    }
+
+    /**
+     * Gets a function for checking if the user is in a given role, backed by
+     * this snapshot.
+     *
+     * @return the roles checker
+     */
+    public Function<String, Boolean> getRolesChecker() {
+        return this::isUserInRole;
+    }
+}
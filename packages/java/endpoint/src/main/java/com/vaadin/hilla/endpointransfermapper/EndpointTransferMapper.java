@@ -15,6 +15,9 @@
  */
 package com.vaadin.hilla.endpointransfermapper;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -183,6 +186,8 @@ public class EndpointTransferMapper {
         jacksonModule.addDeserializer(endpointType, deserializer);
         jacksonModule.addDeserializer(MultipartFile.class,
                 new MultipartFileDeserializer());
+        jacksonModule.addDeserializer(InputStream.class,
+                new InputStreamDeserializer());
     }
 
     /**
@@ -351,4 +356,36 @@ public class EndpointTransferMapper {
                     "Expected a POJONode wrapping a MultipartFile");
         }
     }
+
+    /**
+     * A deserializer for the InputStream parameters receiving uploaded files.
+     * The stream is either given as such, when the request is streamed, or
+     * taken from the MultipartFile buffered by the servlet container.
+     */
+    public static class InputStreamDeserializer
+            extends ValueDeserializer<InputStream> {
+
+        @Override
+        public InputStream deserialize(JsonParser p,
+                DeserializationContext ctxt) {
+            JsonNode node = p.readValueAsTree();
+
+            if (node instanceof POJONode) {
+                Object pojo = ((POJONode) node).getPojo();
+
+                if (pojo instanceof InputStream) {
+                    return (InputStream) pojo;
+                } else if (pojo instanceof MultipartFile) {
+                    try {
+                        return ((MultipartFile) pojo).getInputStream();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }
+
+            throw new RuntimeException(
+                    "Expected a POJONode wrapping an InputStream or a MultipartFile");
+        }
+    }
 }
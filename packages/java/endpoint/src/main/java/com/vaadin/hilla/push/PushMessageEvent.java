@@ -0,0 +1,60 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla.push;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The JDK Flight Recorder event of a push subscription message: the
+ * subscription to an endpoint method and the update, complete and error
+ * messages sent for it.
+ * <p>
+ * By default, only the messages taking at least 20 milliseconds to handle or
+ * send are recorded.
+ */
+@Name(PushMessageEvent.NAME)
+@Label("Push Message")
+@Description("A message of a Hilla push subscription")
+@Category({ "Hilla", "Push" })
+@StackTrace(false)
+@Threshold("20 ms")
+final class PushMessageEvent extends Event {
+    static final String NAME = "com.vaadin.hilla.push.PushMessage";
+
+    static final String SUBSCRIBE = "subscribe";
+    static final String UPDATE = "update";
+    static final String COMPLETE = "complete";
+    static final String ERROR = "error";
+
+    @Label("Message Type")
+    String messageType;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Method")
+    String method;
+
+    @Label("Connection Subscriptions")
+    @Description("The number of active subscriptions of the connection")
+    int subscriptions;
+}
@@ -121,6 +121,17 @@ public class PushMessageHandler {
 
     private void handleBrowserSubscribe(String connectionId,
             SubscribeMessage message, Consumer<AbstractClientMessage> sender) {
+        var event = new PushMessageEvent();
+        event.begin();
+        try {
+            subscribe(connectionId, message, sender);
+        } finally {
+            commit(event, PushMessageEvent.SUBSCRIBE, connectionId, message);
+        }
+    }
+
+    private void subscribe(String connectionId, SubscribeMessage message,
+            Consumer<AbstractClientMessage> sender) {
         String fluxId = message.getId();
 
         if (fluxSubscriptionInfos.get(connectionId).containsKey(fluxId)) {
@@ -170,7 +181,8 @@ public class PushMessageHandler {
 
             CompletableFuture<Void> waitForSubscriptionData = new CompletableFuture<>();
             Disposable endpointFluxSubscriber = flux.subscribe(item -> {
-                send(sender, new ClientMessageUpdate(fluxId, item));
+                send(connectionId, message, sender,
+                        new ClientMessageUpdate(fluxId, item));
             }, error -> {
                 // An exception was thrown from the Flux
 
@@ -178,8 +190,9 @@ public class PushMessageHandler {
                 // is used
                 waitForSubscriptionData.whenComplete((a, b) -> {
                     disposeSubscriptionInfo(connectionId, fluxId, false);
-                    send(sender, new ClientMessageError(fluxId,
-                            "Exception in Flux"));
+                    send(connectionId, message, sender,
+                            new ClientMessageError(fluxId,
+                                    "Exception in Flux"));
                     getLogger().error("Exception in Flux", error);
                 });
             }, () -> {
@@ -189,7 +202,8 @@ public class PushMessageHandler {
                 // is used
                 waitForSubscriptionData.whenComplete((a, b) -> {
                     disposeSubscriptionInfo(connectionId, fluxId, false);
-                    send(sender, new ClientMessageComplete(fluxId));
+                    send(connectionId, message, sender,
+                            new ClientMessageComplete(fluxId));
                 });
             });
 
@@ -209,10 +223,39 @@ public class PushMessageHandler {
 
     }
 
-    private void send(Consumer<AbstractClientMessage> sender,
+    private void send(String connectionId, SubscribeMessage subscription,
+            Consumer<AbstractClientMessage> sender,
             AbstractClientMessage message) {
+        var event = new PushMessageEvent();
+        event.begin();
         sender.accept(message);
+        String messageType;
+        if (message instanceof ClientMessageUpdate) {
+            messageType = PushMessageEvent.UPDATE;
+        } else if (message instanceof ClientMessageComplete) {
+            messageType = PushMessageEvent.COMPLETE;
+        } else {
+            messageType = PushMessageEvent.ERROR;
+        }
+        commit(event, messageType, connectionId, subscription);
+    }
 
+    /**
+     * Commits the Flight Recorder event of a message of the given
+     * subscription, if it is recorded. The event must have begun.
+     */
+    private void commit(PushMessageEvent event, String messageType,
+            String connectionId, SubscribeMessage subscription) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.messageType = messageType;
+            event.endpoint = subscription.getEndpointName();
+            event.method = subscription.getMethodName();
+            var subscriptions = fluxSubscriptionInfos.get(connectionId);
+            event.subscriptions = subscriptions != null ? subscriptions.size()
+                    : 0;
+            event.commit();
+        }
     }
 
     /**
@@ -15,7 +15,9 @@
  */
 package com.vaadin.hilla.signals.internal;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
@@ -55,6 +57,9 @@ public class InternalSignal {
     // Lookup for clientSignalId by commandId
     private final Map<Id, String> commandsOfSubscribers = new HashMap<>();
     private final ObjectMapper objectMapper;
+    // Flight Recorder events that have ended while holding the lock of the
+    // tree, committed once it is released
+    private List<PendingEvent> pendingEvents = new ArrayList<>();
 
     public InternalSignal(AbstractSharedSignal<?> signal,
             ObjectMapper objectMapper) {
@@ -78,6 +83,7 @@ public class InternalSignal {
         Sinks.Many<JsonNode> sink = Sinks.many().unicast()
                 .onBackpressureBuffer();
         return sink.asFlux().doOnSubscribe(ignore -> {
+            List<PendingEvent> events;
             tree.getLock().lock();
             try {
                 getLogger().debug("New Flux subscription...");
@@ -91,9 +97,12 @@ public class InternalSignal {
                         SignalUtils.treeOf(signal).confirmed().nodes());
                 sink.tryEmitNext(objectMapper.valueToTree(setCommand));
             } finally {
+                events = takePendingEvents();
                 tree.getLock().unlock();
             }
+            commitPendingEvents(events);
         }).doFinally(ignore -> {
+            List<PendingEvent> events;
             tree.getLock().lock();
             try {
                 getLogger().debug("Unsubscribing from Signal...");
@@ -106,13 +115,33 @@ public class InternalSignal {
                     treeSubscriptionCanceler = null;
                 }
             } finally {
+                events = takePendingEvents();
                 tree.getLock().unlock();
             }
+            commitPendingEvents(events);
         });
     }
 
     private void notifySubscribers(SignalCommand processedCommand,
             CommandResult result) {
+        var event = new SignalCommandEvent();
+        event.begin();
+        ObjectNode commandJson = inProgressCommands
+                .get(processedCommand.commandId());
+        broadcast(processedCommand, result);
+        event.end();
+        // This runs while holding the lock of the tree, so the event is only
+        // committed once the lock is released
+        if (event.shouldCommit()) {
+            event.accepted = result.accepted();
+            pendingEvents.add(new PendingEvent(event,
+                    SignalCommandEvent.BROADCAST, processedCommand,
+                    commandJson, subscribers.size()));
+        }
+    }
+
+    private void broadcast(SignalCommand processedCommand,
+            CommandResult result) {
         var commandToEmit = inProgressCommands
                 .remove(processedCommand.commandId());
         if (result.accepted()) {
@@ -161,9 +190,14 @@ public class InternalSignal {
      *            the command to submit in JSON format
      */
     public void submit(String clientSignalId, ObjectNode commandJson) {
+        var event = new SignalCommandEvent();
+        event.begin();
+        SignalCommand command = null;
+        int subscriberCount;
+        List<PendingEvent> events;
         tree.getLock().lock();
         try {
-            SignalCommand command = objectMapper.treeToValue(commandJson,
+            command = objectMapper.treeToValue(commandJson,
                     SignalCommand.class);
             inProgressCommands.put(command.commandId(), commandJson);
             commandsOfSubscribers.put(command.commandId(), clientSignalId);
@@ -172,8 +206,64 @@ public class InternalSignal {
             getLogger().error("Failed to process command for signal {}: {}",
                     signal.getClass().getName(), ex.getMessage(), ex);
         } finally {
+            subscriberCount = subscribers.size();
+            events = takePendingEvents();
             tree.getLock().unlock();
         }
+        // The events are committed once the lock is released, as serializing
+        // the command for its size can take a while
+        commitPendingEvents(events);
+        event.end();
+        commit(event, SignalCommandEvent.SUBMIT, command, commandJson,
+                subscriberCount);
+    }
+
+    /**
+     * Takes the events that have ended while holding the lock of the tree,
+     * which must be held by the calling thread.
+     */
+    private List<PendingEvent> takePendingEvents() {
+        if (pendingEvents.isEmpty()) {
+            return List.of();
+        }
+        var events = pendingEvents;
+        pendingEvents = new ArrayList<>();
+        return events;
+    }
+
+    private void commitPendingEvents(List<PendingEvent> events) {
+        for (var pending : events) {
+            commit(pending.event(), pending.operation(), pending.command(),
+                    pending.commandJson(), pending.subscriberCount());
+        }
+    }
+
+    /**
+     * Commits the Flight Recorder event of a command, if it is recorded. The
+     * event must have ended, and the subscribers must have been counted while
+     * holding the lock of the tree, which must not be held anymore.
+     */
+    private void commit(SignalCommandEvent event, String operation,
+            SignalCommand command, ObjectNode commandJson,
+            int subscriberCount) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.signal = signal.getClass().getName();
+            if (command != null) {
+                event.commandType = command.getClass().getSimpleName();
+            }
+            if (commandJson != null) {
+                event.payloadSize = objectMapper
+                        .writeValueAsBytes(commandJson).length;
+            }
+            event.subscribers = subscriberCount;
+            event.commit();
+        }
+    }
+
+    private record PendingEvent(SignalCommandEvent event, String operation,
+            SignalCommand command, ObjectNode commandJson,
+            int subscriberCount) {
     }
 
     private Logger getLogger() {
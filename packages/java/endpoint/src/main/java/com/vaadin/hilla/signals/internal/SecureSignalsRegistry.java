@@ -21,7 +21,6 @@ import java.lang.reflect.Method;
 import java.security.Principal;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 import org.springframework.stereotype.Component;
 import tools.jackson.databind.ObjectMapper;
@@ -32,6 +31,7 @@ import com.vaadin.hilla.AuthenticationUtil;
 import com.vaadin.hilla.EndpointInvocationException;
 import com.vaadin.hilla.EndpointInvoker;
 import com.vaadin.hilla.EndpointRegistry;
+import com.vaadin.hilla.auth.PrincipalSnapshot;
 
 /**
  * Proxy for the accessing the SignalRegistry.
@@ -57,14 +57,12 @@ public class SecureSignalsRegistry {
     public synchronized void register(String clientSignalId,
             String endpointName, String methodName, ObjectNode body)
             throws EndpointInvocationException.EndpointHttpException {
-        Principal principal = AuthenticationUtil
-                .getSecurityHolderAuthentication();
-        Function<String, Boolean> isInRole = AuthenticationUtil
-                .getSecurityHolderRoleChecker();
-        checkAccess(endpointName, methodName, principal, isInRole);
+        PrincipalSnapshot user = getCurrentUser();
+        checkAccess(endpointName, methodName, user);
 
         AbstractSharedSignal<?> signal = (AbstractSharedSignal<?>) invoker
-                .invoke(endpointName, methodName, body, principal, isInRole);
+                .invoke(endpointName, methodName, body, user.getPrincipal(),
+                        user.getRolesChecker());
         endpointMethods.put(clientSignalId,
                 new EndpointMethod(endpointName, methodName));
         delegate.register(clientSignalId,
@@ -86,27 +84,26 @@ public class SecureSignalsRegistry {
         if (endpointMethodInfo == null) {
             return null;
         }
-        checkAccess(endpointMethodInfo.endpoint, endpointMethodInfo.method);
+        checkAccess(endpointMethodInfo.endpoint, endpointMethodInfo.method,
+                getCurrentUser());
         return delegate.get(clientSignalId);
     }
 
-    private void checkAccess(String endpointName, String methodName)
-            throws EndpointInvocationException.EndpointHttpException {
-        Principal principal = AuthenticationUtil
-                .getSecurityHolderAuthentication();
-        Function<String, Boolean> isInRole = AuthenticationUtil
-                .getSecurityHolderRoleChecker();
-        checkAccess(endpointName, methodName, principal, isInRole);
+    private static PrincipalSnapshot getCurrentUser() {
+        return PrincipalSnapshot.of(
+                AuthenticationUtil.getSecurityHolderAuthentication(),
+                AuthenticationUtil.getSecurityHolderRoleChecker());
     }
 
     private void checkAccess(String endpointName, String methodName,
-            Principal principal, Function<String, Boolean> isInRole)
+            PrincipalSnapshot user)
             throws EndpointInvocationException.EndpointHttpException {
         EndpointRegistry.VaadinEndpointData endpointData = invoker
                 .getVaadinEndpointData(endpointName);
         Method method = getMethod(endpointData, methodName);
+        Principal principal = user.getPrincipal();
         var checkError = invoker.checkAccess(endpointData, method, principal,
-                isInRole);
+                user.getRolesChecker());
         if (checkError != null) {
             var message = String.format(
                     "Endpoint '%s' method '%s' request cannot be accessed, reason: '%s'",
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla.signals.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The JDK Flight Recorder event of a signal command, either submitted by a
+ * client or broadcast to the subscribers once processed.
+ * <p>
+ * By default, only the commands taking at least 20 milliseconds to submit or
+ * broadcast are recorded.
+ */
+@Name(SignalCommandEvent.NAME)
+@Label("Signal Command")
+@Description("A command of a Hilla shared signal")
+@Category({ "Hilla", "Signals" })
+@StackTrace(false)
+@Threshold("20 ms")
+final class SignalCommandEvent extends Event {
+    static final String NAME = "com.vaadin.hilla.signals.SignalCommand";
+
+    static final String SUBMIT = "submit";
+    static final String BROADCAST = "broadcast";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Signal")
+    String signal;
+
+    @Label("Command Type")
+    String commandType;
+
+    @Label("Payload Size")
+    @Description("The size of the command JSON, or -1 if unknown")
+    @DataAmount
+    long payloadSize = -1;
+
+    @Label("Subscribers")
+    int subscribers;
+
+    @Label("Accepted")
+    @Description("Whether the command was accepted, for a broadcast")
+    boolean accepted;
+}
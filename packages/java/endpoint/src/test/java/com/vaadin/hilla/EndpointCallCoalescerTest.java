@@ -0,0 +1,173 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.security.Principal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+
+public class EndpointCallCoalescerTest {
+
+    public static class CoalescedEndpoint {
+        @EndpointCoalescing
+        public String shared() {
+            return "shared";
+        }
+
+        @EndpointCoalescing(scope = EndpointCacheable.Scope.PRINCIPAL)
+        public String personal() {
+            return "personal";
+        }
+
+        public String notCoalesced() {
+            return "notCoalesced";
+        }
+    }
+
+    private final EndpointCallCoalescer coalescer = new EndpointCallCoalescer();
+    private final CoalescedEndpoint endpoint = new CoalescedEndpoint();
+
+    private EndpointInvocationPlan plan(String name)
+            throws NoSuchMethodException {
+        return EndpointInvocationPlan
+                .create(CoalescedEndpoint.class.getMethod(name), endpoint);
+    }
+
+    @Test
+    public void isCoalesced_onlyForAnnotatedMethods() throws Exception {
+        assertTrue(coalescer.isCoalesced(plan("shared")));
+        assertFalse(coalescer.isCoalesced(plan("notCoalesced")));
+    }
+
+    @Test
+    public void createKey_principalScope_separatesUsers() throws Exception {
+        Principal alice = () -> "alice";
+        Principal bob = () -> "bob";
+        assertEquals(
+                coalescer.createKey("CoalescedEndpoint", "shared",
+                        plan("shared"), null, alice),
+                coalescer.createKey("CoalescedEndpoint", "shared",
+                        plan("shared"), null, bob));
+        assertNotEquals(
+                coalescer.createKey("CoalescedEndpoint", "personal",
+                        plan("personal"), null, alice),
+                coalescer.createKey("CoalescedEndpoint", "personal",
+                        plan("personal"), null, bob));
+    }
+
+    @Test
+    public void execute_concurrentIdenticalCalls_shareOneExecution()
+            throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executions = new AtomicInteger();
+        var leader = CompletableFuture.supplyAsync(
+                () -> coalescer.execute("key", () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ResponseEntity.ok("\"result\"");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        var follower = CompletableFuture.supplyAsync(
+                () -> coalescer.execute("key", () -> {
+                    executions.incrementAndGet();
+                    return ResponseEntity.ok("\"other\"");
+                }));
+        awaitCoalescedCall();
+        release.countDown();
+
+        assertSame(leader.get(5, TimeUnit.SECONDS),
+                follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+        assertEquals(1, coalescer.getExecutionCount());
+        assertEquals(1, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void execute_failedCall_eachWaiterGetsItsOwnException()
+            throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var failure = new IllegalStateException("Failed");
+        var leader = CompletableFuture.supplyAsync(
+                () -> coalescer.execute("key", () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw failure;
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        var follower = CompletableFuture.supplyAsync(
+                () -> coalescer.execute("key",
+                        () -> ResponseEntity.ok("\"other\"")));
+        awaitCoalescedCall();
+        release.countDown();
+
+        var leaderError = assertThrows(ExecutionException.class,
+                () -> leader.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        var followerError = assertThrows(ExecutionException.class,
+                () -> follower.get(5, TimeUnit.SECONDS));
+        assertNotSame(failure, followerError.getCause());
+        assertSame(failure, followerError.getCause().getCause());
+    }
+
+    @Test
+    public void execute_sequentialCalls_executeEachTime() {
+        assertEquals("\"first\"", coalescer
+                .execute("key", () -> ResponseEntity.ok("\"first\""))
+                .getBody());
+        assertEquals("\"second\"", coalescer
+                .execute("key", () -> ResponseEntity.ok("\"second\""))
+                .getBody());
+        assertEquals(2, coalescer.getExecutionCount());
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+
+    private void awaitCoalescedCall() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescer.getCoalescedCount() == 0
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("The identical call should be waiting", 1,
+                coalescer.getCoalescedCount());
+    }
+}
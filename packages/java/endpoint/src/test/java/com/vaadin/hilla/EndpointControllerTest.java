@@ -46,12 +46,17 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -67,13 +72,22 @@ import org.springframework.boot.jackson.autoconfigure.JacksonProperties;
 import org.springframework.cglib.proxy.Enhancer;
 import org.springframework.cglib.proxy.NoOp;
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.DelegatingServletInputStream;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ArrayNode;
 import tools.jackson.databind.node.ObjectNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 import com.vaadin.flow.di.Lookup;
 import com.vaadin.flow.internal.CurrentInstance;
@@ -249,6 +263,95 @@ public class EndpointControllerTest {
         public void throwInvalidHttpException() throws InvalidHttpException {
             throw new InvalidHttpException();
         }
+
+        @AnonymousAllowed
+        public CompletableFuture<String> testAsyncMethod(int parameter) {
+            return CompletableFuture.supplyAsync(() -> parameter + "-async");
+        }
+
+        @AnonymousAllowed
+        public CompletableFuture<String> throwAsyncHttpException() {
+            return CompletableFuture.failedFuture(new TeapotException());
+        }
+    }
+
+    @Endpoint
+    public static class CacheableTestClass {
+        private int calls;
+
+        @AnonymousAllowed
+        @EndpointCacheable
+        public String cached(String text) {
+            calls++;
+            return text + calls;
+        }
+
+        @AnonymousAllowed
+        @EndpointCacheable
+        public Resource cachedDownload() {
+            return new ByteArrayResource(
+                    "0123456789".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Endpoint
+    public static class ReadOnlyTestClass {
+        @AnonymousAllowed
+        @EndpointReadOnly(cacheControl = "max-age=60")
+        public String greet(String name) {
+            return "Hello " + name;
+        }
+
+        @AnonymousAllowed
+        public String update(String name) {
+            return name;
+        }
+    }
+
+    @Endpoint
+    public static class DownloadTestClass {
+        private final Path file;
+
+        public DownloadTestClass(Path file) {
+            this.file = file;
+        }
+
+        @AnonymousAllowed
+        public Path downloadFile() {
+            return file;
+        }
+
+        @AnonymousAllowed
+        public Resource downloadResource() {
+            return new ByteArrayResource(
+                    "0123456789".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Endpoint
+    public static class UnserializableResponseTestClass {
+        public static class Unserializable {
+            public String getValue() {
+                throw new IllegalStateException("Not serializable");
+            }
+        }
+
+        public Unserializable testMethod() {
+            return new Unserializable();
+        }
+    }
+
+    @Endpoint
+    public static class ThrowingTestClass {
+        private final Exception exception;
+
+        public ThrowingTestClass(Exception exception) {
+            this.exception = exception;
+        }
+
+        public String testMethod(int value) throws Exception {
+            throw exception;
+        }
     }
 
     @Endpoint("CustomEndpoint")
@@ -480,6 +583,46 @@ public class EndpointControllerTest {
                 "\"Hello, anonymous user!\"", responseBody);
     }
 
+    @Test
+    public void should_ReturnResultOfEveryCall_When_BatchIsServed() {
+        EndpointController vaadinController = createVaadinControllerWithoutPrincipal();
+        ArrayNode calls = new ObjectMapper().createArrayNode();
+        calls.addObject().put("endpoint", TEST_ENDPOINT_NAME).put("method",
+                "testAnonymousMethod");
+        calls.addObject().put("endpoint", TEST_ENDPOINT_NAME)
+                .put("method", TEST_METHOD.getName())
+                .set("params", createRequestParameters("{\"value\": 222}"));
+        calls.addObject().put("endpoint", "whatever").put("method",
+                "whatever");
+
+        ResponseEntity<String> response = vaadinController.serveBatch(calls,
+                requestMock, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode results = new ObjectMapper().readTree(response.getBody());
+        assertEquals(3, results.size());
+        assertEquals(200, results.get(0).get("status").asInt());
+        assertEquals("Hello, anonymous user!",
+                results.get(0).get("body").asText());
+        assertEquals(401, results.get(1).get("status").asInt());
+        assertTrue(results.get(1).get("body").get("message").asText()
+                .contains(EndpointAccessChecker.ACCESS_DENIED_MSG));
+        assertEquals(404, results.get(2).get("status").asInt());
+        assertNull(results.get(2).get("body"));
+    }
+
+    @Test
+    public void should_Return400_When_BatchCallIsMalformed() {
+        EndpointController vaadinController = createVaadinControllerWithoutPrincipal();
+        ArrayNode calls = new ObjectMapper().createArrayNode();
+        calls.addObject().put("endpoint", TEST_ENDPOINT_NAME);
+
+        ResponseEntity<String> response = vaadinController.serveBatch(calls,
+                requestMock, null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     public void should_NotCallMethod_When_a_CSRF_request() {
         when(appConfig.isXsrfProtectionEnabled()).thenReturn(true);
@@ -701,120 +844,50 @@ public class EndpointControllerTest {
     }
 
     @Test
-    @Ignore("requires mockito version with plugin for final classes")
-    public void should_Return400_When_EndpointMethodThrowsIllegalArgumentException()
-            throws Exception {
-        int inputValue = 222;
-
-        Method endpointMethodMock = createEndpointMethodMockThatThrows(
-                inputValue, new IllegalArgumentException("OOPS"));
-
-        EndpointController controller = createVaadinController(TEST_ENDPOINT);
-        controller.endpointRegistry
-                .get(TEST_ENDPOINT_NAME.toLowerCase()).methods
-                .put(TEST_METHOD.getName().toLowerCase(), endpointMethodMock);
-
-        ResponseEntity<String> response = controller.serveEndpoint(
-                TEST_ENDPOINT_NAME, TEST_METHOD.getName(),
-                createRequestParameters(
-                        String.format("{\"value\": %s}", inputValue)),
-                requestMock);
+    public void should_Return500_When_EndpointMethodThrowsIllegalArgumentException() {
+        ResponseEntity<String> response = serveThrowingEndpoint(
+                new IllegalArgumentException("OOPS"));
 
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+                response.getStatusCode());
         String responseBody = response.getBody();
-        assertEndpointInfoPresent(responseBody);
+        assertThrowingEndpointInfoPresent(responseBody);
         assertTrue(String.format("Invalid response body: '%s'", responseBody),
-                responseBody.contains(
-                        TEST_METHOD.getParameterTypes()[0].getSimpleName()));
-
-        verify(endpointMethodMock, times(1)).invoke(TEST_ENDPOINT, inputValue);
-        verify(endpointMethodMock, times(1)).getParameters();
+                responseBody.contains("execution failure"));
     }
 
     @Test
-    @Ignore("requires mockito version with plugin for final classes")
-    public void should_Return500_When_EndpointMethodThrowsIllegalAccessException()
-            throws Exception {
-        int inputValue = 222;
-
-        Method endpointMethodMock = createEndpointMethodMockThatThrows(
-                inputValue, new IllegalAccessException("OOPS"));
-
-        EndpointController controller = createVaadinController(TEST_ENDPOINT);
-        controller.endpointRegistry
-                .get(TEST_ENDPOINT_NAME.toLowerCase()).methods
-                .put(TEST_METHOD.getName().toLowerCase(), endpointMethodMock);
-
-        ResponseEntity<String> response = controller.serveEndpoint(
-                TEST_ENDPOINT_NAME, TEST_METHOD.getName(),
-                createRequestParameters(
-                        String.format("{\"value\": %s}", inputValue)),
-                requestMock);
+    public void should_Return500_When_EndpointMethodThrowsIllegalAccessException() {
+        ResponseEntity<String> response = serveThrowingEndpoint(
+                new IllegalAccessException("OOPS"));
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
                 response.getStatusCode());
         String responseBody = response.getBody();
-        assertEndpointInfoPresent(responseBody);
+        assertThrowingEndpointInfoPresent(responseBody);
         assertTrue(String.format("Invalid response body: '%s'", responseBody),
-                responseBody.contains("access failure"));
-
-        verify(endpointMethodMock, times(1)).invoke(TEST_ENDPOINT, inputValue);
-        verify(endpointMethodMock, times(1)).getParameters();
+                responseBody.contains("execution failure"));
     }
 
     @Test
-    @Ignore("requires mockito version with plugin for final classes")
-    public void should_Return500_When_EndpointMethodThrowsInvocationTargetException()
-            throws Exception {
-        int inputValue = 222;
-
-        Method endpointMethodMock = createEndpointMethodMockThatThrows(
-                inputValue, new InvocationTargetException(
-                        new IllegalStateException("OOPS")));
-
-        EndpointController controller = createVaadinController(TEST_ENDPOINT);
-        controller.endpointRegistry
-                .get(TEST_ENDPOINT_NAME.toLowerCase()).methods
-                .put(TEST_METHOD.getName().toLowerCase(), endpointMethodMock);
-
-        ResponseEntity<String> response = controller.serveEndpoint(
-                TEST_ENDPOINT_NAME, TEST_METHOD.getName(),
-                createRequestParameters(
-                        String.format("{\"value\": %s}", inputValue)),
-                requestMock);
+    public void should_Return500_When_EndpointMethodThrowsIllegalStateException() {
+        ResponseEntity<String> response = serveThrowingEndpoint(
+                new IllegalStateException("OOPS"));
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
                 response.getStatusCode());
         String responseBody = response.getBody();
-        assertEndpointInfoPresent(responseBody);
+        assertThrowingEndpointInfoPresent(responseBody);
         assertTrue(String.format("Invalid response body: '%s'", responseBody),
                 responseBody.contains("execution failure"));
-
-        verify(endpointMethodMock, times(1)).invoke(TEST_ENDPOINT, inputValue);
-        verify(endpointMethodMock, times(1)).getParameters();
     }
 
     @Test
-    @Ignore("requires mockito version with plugin for final classes")
-    public void should_Return400_When_EndpointMethodThrowsVaadinConnectException()
-            throws Exception {
-        int inputValue = 222;
+    public void should_Return400_When_EndpointMethodThrowsVaadinConnectException() {
         String expectedMessage = "OOPS";
 
-        Method endpointMethodMock = createEndpointMethodMockThatThrows(
-                inputValue, new InvocationTargetException(
-                        new EndpointException(expectedMessage)));
-
-        EndpointController controller = createVaadinController(TEST_ENDPOINT);
-        controller.endpointRegistry
-                .get(TEST_ENDPOINT_NAME.toLowerCase()).methods
-                .put(TEST_METHOD.getName().toLowerCase(), endpointMethodMock);
-
-        ResponseEntity<String> response = controller.serveEndpoint(
-                TEST_ENDPOINT_NAME, TEST_METHOD.getName(),
-                createRequestParameters(
-                        String.format("{\"value\": %s}", inputValue)),
-                requestMock);
+        ResponseEntity<String> response = serveThrowingEndpoint(
+                new EndpointException(expectedMessage));
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         String responseBody = response.getBody();
@@ -822,16 +895,10 @@ public class EndpointControllerTest {
                 responseBody.contains(EndpointException.class.getName()));
         assertTrue(String.format("Invalid response body: '%s'", responseBody),
                 responseBody.contains(expectedMessage));
-
-        verify(endpointMethodMock, times(1)).invoke(TEST_ENDPOINT, inputValue);
-        verify(endpointMethodMock, times(1)).getParameters();
     }
 
     @Test
-    @Ignore("requires mockito version with plugin for final classes")
-    public void should_Return400_When_EndpointMethodThrowsVaadinConnectExceptionSubclass()
-            throws Exception {
-        int inputValue = 222;
+    public void should_Return400_When_EndpointMethodThrowsVaadinConnectExceptionSubclass() {
         String expectedMessage = "OOPS";
 
         class MyCustomException extends EndpointException {
@@ -840,20 +907,8 @@ public class EndpointControllerTest {
             }
         }
 
-        Method endpointMethodMock = createEndpointMethodMockThatThrows(
-                inputValue,
-                new InvocationTargetException(new MyCustomException()));
-
-        EndpointController controller = createVaadinController(TEST_ENDPOINT);
-        controller.endpointRegistry
-                .get(TEST_ENDPOINT_NAME.toLowerCase()).methods
-                .put(TEST_METHOD.getName().toLowerCase(), endpointMethodMock);
-
-        ResponseEntity<String> response = controller.serveEndpoint(
-                TEST_ENDPOINT_NAME, TEST_METHOD.getName(),
-                createRequestParameters(
-                        String.format("{\"value\": %s}", inputValue)),
-                requestMock);
+        ResponseEntity<String> response = serveThrowingEndpoint(
+                new MyCustomException());
 
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         String responseBody = response.getBody();
@@ -861,9 +916,6 @@ public class EndpointControllerTest {
                 responseBody.contains(MyCustomException.class.getName()));
         assertTrue(String.format("Invalid response body: '%s'", responseBody),
                 responseBody.contains(expectedMessage));
-
-        verify(endpointMethodMock, times(1)).invoke(TEST_ENDPOINT, inputValue);
-        verify(endpointMethodMock, times(1)).getParameters();
     }
 
     @Test
@@ -882,6 +934,316 @@ public class EndpointControllerTest {
                 response.getBody());
     }
 
+    @Test
+    public void should_ReturnCompletedValue_When_MethodReturnsCompletableFuture() {
+        ResponseEntity<String> response = createVaadinController(TEST_ENDPOINT)
+                .serveEndpoint(TEST_ENDPOINT_NAME, "testAsyncMethod",
+                        createRequestParameters("{\"parameter\": 222}"),
+                        requestMock);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"222-async\"", response.getBody());
+    }
+
+    @Test
+    public void should_ReturnHttpStatus_When_CompletableFutureFailsWithHttpException() {
+        ResponseEntity<String> response = createVaadinController(TEST_ENDPOINT)
+                .serveEndpoint(TEST_ENDPOINT_NAME, "throwAsyncHttpException",
+                        createRequestParameters("{}"), requestMock);
+
+        assertEquals(HttpStatus.I_AM_A_TEAPOT, response.getStatusCode());
+        assertTrue(response.getBody().contains("I'm a teapot"));
+    }
+
+    @Test
+    public void should_ServeCachedResponse_When_MethodIsCacheable() {
+        EndpointController controller = createVaadinController(
+                new CacheableTestClass());
+        var responseCache = new EndpointResponseCache();
+        controller.setResponseCache(responseCache);
+
+        ResponseEntity<String> first = controller.serveEndpoint(
+                "CacheableTestClass", "cached",
+                createRequestParameters("{\"text\": \"a\"}"), requestMock);
+        ResponseEntity<String> second = controller.serveEndpoint(
+                "CacheableTestClass", "cached",
+                createRequestParameters("{\"text\": \"a\"}"), requestMock);
+        ResponseEntity<String> other = controller.serveEndpoint(
+                "CacheableTestClass", "cached",
+                createRequestParameters("{\"text\": \"b\"}"), requestMock);
+
+        assertEquals("\"a1\"", first.getBody());
+        assertEquals("\"a1\"", second.getBody());
+        assertEquals("\"b2\"", other.getBody());
+        assertEquals(1, responseCache.getHitCount());
+        assertEquals(2, responseCache.getMissCount());
+
+        responseCache.invalidate("CacheableTestClass");
+        assertEquals("\"a3\"", controller
+                .serveEndpoint("CacheableTestClass", "cached",
+                        createRequestParameters("{\"text\": \"a\"}"),
+                        requestMock)
+                .getBody());
+    }
+
+    @Test
+    public void should_ServeReadOnlyMethodOverGet_WithETag() {
+        EndpointController controller = createVaadinController(
+                new ReadOnlyTestClass());
+        when(requestMock.getParameterMap())
+                .thenReturn(Map.of("name", new String[] { "\"foo\"" }));
+
+        ResponseEntity<String> response = controller.serveReadOnlyEndpoint(
+                "ReadOnlyTestClass", "greet", requestMock);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"Hello foo\"", response.getBody());
+        assertEquals("max-age=60", response.getHeaders().getCacheControl());
+        String eTag = response.getHeaders().getETag();
+        assertNotNull(eTag);
+
+        when(requestMock.getHeader(HttpHeaders.IF_NONE_MATCH))
+                .thenReturn("W/" + eTag);
+        ResponseEntity<String> notModified = controller.serveReadOnlyEndpoint(
+                "ReadOnlyTestClass", "greet", requestMock);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals(eTag, notModified.getHeaders().getETag());
+        assertNull(notModified.getBody());
+    }
+
+    @Test
+    public void should_RejectGet_When_MethodIsNotReadOnly() {
+        EndpointController controller = createVaadinController(
+                new ReadOnlyTestClass());
+
+        ResponseEntity<String> response = controller.serveReadOnlyEndpoint(
+                "ReadOnlyTestClass", "update", requestMock);
+
+        assertEquals(HttpStatus.METHOD_NOT_ALLOWED, response.getStatusCode());
+        assertEquals(Set.of(HttpMethod.POST),
+                response.getHeaders().getAllow());
+    }
+
+    @Test
+    public void should_ReturnBadRequest_When_ReadOnlyQueryParameterIsNotJson() {
+        EndpointController controller = createVaadinController(
+                new ReadOnlyTestClass());
+        when(requestMock.getParameterMap())
+                .thenReturn(Map.of("name", new String[] { "foo" }));
+
+        ResponseEntity<String> response = controller.serveReadOnlyEndpoint(
+                "ReadOnlyTestClass", "greet", requestMock);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void should_KeepEncodingHeader_When_ReadOnlyMethodUsesReferenceEncoding() {
+        EndpointController controller = createVaadinController(
+                new ReadOnlyTestClass());
+        EndpointProperties properties = mock(EndpointProperties.class);
+        when(properties.isReferenceEncoding()).thenReturn(true);
+        controller.setEndpointProperties(properties);
+        when(requestMock.getParameterMap())
+                .thenReturn(Map.of("name", new String[] { "\"foo\"" }));
+        when(requestMock.getHeader(EndpointReferenceEncoding.HEADER))
+                .thenReturn(EndpointReferenceEncoding.NAME);
+
+        ResponseEntity<String> response = controller.serveReadOnlyEndpoint(
+                "ReadOnlyTestClass", "greet", requestMock);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("{\"references\":[],\"value\":\"Hello foo\"}",
+                response.getBody());
+        assertEquals(EndpointReferenceEncoding.NAME, response.getHeaders()
+                .getFirst(EndpointReferenceEncoding.HEADER));
+        assertEquals(List.of(EndpointReferenceEncoding.HEADER),
+                response.getHeaders().getVary());
+
+        when(requestMock.getHeader(HttpHeaders.IF_NONE_MATCH))
+                .thenReturn(response.getHeaders().getETag());
+        ResponseEntity<String> notModified = controller.serveReadOnlyEndpoint(
+                "ReadOnlyTestClass", "greet", requestMock);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals(EndpointReferenceEncoding.NAME, notModified.getHeaders()
+                .getFirst(EndpointReferenceEncoding.HEADER));
+        assertEquals(List.of(EndpointReferenceEncoding.HEADER),
+                notModified.getHeaders().getVary());
+    }
+
+    @Test
+    public void should_WriteResponseToOutputStream_When_StreamingResponseIsEnabled()
+            throws Exception {
+        int inputValue = 222;
+        String expectedOutput = TEST_ENDPOINT.testMethod(inputValue);
+
+        EndpointController controller = createVaadinController(TEST_ENDPOINT);
+        controller.setEndpointProperties(createStreamingResponseProperties());
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<String> response = controller.serveEndpoint(
+                TEST_ENDPOINT_NAME, TEST_METHOD.getName(),
+                createRequestParameters(
+                        String.format("{\"value\": %s}", inputValue)),
+                requestMock, servletResponse);
+
+        assertNull(response);
+        assertEquals(HttpStatus.OK.value(), servletResponse.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE,
+                servletResponse.getContentType());
+        assertEquals(String.format("\"%s\"", expectedOutput),
+                servletResponse.getContentAsString());
+    }
+
+    @Test
+    public void should_ServeCborCall_When_RequestBodyIsCbor() throws Exception {
+        int inputValue = 222;
+        String expectedOutput = TEST_ENDPOINT.testMethod(inputValue);
+        var cborMapper = new CBORMapper();
+        when(requestMock.getInputStream())
+                .thenReturn(new DelegatingServletInputStream(
+                        new ByteArrayInputStream(cborMapper
+                                .writeValueAsBytes(Map.of("value", 222)))));
+
+        EndpointController controller = createVaadinController(TEST_ENDPOINT);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<byte[]> response = controller.serveCborEndpoint(
+                TEST_ENDPOINT_NAME, TEST_METHOD.getName(), requestMock,
+                servletResponse);
+
+        assertNull(response);
+        assertEquals(HttpStatus.OK.value(), servletResponse.getStatus());
+        assertEquals("application/cbor", servletResponse.getContentType());
+        assertEquals(expectedOutput, cborMapper.readValue(
+                servletResponse.getContentAsByteArray(), String.class));
+    }
+
+    @Test
+    public void should_ReturnCborErrorObject_When_CborRequestBodyIsInvalid()
+            throws Exception {
+        var cborMapper = new CBORMapper();
+        when(requestMock.getInputStream())
+                .thenReturn(new DelegatingServletInputStream(
+                        new ByteArrayInputStream(new byte[] { (byte) 0xff })));
+
+        EndpointController controller = createVaadinController(TEST_ENDPOINT);
+
+        ResponseEntity<byte[]> response = controller.serveCborEndpoint(
+                TEST_ENDPOINT_NAME, TEST_METHOD.getName(), requestMock,
+                new MockHttpServletResponse());
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(MediaType.valueOf("application/cbor"),
+                response.getHeaders().getContentType());
+        assertEquals("Unable to read the request body",
+                cborMapper.readTree(response.getBody()).get("message")
+                        .asText());
+    }
+
+    @Test
+    public void should_WriteFile_When_MethodReturnsPath() throws Exception {
+        Path file = projectFolder.newFile("download.txt").toPath();
+        Files.writeString(file, "0123456789");
+        EndpointController controller = createVaadinController(
+                new DownloadTestClass(file));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<String> response = controller.serveEndpoint(
+                "DownloadTestClass", "downloadFile",
+                createRequestParameters("{}"), requestMock, servletResponse);
+
+        assertNull(response);
+        assertEquals(HttpStatus.OK.value(), servletResponse.getStatus());
+        assertEquals(MediaType.TEXT_PLAIN_VALUE,
+                servletResponse.getContentType());
+        assertEquals(10, servletResponse.getContentLengthLong());
+        assertEquals("bytes",
+                servletResponse.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("attachment; filename=\"download.txt\"",
+                servletResponse.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("0123456789", servletResponse.getContentAsString());
+    }
+
+    @Test
+    public void should_WriteRange_When_SingleRangeIsRequested()
+            throws Exception {
+        when(requestMock.getHeader(HttpHeaders.RANGE))
+                .thenReturn("bytes=2-5");
+        EndpointController controller = createVaadinController(
+                new DownloadTestClass(null));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        controller.serveEndpoint("DownloadTestClass", "downloadResource",
+                createRequestParameters("{}"), requestMock, servletResponse);
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT.value(),
+                servletResponse.getStatus());
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                servletResponse.getContentType());
+        assertEquals("bytes 2-5/10",
+                servletResponse.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(4, servletResponse.getContentLengthLong());
+        assertEquals("2345", servletResponse.getContentAsString());
+    }
+
+    @Test
+    public void should_Return416_When_RangeIsNotSatisfiable()
+            throws Exception {
+        when(requestMock.getHeader(HttpHeaders.RANGE)).thenReturn("bytes=20-");
+        EndpointController controller = createVaadinController(
+                new DownloadTestClass(null));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        controller.serveEndpoint("DownloadTestClass", "downloadResource",
+                createRequestParameters("{}"), requestMock, servletResponse);
+
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value(),
+                servletResponse.getStatus());
+        assertEquals("bytes */10",
+                servletResponse.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, servletResponse.getContentLength());
+    }
+
+    @Test
+    public void should_WriteDownload_When_DownloadMethodIsCacheable()
+            throws Exception {
+        EndpointController controller = createVaadinController(
+                new CacheableTestClass());
+        var responseCache = new EndpointResponseCache();
+        controller.setResponseCache(responseCache);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        controller.serveEndpoint("CacheableTestClass", "cachedDownload",
+                createRequestParameters("{}"), requestMock, servletResponse);
+
+        assertEquals(HttpStatus.OK.value(), servletResponse.getStatus());
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                servletResponse.getContentType());
+        assertEquals("0123456789", servletResponse.getContentAsString());
+        assertEquals(0, responseCache.getMissCount());
+    }
+
+    @Test
+    public void should_Return500_When_StreamingResponseSerializationFails()
+            throws Exception {
+        var endpoint = new UnserializableResponseTestClass();
+        EndpointController controller = createVaadinController(endpoint);
+        controller.setEndpointProperties(createStreamingResponseProperties());
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<String> response = controller.serveEndpoint(
+                endpoint.getClass().getSimpleName(), "testMethod", null,
+                requestMock, servletResponse);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR,
+                response.getStatusCode());
+        assertTrue(response.getBody().contains("Failed to serialize"));
+        assertEquals("", servletResponse.getContentAsString());
+    }
+
     @Test
     public void should_ReturnCorrectResponse_When_EndpointClassIsProxied() {
 
@@ -1445,6 +1807,12 @@ public class EndpointControllerTest {
                 responseBody), responseBody.contains(TEST_METHOD.getName()));
     }
 
+    private EndpointProperties createStreamingResponseProperties() {
+        EndpointProperties properties = mock(EndpointProperties.class);
+        when(properties.isStreamingResponse()).thenReturn(true);
+        return properties;
+    }
+
     private ObjectNode createRequestParameters(String jsonBody) {
         return new ObjectMapper().readValue(jsonBody, ObjectNode.class);
     }
@@ -1562,19 +1930,24 @@ public class EndpointControllerTest {
         return hillaController;
     }
 
-    private Method createEndpointMethodMockThatThrows(Object argument,
-            Exception exceptionToThrow) throws Exception {
-        Method endpointMethodMock = mock(Method.class);
-        when(endpointMethodMock.invoke(TEST_ENDPOINT, argument))
-                .thenThrow(exceptionToThrow);
-        when(endpointMethodMock.getParameters())
-                .thenReturn(TEST_METHOD.getParameters());
-        doReturn(TEST_METHOD.getDeclaringClass()).when(endpointMethodMock)
-                .getDeclaringClass();
-        when(endpointMethodMock.getParameterTypes())
-                .thenReturn(TEST_METHOD.getParameterTypes());
-        when(endpointMethodMock.getName()).thenReturn(TEST_METHOD.getName());
-        return endpointMethodMock;
+    private ResponseEntity<String> serveThrowingEndpoint(
+            Exception exception) {
+        EndpointController controller = createVaadinController(
+                new ThrowingTestClass(exception));
+        return controller.serveEndpoint(
+                ThrowingTestClass.class.getSimpleName(), "testMethod",
+                createRequestParameters("{\"value\": 222}"), requestMock);
+    }
+
+    private void assertThrowingEndpointInfoPresent(String responseBody) {
+        assertTrue(String.format(
+                "Response body '%s' should have endpoint information in it",
+                responseBody),
+                responseBody.contains(
+                        ThrowingTestClass.class.getSimpleName()));
+        assertTrue(String.format(
+                "Response body '%s' should have endpoint information in it",
+                responseBody), responseBody.contains("testMethod"));
     }
 
     private ServletContext mockServletContext() {
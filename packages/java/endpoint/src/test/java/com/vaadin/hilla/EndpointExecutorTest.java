@@ -0,0 +1,194 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import com.vaadin.hilla.EndpointInvocationException.EndpointUnavailableException;
+
+public class EndpointExecutorTest {
+
+    @EndpointBulkhead(maxConcurrentCalls = 1)
+    public static class LimitedEndpoint {
+        public String first() {
+            return "first";
+        }
+
+        public String second() {
+            return "second";
+        }
+
+        @EndpointBulkhead(maxConcurrentCalls = 2)
+        public String own() {
+            return "own";
+        }
+    }
+
+    public static class UnlimitedEndpoint {
+        public String call() {
+            return "call";
+        }
+
+        public Flux<String> updates() {
+            return Flux.just("update");
+        }
+    }
+
+    private static EndpointInvocationPlan plan(Object endpoint, String name)
+            throws NoSuchMethodException {
+        return EndpointInvocationPlan
+                .create(endpoint.getClass().getMethod(name), endpoint);
+    }
+
+    @Test
+    public void should_RejectCall_When_EndpointLimitIsReached()
+            throws Exception {
+        var executor = new EndpointExecutor(false, 0, 0);
+        var endpoint = new LimitedEndpoint();
+        var running = blockCall(executor, plan(endpoint, "first"));
+
+        var exception = assertThrows(EndpointUnavailableException.class,
+                () -> executor.execute(plan(endpoint, "second"),
+                        "LimitedEndpoint", "second", () -> "second"));
+        assertEquals(503, exception.getHttpStatusCode());
+        // The method level limit is separate from the endpoint one
+        assertEquals("own", executor.execute(plan(endpoint, "own"),
+                "LimitedEndpoint", "own", () -> "own"));
+
+        running.release();
+        assertEquals("second", executor.execute(plan(endpoint, "second"),
+                "LimitedEndpoint", "second", () -> "second"));
+    }
+
+    @Test
+    public void should_ApplyDefaultLimit_When_EndpointHasNoBulkhead()
+            throws Exception {
+        var executor = new EndpointExecutor(false, 1, 0);
+        var plan = plan(new UnlimitedEndpoint(), "call");
+        var running = blockCall(executor, plan);
+
+        assertThrows(EndpointUnavailableException.class, () -> executor
+                .execute(plan, "UnlimitedEndpoint", "call", () -> "call"));
+
+        running.release();
+        assertEquals("call", executor.execute(plan, "UnlimitedEndpoint",
+                "call", () -> "call"));
+    }
+
+    @Test
+    public void should_KeepSlot_Until_AsyncResultCompletes()
+            throws Exception {
+        var executor = new EndpointExecutor(false, 0, 0);
+        var endpoint = new LimitedEndpoint();
+        var result = new CompletableFuture<Object>();
+        executor.execute(plan(endpoint, "first"), "LimitedEndpoint", "first",
+                () -> result);
+
+        assertThrows(EndpointUnavailableException.class,
+                () -> executor.execute(plan(endpoint, "second"),
+                        "LimitedEndpoint", "second", () -> "second"));
+
+        result.complete("first");
+        assertEquals("second", executor.execute(plan(endpoint, "second"),
+                "LimitedEndpoint", "second", () -> "second"));
+    }
+
+    @Test
+    public void should_RunOnVirtualThread_When_VirtualThreadsAreEnabled()
+            throws Exception {
+        var executor = new EndpointExecutor(true, 0, 0);
+        var result = executor.execute(plan(new UnlimitedEndpoint(), "call"),
+                "UnlimitedEndpoint", "call",
+                () -> Thread.currentThread().isVirtual());
+
+        assertTrue(result instanceof CompletionStage<?>);
+        assertEquals(Boolean.TRUE,
+                ((CompletionStage<?>) result).toCompletableFuture().join());
+    }
+
+    @Test
+    public void should_RunOnCallingThread_When_MethodReturnsSubscription()
+            throws Exception {
+        var executor = new EndpointExecutor(true, 0, 0);
+        var caller = Thread.currentThread();
+        var result = executor.execute(plan(new UnlimitedEndpoint(), "updates"),
+                "UnlimitedEndpoint", "updates",
+                () -> Thread.currentThread() == caller);
+
+        assertEquals(Boolean.TRUE, result);
+    }
+
+    @Test
+    public void should_ResetLimits_When_RegistryVersionChanges()
+            throws Exception {
+        var executor = new EndpointExecutor(false, 0, 0);
+        var endpoint = new LimitedEndpoint();
+        var running = blockCall(executor, plan(endpoint, "first"));
+        assertThrows(EndpointUnavailableException.class,
+                () -> executor.execute(plan(endpoint, "second"),
+                        "LimitedEndpoint", "second", () -> "second"));
+
+        executor.checkRegistryVersion(1);
+        assertEquals("second", executor.execute(plan(endpoint, "second"),
+                "LimitedEndpoint", "second", () -> "second"));
+        running.release();
+    }
+
+    /**
+     * Starts a call that keeps running until it is released.
+     */
+    private static Release blockCall(EndpointExecutor executor,
+            EndpointInvocationPlan plan) throws InterruptedException {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var thread = new Thread(() -> {
+            try {
+                executor.execute(plan, "endpoint", "method", () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return null;
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return () -> {
+            release.countDown();
+            thread.join();
+        };
+    }
+
+    @FunctionalInterface
+    private interface Release {
+        void release() throws InterruptedException;
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import org.jspecify.annotations.NonNull;
+import org.junit.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ser.std.SimpleBeanPropertyFilter;
+import tools.jackson.databind.ser.std.SimpleFilterProvider;
+
+import com.vaadin.hilla.EndpointInvocationException.EndpointBadRequestException;
+import com.vaadin.hilla.parser.jackson.JacksonObjectMapperFactory;
+
+public class EndpointFieldSelectionTest {
+
+    public record Address(String street, String city) {
+    }
+
+    public record Person(int id, String name, Address address,
+            List<Address> previousAddresses, Map<String, Address> contacts) {
+    }
+
+    public record Move(Address from, Address to) {
+    }
+
+    @JsonFilter("account")
+    public record Account(String user, String password) {
+    }
+
+    private final ObjectMapper mapper = EndpointFieldSelection
+            .createMapper(new JacksonObjectMapperFactory.Json().build());
+
+    private final Person person = new Person(1, "John",
+            new Address("Main street", "Turku"),
+            List.of(new Address("Side street", "Helsinki")),
+            Map.of("work", new Address("Office street", "Espoo")));
+
+    private String write(Object value, String fields) throws Exception {
+        return EndpointFieldSelection.parse(fields).getWriter(mapper)
+                .writeValueAsString(value);
+    }
+
+    @Test
+    public void parse_buildsTreeOfSelectedProperties() throws Exception {
+        var selection = EndpointFieldSelection
+                .parse("id, name,address.city,address.street,contacts");
+
+        assertTrue(selection.get("id").isAll());
+        assertTrue(selection.get("contacts").isAll());
+        assertTrue(selection.get("address").get("city").isAll());
+        assertNull(selection.get("previousAddresses"));
+        assertNull(selection.get("address").get("zip"));
+    }
+
+    @Test
+    public void parse_wholePropertyWinsOverNestedPaths() throws Exception {
+        assertTrue(EndpointFieldSelection.parse("address.city,address")
+                .get("address").isAll());
+    }
+
+    @Test
+    public void parse_sameExpression_returnsCachedSelection()
+            throws Exception {
+        assertSame(EndpointFieldSelection.parse("id,name"),
+                EndpointFieldSelection.parse("id,name"));
+    }
+
+    @Test
+    public void parse_emptyName_throwsBadRequest() {
+        assertThrows(EndpointBadRequestException.class,
+                () -> EndpointFieldSelection.parse("id,,name"));
+        assertThrows(EndpointBadRequestException.class,
+                () -> EndpointFieldSelection.parse("address..city"));
+    }
+
+    @Test
+    public void write_onlySelectedPropertiesAreSerialized() throws Exception {
+        assertEquals("{\"id\":1,\"address\":{\"city\":\"Turku\"}}",
+                write(person, "id,address.city"));
+    }
+
+    @Test
+    public void write_itemsShareTheSelectionOfTheirProperty()
+            throws Exception {
+        assertEquals(
+                "[{\"name\":\"John\",\"previousAddresses\":"
+                        + "[{\"city\":\"Helsinki\"}]}]",
+                write(List.of(person), "name,previousAddresses.city"));
+    }
+
+    @Test
+    public void write_mapKeysAreSelectedLikeProperties() throws Exception {
+        assertEquals("{\"contacts\":{\"work\":{\"street\":\"Office street\"}}}",
+                write(person, "contacts.work.street"));
+    }
+
+    @Test
+    public void write_sameInstance_isSelectedByItsPath() throws Exception {
+        var address = new Address("Main street", "Turku");
+
+        assertEquals(
+                "{\"from\":{\"city\":\"Turku\"},"
+                        + "\"to\":{\"street\":\"Main street\"}}",
+                write(new Move(address, address), "from.city,to.street"));
+    }
+
+    @Test
+    public void write_applicationFilters_areKept() throws Exception {
+        var filters = new SimpleFilterProvider().addFilter("account",
+                SimpleBeanPropertyFilter.serializeAllExcept("password"));
+        var filteringMapper = EndpointFieldSelection
+                .createMapper(new JacksonObjectMapperFactory.Json().build()
+                        .rebuild().filterProvider(filters).build());
+
+        assertEquals("{\"user\":\"john\"}",
+                EndpointFieldSelection.parse("user,password")
+                        .getWriter(filteringMapper).writeValueAsString(
+                                new Account("john", "secret")));
+    }
+
+    @Test
+    public void checker_onlySelectedPathsAreChecked() throws Exception {
+        var contact = new Contact();
+        contact.setPhone("123");
+        var checker = new ExplicitNullableTypeChecker();
+
+        assertNull(checker.checkValueForType(contact, Contact.class,
+                EndpointFieldSelection.parse("phone")));
+        assertTrue(checker.checkValueForType(contact, Contact.class,
+                EndpointFieldSelection.parse("email")).contains("email"));
+    }
+
+    public static class Contact {
+        @NonNull
+        private String email;
+        @NonNull
+        private String phone;
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+
+        public String getPhone() {
+            return phone;
+        }
+
+        public void setPhone(String phone) {
+            this.phone = phone;
+        }
+    }
+}
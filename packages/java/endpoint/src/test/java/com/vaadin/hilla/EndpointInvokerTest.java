@@ -16,16 +16,43 @@
 package com.vaadin.hilla;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import jakarta.servlet.ServletContext;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 
+import java.io.ByteArrayInputStream;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -42,8 +69,11 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import tools.jackson.databind.node.ObjectNode;
 
+import com.vaadin.hilla.EndpointInvocationException.EndpointBadRequestException;
 import com.vaadin.hilla.EndpointInvocationException.EndpointHttpException;
+import com.vaadin.hilla.EndpointInvocationException.EndpointInternalException;
 import com.vaadin.hilla.auth.EndpointAccessChecker;
+import com.vaadin.hilla.exception.EndpointValidationException;
 import com.vaadin.hilla.parser.jackson.JacksonObjectMapperFactory;
 
 @SpringBootTest(classes = { ServletContextTestSetup.class,
@@ -196,6 +226,140 @@ public class EndpointInvokerTest {
                 .check(any(Class.class), any(), any());
     }
 
+    @Test
+    public void invocationPlan_isCreatedOnRegistration_andReusesReaders()
+            throws Exception {
+        @Endpoint
+        class TestEndpoint {
+            public String greet(String name, int times) {
+                return name.repeat(times);
+            }
+        }
+
+        TestEndpoint test = new TestEndpoint();
+        endpointRegistry.registerEndpoint(test);
+
+        var plan = endpointRegistry.get("TestEndpoint")
+                .getInvocationPlan("greet").orElseThrow();
+        assertEquals(test.getClass().getMethod("greet", String.class,
+                int.class), plan.getMethod());
+        assertEquals(List.of("name", "times"), plan.getParameterNames());
+        assertEquals(2, plan.getParameterCount());
+        assertEquals(TestEndpoint.class, plan.getEndpointClass());
+
+        var mapper = new JacksonObjectMapperFactory.Json().build();
+        assertSame(plan.getParameterReaders(mapper),
+                plan.getParameterReaders(mapper));
+    }
+
+    @Endpoint
+    public static class StreamingEndpoint {
+        public String greet(String name, int times) {
+            return name.repeat(times);
+        }
+    }
+
+    private Object invokeStreaming(String body) throws Exception {
+        endpointRegistry.registerEndpoint(new StreamingEndpoint());
+        return endpointInvoker.invokeStreaming("StreamingEndpoint", "greet",
+                new ByteArrayInputStream(
+                        body.getBytes(StandardCharsets.UTF_8)),
+                principal, requestMock::isUserInRole);
+    }
+
+    @Test
+    public void invokeStreaming_bindsParametersByName() throws Exception {
+        assertEquals("abab", invokeStreaming("{\"times\":2,\"name\":\"ab\"}"));
+    }
+
+    @Test
+    public void invokeStreaming_unknownNames_bindsByPosition()
+            throws Exception {
+        assertEquals("abab", invokeStreaming("{\"a\":\"ab\",\"b\":2}"));
+    }
+
+    @Test
+    public void invokeStreaming_wrongParameterCount_throwsBadRequest() {
+        var ex = assertThrows(EndpointBadRequestException.class,
+                () -> invokeStreaming("{\"name\":\"ab\"}"));
+        assertEquals(400, ex.getHttpStatusCode());
+    }
+
+    @Test
+    public void invokeStreaming_invalidParameterValue_reportsParameter() {
+        var ex = assertThrows(EndpointValidationException.class,
+                () -> invokeStreaming(
+                        "{\"name\":{\"nested\":[1,2]},\"times\":2}"));
+        assertEquals(1, ex.getValidationErrorData().size());
+        assertEquals("name",
+                ex.getValidationErrorData().get(0).getParameterName());
+    }
+
+    @Test
+    public void invokeStreaming_malformedBody_throwsBadRequest() {
+        assertThrows(EndpointBadRequestException.class,
+                () -> invokeStreaming("{\"name\":"));
+    }
+
+    @Endpoint
+    public static class ValidatedEndpoint {
+        public String greet(@NotBlank String name, int times) {
+            return name.repeat(times);
+        }
+
+        public @Min(1) int count(String text) {
+            return text.length();
+        }
+
+        public String echo(String text) {
+            return text;
+        }
+    }
+
+    @Test
+    public void validationSteps_onlyIncludeConstrainedParts() {
+        endpointRegistry.registerEndpoint(new ValidatedEndpoint());
+        var endpointData = endpointRegistry.get("ValidatedEndpoint");
+        var validator = Validation.buildDefaultValidatorFactory()
+                .getValidator();
+
+        var greet = endpointData.getInvocationPlan("greet").orElseThrow()
+                .getValidationSteps(validator);
+        assertTrue(greet.parameters());
+        assertFalse(greet.returnValue());
+
+        var count = endpointData.getInvocationPlan("count").orElseThrow()
+                .getValidationSteps(validator);
+        assertFalse(count.parameters());
+        assertTrue(count.returnValue());
+
+        var echo = endpointData.getInvocationPlan("echo").orElseThrow()
+                .getValidationSteps(validator);
+        assertFalse(echo.parameters());
+        assertFalse(echo.returnValue());
+    }
+
+    @Test
+    public void prepareValidation_constraintsAreStillValidated() {
+        endpointRegistry.registerEndpoint(new ValidatedEndpoint());
+        endpointInvoker.prepareValidation(
+                endpointRegistry.get("ValidatedEndpoint"));
+
+        var ex = assertThrows(EndpointValidationException.class,
+                () -> endpointInvoker.invokeStreaming("ValidatedEndpoint",
+                        "greet",
+                        new ByteArrayInputStream("{\"name\":\" \",\"times\":1}"
+                                .getBytes(StandardCharsets.UTF_8)),
+                        principal, requestMock::isUserInRole));
+        assertEquals(1, ex.getValidationErrorData().size());
+        assertThrows(EndpointInternalException.class,
+                () -> endpointInvoker.invokeStreaming("ValidatedEndpoint",
+                        "count",
+                        new ByteArrayInputStream("{\"text\":\"\"}"
+                                .getBytes(StandardCharsets.UTF_8)),
+                        principal, requestMock::isUserInRole));
+    }
+
     static class TeapotException extends EndpointHttpException {
         TeapotException() {
             super("I'm a teapot");
@@ -228,4 +392,220 @@ public class EndpointInvokerTest {
         assertEquals("I'm a teapot", ex.getMessage());
     }
 
+    @Test
+    public void metrics_phasesAreRecordedWithRegisteredNames()
+            throws Exception {
+        var metrics = Mockito.mock(EndpointMetrics.class);
+        when(metrics.isEnabled()).thenReturn(true);
+        endpointInvoker.setMetrics(metrics);
+        endpointRegistry.registerEndpoint(new ValidatedEndpoint());
+
+        endpointInvoker.invokeStreaming("validatedendpoint", "GREET",
+                new ByteArrayInputStream("{\"name\":\"a\",\"times\":1}"
+                        .getBytes(StandardCharsets.UTF_8)),
+                principal, requestMock::isUserInRole);
+
+        for (var phase : List.of(EndpointMetrics.Phase.ACCESS_CHECK,
+                EndpointMetrics.Phase.DESERIALIZE,
+                EndpointMetrics.Phase.VALIDATION, EndpointMetrics.Phase.INVOKE,
+                EndpointMetrics.Phase.NULL_CHECK)) {
+            Mockito.verify(metrics).recordPhase(eq("ValidatedEndpoint"),
+                    eq("greet"), eq(phase), Mockito.anyLong());
+        }
+        Mockito.verify(metrics, Mockito.never()).recordError(any(), any(),
+                any());
+    }
+
+    @Test
+    public void metrics_methodFailuresAreRecordedWithTheirType() {
+        @Endpoint
+        class TestEndpoint {
+            public String sayHello() {
+                throw new IllegalStateException("Failed");
+            }
+        }
+        var metrics = Mockito.mock(EndpointMetrics.class);
+        when(metrics.isEnabled()).thenReturn(true);
+        endpointInvoker.setMetrics(metrics);
+        endpointRegistry.registerEndpoint(new TestEndpoint());
+
+        assertThrows(EndpointInternalException.class,
+                () -> endpointInvoker.invoke("TestEndpoint", "sayhello", body,
+                        principal, requestMock::isUserInRole));
+        assertThrows(EndpointBadRequestException.class,
+                () -> endpointInvoker.invoke("TestEndpoint", "sayhello",
+                        new JacksonObjectMapperFactory.Json().build()
+                                .createObjectNode().put("extra", 1),
+                        principal, requestMock::isUserInRole));
+
+        Mockito.verify(metrics).recordError("TestEndpoint", "sayHello",
+                IllegalStateException.class);
+        Mockito.verify(metrics).recordError("TestEndpoint", "sayHello",
+                EndpointBadRequestException.class);
+    }
+
+    @Test
+    public void metrics_disabled_nothingIsRecorded() throws Exception {
+        var metrics = Mockito.mock(EndpointMetrics.class);
+        endpointInvoker.setMetrics(metrics);
+
+        assertEquals("abab", invokeStreaming("{\"times\":2,\"name\":\"ab\"}"));
+
+        Mockito.verify(metrics, Mockito.never()).recordPhase(any(), any(),
+                any(), Mockito.anyLong());
+    }
+
+    @Test
+    public void tracing_spanHasPhasesAndEnds() throws Exception {
+        var tracer = Mockito.mock(EndpointTracer.class);
+        var span = Mockito.mock(EndpointTracer.Span.class);
+        when(tracer.isEnabled()).thenReturn(true);
+        when(tracer.startSpan("StreamingEndpoint", "greet")).thenReturn(span);
+        endpointInvoker.setTracer(tracer);
+
+        assertEquals("abab", invokeStreaming("{\"times\":2,\"name\":\"ab\"}"));
+
+        Mockito.verify(span).addPhase(eq(EndpointMetrics.Phase.INVOKE),
+                Mockito.anyLong(), Mockito.anyLong());
+        Mockito.verify(span, Mockito.never()).setError(any());
+        Mockito.verify(span).end();
+    }
+
+    @Test
+    public void tracing_disabledTracer_spanIgnoresCalls() {
+        var span = EndpointTracer.NONE.startSpan("StreamingEndpoint",
+                "greet");
+        span.addPhase(EndpointMetrics.Phase.INVOKE, 0, 1);
+        span.setError(new IllegalStateException("Failed"));
+        try (var scope = span.makeCurrent()) {
+            assertSame(EndpointTracer.Scope.NONE, scope);
+        }
+        span.end();
+    }
+
+    @Test
+    public void tracing_methodFailure_isSetOnSpan() {
+        @Endpoint
+        class TestEndpoint {
+            public String sayHello() {
+                throw new IllegalStateException("Failed");
+            }
+        }
+        var tracer = Mockito.mock(EndpointTracer.class);
+        var span = Mockito.mock(EndpointTracer.Span.class);
+        when(tracer.isEnabled()).thenReturn(true);
+        when(tracer.startSpan("TestEndpoint", "sayHello")).thenReturn(span);
+        endpointInvoker.setTracer(tracer);
+        endpointRegistry.registerEndpoint(new TestEndpoint());
+
+        assertThrows(EndpointInternalException.class,
+                () -> endpointInvoker.invoke("TestEndpoint", "sayHello", body,
+                        principal, requestMock::isUserInRole));
+
+        Mockito.verify(span)
+                .setError(Mockito.isA(IllegalStateException.class));
+        Mockito.verify(span).end();
+    }
+
+    @Test
+    public void tracing_spanIsParentOfSpansStartedByMethod() {
+        var exporter = InMemorySpanExporter.create();
+        var openTelemetry = OpenTelemetrySdk.builder()
+                .setTracerProvider(SdkTracerProvider.builder()
+                        .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                        .build())
+                .build();
+        @Endpoint
+        class TestEndpoint {
+            public String sayHello() {
+                openTelemetry.getTracer("test").spanBuilder("inner")
+                        .startSpan().end();
+                return "Hello";
+            }
+        }
+        endpointInvoker.setTracer(
+                new OpenTelemetryEndpointTracer(openTelemetry));
+        // The method runs on another thread than the call
+        endpointInvoker.setExecutor(new EndpointExecutor(true, 0, 0));
+        endpointRegistry.registerEndpoint(new TestEndpoint());
+
+        var request = openTelemetry.getTracer("test").spanBuilder("request")
+                .startSpan();
+        try (var scope = request.makeCurrent()) {
+            var result = (CompletionStage<?>) endpointInvoker.invoke(
+                    "TestEndpoint", "sayHello", body, principal,
+                    requestMock::isUserInRole);
+            assertEquals("Hello", result.toCompletableFuture().join());
+        } finally {
+            request.end();
+        }
+
+        var spans = exporter.getFinishedSpanItems().stream().collect(
+                Collectors.toMap(SpanData::getName, Function.identity()));
+        var endpointSpan = spans.get("TestEndpoint.sayHello");
+        assertEquals(request.getSpanContext().getSpanId(),
+                endpointSpan.getParentSpanId());
+        assertEquals(endpointSpan.getSpanId(),
+                spans.get("inner").getParentSpanId());
+    }
+
+    @Test
+    public void serverTiming_listsTheTimedPhases() {
+        var trace = new EndpointCallTrace(null, EndpointMetrics.NONE, null,
+                null, true);
+        assertNull(trace.getServerTiming());
+
+        trace.end(EndpointMetrics.Phase.INVOKE, trace.start());
+        trace.end(EndpointMetrics.Phase.DESERIALIZE, trace.start());
+
+        assertTrue(trace.getServerTiming().matches(
+                "deserialize;dur=\\d+\\.\\d{3}, invoke;dur=\\d+\\.\\d{3}"));
+        assertNull(EndpointCallTrace.NONE.getServerTiming());
+    }
+
+    @Test
+    public void flightRecorder_callEventIsRecorded() throws Exception {
+        Path file = Files.createTempFile("endpoint-call", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable(EndpointCallEvent.NAME)
+                    .withThreshold(Duration.ZERO);
+            recording.start();
+            assertEquals("abab",
+                    invokeStreaming("{\"times\":2,\"name\":\"ab\"}"));
+            recording.stop();
+            recording.dump(file);
+
+            var events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName()
+                            .equals(EndpointCallEvent.NAME))
+                    .toList();
+            assertEquals(1, events.size());
+            assertEquals("StreamingEndpoint",
+                    events.get(0).getString("endpoint"));
+            assertEquals("greet", events.get(0).getString("method"));
+            assertNull(events.get(0).getString("error"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void warmUp_walksEveryMethodOfTheEndpoints() {
+        @Endpoint
+        class GenericEndpoint {
+            public List<Map<String, Integer>> list(List<UUID> ids) {
+                return List.of();
+            }
+
+            public CompletableFuture<UUID[]> find(String name) {
+                return CompletableFuture.completedFuture(new UUID[0]);
+            }
+        }
+        endpointRegistry.registerEndpoint(new GenericEndpoint());
+        endpointRegistry.registerEndpoint(new StreamingEndpoint());
+
+        assertEquals(3, endpointInvoker
+                .warmUp(endpointRegistry.getEndpoints().values()));
+    }
+
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+public class EndpointMethodDispatcherTest {
+
+    public static class Target {
+        private int calls;
+
+        public String concat(String text, int times) {
+            calls++;
+            return text.repeat(times);
+        }
+
+        public void increment() {
+            calls++;
+        }
+
+        public int getCalls() {
+            return calls;
+        }
+
+        public static long twice(long value) {
+            return value * 2;
+        }
+
+        public String fail() {
+            throw new IllegalStateException("failure");
+        }
+    }
+
+    private static Method method(String name, Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        return Target.class.getMethod(name, parameterTypes);
+    }
+
+    @Test
+    public void dispatch_instanceMethod_returnsValue() throws Throwable {
+        var dispatcher = EndpointMethodDispatcher
+                .of(method("concat", String.class, int.class));
+        assertEquals("abab",
+                dispatcher.dispatch(new Target(), new Object[] { "ab", 2 }));
+    }
+
+    @Test
+    public void dispatch_voidMethod_returnsNull() throws Throwable {
+        var target = new Target();
+        var dispatcher = EndpointMethodDispatcher.of(method("increment"));
+        assertNull(dispatcher.dispatch(target, new Object[0]));
+        assertEquals(1, target.getCalls());
+    }
+
+    @Test
+    public void dispatch_staticMethod_ignoresTarget() throws Throwable {
+        var dispatcher = EndpointMethodDispatcher
+                .of(method("twice", long.class));
+        assertEquals(42L, dispatcher.dispatch(null, new Object[] { 21L }));
+    }
+
+    @Test
+    public void dispatch_methodThrows_exceptionIsNotWrapped()
+            throws Exception {
+        var dispatcher = EndpointMethodDispatcher.of(method("fail"));
+        var ex = assertThrows(IllegalStateException.class,
+                () -> dispatcher.dispatch(new Target(), new Object[0]));
+        assertEquals("failure", ex.getMessage());
+    }
+
+    @Test
+    public void reflective_methodThrows_exceptionIsNotWrapped()
+            throws Exception {
+        var dispatcher = EndpointMethodDispatcher.reflective(method("fail"));
+        assertThrows(IllegalStateException.class,
+                () -> dispatcher.dispatch(new Target(), new Object[0]));
+    }
+
+    @Test
+    public void suspending_withoutCoroutinesSupport_failsWhenCalled()
+            throws Exception {
+        var dispatcher = EndpointMethodDispatcher
+                .suspending(method("increment"));
+        var ex = assertThrows(IllegalStateException.class,
+                () -> dispatcher.dispatch(new Target(), new Object[0]));
+        assertTrue(ex.getMessage().contains("kotlinx-coroutines-reactor"));
+    }
+
+    @Test
+    public void acceptsArguments_checksCountTypesAndPrimitiveNulls()
+            throws Exception {
+        var plan = EndpointInvocationPlan.create(
+                method("concat", String.class, int.class), new Target());
+        assertTrue(plan.acceptsArguments(new Object[] { "a", 1 }));
+        assertTrue(plan.acceptsArguments(new Object[] { null, 1 }));
+        assertFalse(plan.acceptsArguments(new Object[] { "a", null }));
+        assertFalse(plan.acceptsArguments(new Object[] { 1, 1 }));
+        assertFalse(plan.acceptsArguments(new Object[] { "a" }));
+    }
+
+    @Test
+    public void invocationPlan_createsDispatcherOnce() throws Exception {
+        var plan = EndpointInvocationPlan.create(method("increment"),
+                new Target());
+        assertSame(plan.getDispatcher(), plan.getDispatcher());
+    }
+
+    @Test
+    public void invocationPlan_javaMethod_isNotSuspending() throws Exception {
+        var plan = EndpointInvocationPlan.create(
+                method("concat", String.class, int.class), new Target());
+        assertFalse(plan.isSuspending());
+        assertFalse(plan.isAsync());
+        assertEquals(2, plan.getParameterCount());
+        var arguments = new Object[] { "a", 1 };
+        assertSame(arguments, plan.getValidationArguments(arguments));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class EndpointMultipartStreamTest {
+    private static final String BOUNDARY = "----boundary42";
+
+    private static final String REQUEST = "preamble\r\n--" + BOUNDARY
+            + "\r\nContent-Disposition: form-data; name=\"hilla_body_part\""
+            + "\r\n\r\n{\"value\":1}\r\n--" + BOUNDARY
+            + "\r\nContent-Disposition: form-data; name=\"/first\"; filename=\"a.txt\""
+            + "\r\nContent-Type: text/plain\r\n\r\nfirst\r\n-- content\r\n--"
+            + BOUNDARY
+            + "\r\nContent-Disposition: form-data; name=\"/second\"; filename=\"b.txt\""
+            + "\r\n\r\nsecond content\r\n--" + BOUNDARY + "--\r\n";
+
+    /**
+     * Returns at most a few bytes per read, so that the delimiters are split
+     * between reads.
+     */
+    private static InputStream slowStream(String content) {
+        return new ByteArrayInputStream(
+                content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] bytes, int offset,
+                    int length) {
+                return super.read(bytes, offset, Math.min(length, 3));
+            }
+        };
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void should_ReadPartsInOrder() throws IOException {
+        var parts = new EndpointMultipartStream(slowStream(REQUEST), BOUNDARY,
+                -1);
+
+        assertEquals("hilla_body_part", parts.nextPart());
+        assertEquals("{\"value\":1}", read(parts.getPart()));
+        assertEquals("/first", parts.nextPart());
+        assertEquals("first\r\n-- content", read(parts.getPart()));
+        assertEquals("/second", parts.nextPart());
+        assertEquals("second content", read(parts.getPart()));
+        assertNull(parts.nextPart());
+    }
+
+    @Test
+    public void should_SkipUnreadParts_When_OpeningPart() throws IOException {
+        var parts = new EndpointMultipartStream(slowStream(REQUEST), BOUNDARY,
+                -1);
+        parts.nextPart();
+        InputStream first = parts.openPart("/first", -1);
+        InputStream second = parts.openPart("/second", -1);
+
+        assertEquals("second content", read(second));
+        assertThrows(IOException.class, () -> read(first));
+    }
+
+    @Test
+    public void should_FailReading_When_PartIsMissing() throws IOException {
+        var parts = new EndpointMultipartStream(slowStream(REQUEST), BOUNDARY,
+                -1);
+        parts.nextPart();
+
+        assertThrows(IOException.class,
+                () -> read(parts.openPart("/third", -1)));
+    }
+
+    @Test
+    public void should_FailReading_When_PartIsTooLarge() throws IOException {
+        var parts = new EndpointMultipartStream(slowStream(REQUEST), BOUNDARY,
+                -1);
+        parts.nextPart();
+
+        assertEquals("first\r\n-- content",
+                read(parts.openPart("/first", 17)));
+        assertThrows(EndpointMultipartStream.SizeLimitExceededException.class,
+                () -> read(parts.openPart("/second", 10)));
+    }
+
+    @Test
+    public void should_FailReading_When_RequestIsTooLarge()
+            throws IOException {
+        var parts = new EndpointMultipartStream(slowStream(REQUEST), BOUNDARY,
+                20);
+        parts.nextPart();
+        read(parts.getPart());
+
+        assertThrows(EndpointMultipartStream.SizeLimitExceededException.class,
+                () -> read(parts.openPart("/first", -1)));
+    }
+
+    @Test
+    public void should_FailReading_When_RequestIsTruncated()
+            throws IOException {
+        var parts = new EndpointMultipartStream(
+                slowStream(REQUEST.substring(0, REQUEST.indexOf("first\r\n")
+                        + 3)),
+                BOUNDARY, -1);
+        parts.nextPart();
+
+        assertThrows(IOException.class,
+                () -> read(parts.openPart("/first", -1)));
+    }
+
+    @Test
+    public void should_GetBoundary_FromContentType() {
+        assertEquals(BOUNDARY, EndpointMultipartStream
+                .getBoundary("multipart/form-data; boundary=" + BOUNDARY));
+        assertNull(EndpointMultipartStream.getBoundary("multipart/form-data"));
+    }
+}
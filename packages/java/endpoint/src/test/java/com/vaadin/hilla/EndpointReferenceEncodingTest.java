@@ -0,0 +1,125 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import tools.jackson.databind.ObjectMapper;
+
+import com.vaadin.hilla.parser.jackson.JacksonObjectMapperFactory;
+
+public class EndpointReferenceEncodingTest {
+
+    public record Customer(String name) {
+    }
+
+    public record Order(int id, Customer customer) {
+    }
+
+    public static class Node {
+        private final String name;
+        private final List<Node> links = new ArrayList<>();
+
+        public Node(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<Node> getLinks() {
+            return links;
+        }
+    }
+
+    private final ObjectMapper mapper = EndpointReferenceEncoding
+            .createMapper(new JacksonObjectMapperFactory.Json().build());
+
+    @Test
+    public void sharedInstances_areWrittenOnce() {
+        var acme = new Customer("Acme");
+        var orders = List.of(new Order(1, acme), new Order(2, acme),
+                new Order(3, new Customer("Other")));
+
+        assertEquals("{\"references\":[{\"name\":\"Acme\"}],\"value\":["
+                + "{\"id\":1,\"customer\":{\"@ref\":0}},"
+                + "{\"id\":2,\"customer\":{\"@ref\":0}},"
+                + "{\"id\":3,\"customer\":{\"name\":\"Other\"}}]}",
+                mapper.writeValueAsString(
+                        EndpointReferenceEncoding.wrap(orders)));
+    }
+
+    @Test
+    public void equalInstances_areNotShared() {
+        var orders = List.of(new Order(1, new Customer("Acme")),
+                new Order(2, new Customer("Acme")));
+
+        assertEquals("{\"references\":[],\"value\":["
+                + "{\"id\":1,\"customer\":{\"name\":\"Acme\"}},"
+                + "{\"id\":2,\"customer\":{\"name\":\"Acme\"}}]}",
+                mapper.writeValueAsString(
+                        EndpointReferenceEncoding.wrap(orders)));
+    }
+
+    @Test
+    public void cycles_areReferences() {
+        var first = new Node("first");
+        var second = new Node("second");
+        first.getLinks().add(second);
+        second.getLinks().add(first);
+
+        var json = mapper.readTree(mapper
+                .writeValueAsString(EndpointReferenceEncoding.wrap(first)));
+
+        assertEquals(1, json.get("references").size());
+        assertEquals(0, json.at("/value/@ref").asInt());
+        assertEquals("first", json.at("/references/0/name").asText());
+        assertEquals("second",
+                json.at("/references/0/links/0/name").asText());
+        assertEquals(0, json.at("/references/0/links/0/links/0/@ref").asInt());
+    }
+
+    @Test
+    public void unwrappedValues_areWrittenAsUsual() {
+        var acme = new Customer("Acme");
+        var orders = List.of(new Order(1, acme), new Order(2, acme));
+
+        assertEquals(
+                "[{\"id\":1,\"customer\":{\"name\":\"Acme\"}},"
+                        + "{\"id\":2,\"customer\":{\"name\":\"Acme\"}}]",
+                mapper.writeValueAsString(orders));
+        assertNull(EndpointReferenceEncoding.wrap(null));
+    }
+
+    @Test
+    public void isAccepted_checksTheHeader() {
+        var request = new MockHttpServletRequest();
+        assertFalse(EndpointReferenceEncoding.isAccepted(request));
+
+        request.addHeader(EndpointReferenceEncoding.HEADER,
+                EndpointReferenceEncoding.NAME);
+        assertTrue(EndpointReferenceEncoding.isAccepted(request));
+    }
+}
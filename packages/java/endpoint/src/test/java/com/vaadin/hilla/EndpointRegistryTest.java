@@ -0,0 +1,101 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class EndpointRegistryTest {
+
+    @Endpoint
+    public static class FirstEndpoint {
+        public String greet() {
+            return "Hello";
+        }
+    }
+
+    @Endpoint
+    public static class SecondEndpoint {
+        public String greet() {
+            return "Hi";
+        }
+    }
+
+    private final EndpointRegistry registry = new EndpointRegistry(
+            new EndpointNameChecker());
+
+    @Test
+    public void registerEndpoints_replacesRegisteredEndpoints() {
+        registry.registerEndpoints(List.of(new FirstEndpoint()));
+        registry.registerEndpoints(List.of(new SecondEndpoint()));
+
+        assertNull(registry.get("FirstEndpoint"));
+        assertNotNull(registry.get("SecondEndpoint"));
+        assertEquals(1, registry.getEndpoints().size());
+    }
+
+    @Test
+    public void registerEndpoints_changesVersion() {
+        long version = registry.getVersion();
+
+        registry.registerEndpoints(List.of(new FirstEndpoint()));
+        assertEquals(version + 1, registry.getVersion());
+
+        registry.registerEndpoint(new SecondEndpoint());
+        assertEquals(version + 2, registry.getVersion());
+    }
+
+    @Test
+    public void registerEndpoints_previousEndpointsAreNotModified() {
+        registry.registerEndpoints(List.of(new FirstEndpoint()));
+        var endpoints = registry.getEndpoints();
+
+        registry.registerEndpoints(List.of(new SecondEndpoint()));
+
+        assertEquals(1, endpoints.size());
+        assertTrue(endpoints.containsKey("firstendpoint"));
+    }
+
+    @Test
+    public void getEndpoints_cannotBeModified() {
+        registry.registerEndpoints(List.of(new FirstEndpoint()));
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> registry.getEndpoints().clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> registry.get("FirstEndpoint").getMethods().clear());
+    }
+
+    @Test
+    public void getRoute_namesAreNotCaseSensitive() {
+        registry.registerEndpoints(List.of(new FirstEndpoint()));
+
+        var route = registry.getRoute("FIRSTENDPOINT", "Greet");
+        assertNotNull(route);
+        assertSame(registry.get("firstendpoint"), route.getEndpointData());
+        assertEquals("greet", route.getPlan().getMethod().getName());
+        assertNull(registry.getRoute("FirstEndpoint", "missing"));
+        assertNull(registry.getRoute("MissingEndpoint", "greet"));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+public class EndpointResponseCacheTest {
+
+    public static class CachedEndpoint {
+        @EndpointCacheable
+        public String shared(String first, String second) {
+            return first + second;
+        }
+
+        @EndpointCacheable(scope = EndpointCacheable.Scope.PRINCIPAL)
+        public String personal() {
+            return "personal";
+        }
+
+        @EndpointCacheable(ttl = 0, timeUnit = TimeUnit.MILLISECONDS)
+        public String expired() {
+            return "expired";
+        }
+
+        @EndpointCacheable(maxEntries = 1)
+        public String single(String value) {
+            return value;
+        }
+
+        public String notCached() {
+            return "notCached";
+        }
+    }
+
+    private final EndpointResponseCache cache = new EndpointResponseCache();
+    private final CachedEndpoint endpoint = new CachedEndpoint();
+
+    private EndpointInvocationPlan plan(String name) {
+        return EndpointInvocationPlan.create(
+                Arrays.stream(CachedEndpoint.class.getMethods())
+                        .filter(method -> method.getName().equals(name))
+                        .findFirst().orElseThrow(),
+                endpoint);
+    }
+
+    private EndpointResponseCache.Key key(String method, String body,
+            Principal principal) {
+        ObjectNode params = body == null ? null
+                : new ObjectMapper().readValue(body, ObjectNode.class);
+        return cache.createKey("CachedEndpoint", method, plan(method), params,
+                principal);
+    }
+
+    @Test
+    public void isCacheable_onlyForAnnotatedMethods() {
+        assertTrue(cache.isCacheable(plan("shared")));
+        assertFalse(cache.isCacheable(plan("notCached")));
+    }
+
+    @Test
+    public void createKey_nestedPropertyOrderIsIgnored() {
+        assertEquals(
+                key("shared", "{\"first\": {\"a\": 1, \"b\": 2}, "
+                        + "\"second\": null}", null),
+                key("shared", "{\"first\": {\"b\": 2, \"a\": 1}, "
+                        + "\"second\": null}", null));
+    }
+
+    @Test
+    public void createKey_principalScope_separatesUsers() {
+        Principal alice = () -> "alice";
+        Principal bob = () -> "bob";
+        assertNotEquals(key("personal", null, alice).value(),
+                key("personal", null, bob).value());
+        assertEquals("cachedendpoint.personal{}#alice",
+                key("personal", null, alice).value());
+    }
+
+    @Test
+    public void get_returnsCachedResponse_andCountsHitsAndMisses() {
+        var key = key("shared", "{\"first\": \"a\", \"second\": \"b\"}",
+                null);
+        assertNull(cache.get(key));
+        cache.put(key, "\"ab\"");
+        assertEquals("\"ab\"", cache.get(key));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void get_expiredResponse_isNotReturned() {
+        var key = key("expired", null, null);
+        cache.put(key, "\"expired\"");
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void checkRegistryVersion_newVersion_removesCachedResponses() {
+        var key = key("shared", "{\"first\": \"a\", \"second\": \"b\"}",
+                null);
+        cache.checkRegistryVersion(1);
+        cache.put(key, "\"ab\"");
+
+        cache.checkRegistryVersion(1);
+        assertEquals("\"ab\"", cache.get(key));
+
+        cache.checkRegistryVersion(2);
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void put_fullRegion_evictsLeastRecentlyUsed() {
+        var first = key("single", "{\"value\": \"1\"}", null);
+        var second = key("single", "{\"value\": \"2\"}", null);
+        cache.put(first, "\"1\"");
+        cache.put(second, "\"2\"");
+        assertNull(cache.get(first));
+        assertEquals("\"2\"", cache.get(second));
+    }
+
+    @Test
+    public void invalidate_removesResponsesOfEndpointOrPrefix() {
+        var shared = key("shared", "{\"first\": \"a\", \"second\": \"b\"}",
+                null);
+        var single1 = key("single", "{\"value\": \"1\"}", null);
+        cache.put(shared, "\"ab\"");
+        cache.put(single1, "\"1\"");
+
+        cache.invalidateByKeyPrefix("cachedendpoint.single{\"value\":\"1");
+        assertNull(cache.get(single1));
+        assertEquals("\"ab\"", cache.get(shared));
+
+        cache.invalidate("CachedEndpoint");
+        assertNull(cache.get(shared));
+    }
+}
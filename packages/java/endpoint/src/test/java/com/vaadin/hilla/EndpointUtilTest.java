@@ -15,6 +15,7 @@
  */
 package com.vaadin.hilla;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
@@ -126,6 +127,23 @@ public class EndpointUtilTest {
                 expected, endpointUtil.isAnonymousEndpoint(request));
     }
 
+    @Test
+    public void batchRequest_isEndpointRequest() {
+        testPath("/connect/batch", true);
+    }
+
+    @Test
+    public void batchRequest_isNotAnonymousEndpoint() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST",
+                "/connect/batch");
+        request.setContentType("application/json");
+        // Even a batch of anonymous calls needs the authenticated rules
+        String calls = "[{\"endpoint\":\"AnonymousAllowedEndpoint\","
+                + "\"method\":\"anonymousAllowed\"}]";
+        request.setContent(calls.getBytes(StandardCharsets.UTF_8));
+        Assert.assertFalse(endpointUtil.isAnonymousEndpoint(request));
+    }
+
     @Test
     public void nonEndpointRequest() {
         testPath("/", false);
@@ -134,6 +152,33 @@ public class EndpointUtilTest {
         testPath("/foo/bar", false);
     }
 
+    @Test
+    public void endpointRequest_routeIsKeptInRequestAttribute() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/connect/AnonymousAllowedEndpoint/permitAll");
+
+        Assert.assertTrue(endpointUtil.isEndpointRequest(request));
+        Object route = request.getAttribute(EndpointRoute.ATTRIBUTE);
+        Assert.assertTrue(route instanceof EndpointRoute);
+        Assert.assertTrue(((EndpointRoute) route)
+                .matches("AnonymousAllowedEndpoint", "permitAll"));
+
+        // The path is not parsed again
+        request.setRequestURI("/foo/bar");
+        Assert.assertTrue(endpointUtil.isEndpointRequest(request));
+        Assert.assertSame(route, request.getAttribute(EndpointRoute.ATTRIBUTE));
+    }
+
+    @Test
+    public void nonEndpointRequest_routeIsKeptInRequestAttribute() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRequestURI("/foo/bar");
+
+        Assert.assertFalse(endpointUtil.isEndpointRequest(request));
+        Assert.assertSame(EndpointRoute.NONE,
+                request.getAttribute(EndpointRoute.ATTRIBUTE));
+    }
+
     private void testPath(String path, boolean expected) {
         MockHttpServletRequest request = new MockHttpServletRequest() {
             @Override
@@ -466,6 +466,51 @@ public class ExplicitNullableTypeCheckerTest {
                 .checkValueForType(nonNullableEntity, NonNullableEntity.class));
     }
 
+    @Test
+    public void should_NotCallEqualsOrHashCode_When_CheckingCyclicBeans() {
+        Node first = new Node();
+        Node second = new Node();
+        first.setNext(second);
+        second.setNext(first);
+
+        Assert.assertNull(explicitNullableTypeChecker.checkValueForType(first,
+                Node.class));
+    }
+
+    @Test
+    public void should_ReuseCompiledCheck_When_CheckingSameType() {
+        Assert.assertSame(ExplicitNullableTypeCheck.of(Bean.class),
+                ExplicitNullableTypeCheck.of(Bean.class));
+        Assert.assertSame(ExplicitNullableTypeCheck.of(stringListType),
+                ExplicitNullableTypeCheck.of(stringListType));
+        Assert.assertEquals(List.of("title"),
+                ExplicitNullableTypeCheck.of(Bean.class).getBeanProperties()
+                        .stream()
+                        .map(ExplicitNullableTypeCheck.BeanProperty::getName)
+                        .toList());
+    }
+
+    @Test
+    public void should_SkipCheck_When_SampleRateIsZero()
+            throws NoSuchMethodException {
+        explicitNullableTypeChecker = new ExplicitNullableTypeChecker(0, true);
+
+        Assert.assertNull(explicitNullableTypeChecker
+                .checkValueForAnnotatedElement(null,
+                        getClass().getMethod("stringNonnull"), false));
+    }
+
+    @Test
+    public void should_Check_When_NotInProductionMode()
+            throws NoSuchMethodException {
+        explicitNullableTypeChecker = new ExplicitNullableTypeChecker(1,
+                false);
+
+        Assert.assertNotNull(explicitNullableTypeChecker
+                .checkValueForAnnotatedElement(null,
+                        getClass().getMethod("stringNonnull"), false));
+    }
+
     public List<String> parametrizedListMethod(String... args) {
         final List<String> list = new ArrayList<String>();
         for (String arg : args) {
@@ -531,6 +576,29 @@ public class ExplicitNullableTypeCheckerTest {
         }
     }
 
+    static private class Node {
+        @NonNull
+        private Node next;
+
+        public Node getNext() {
+            return next;
+        }
+
+        public void setNext(Node next) {
+            this.next = next;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int hashCode() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     static private abstract class AbstractEntity<ID> {
         private ID id;
 
@@ -65,6 +65,7 @@ public class HillaStatsTest {
     @After
     public void cleanupVersions() throws Exception {
         UsageStatistics.resetEntries();
+        HillaStats.resetEndpointActive();
         final Field memoizedHillaVersionField = Platform.class
                 .getDeclaredField("hillaVersion");
         memoizedHillaVersionField.setAccessible(true);
@@ -496,6 +497,21 @@ public class HillaStatsTest {
         }
     }
 
+    @Test
+    public void when_reportEndpointActive_isCalledAgain_nothingIsReported() {
+        try (MockedStatic<Platform> mockedStaticPlatform = mockStatic(
+                Platform.class)) {
+            mockedStaticPlatform.when(Platform::getHillaVersion)
+                    .thenReturn(Optional.of("24.4.0"));
+            HillaStats.reportEndpointActive();
+            UsageStatistics.resetEntries();
+            HillaStats.reportEndpointActive();
+            assertNull(getEntries().get(ENDPOINT_ACTIVE));
+            mockedStaticPlatform.verify(Platform::getHillaVersion,
+                    Mockito.times(1));
+        }
+    }
+
     private static Map<String, String> getEntries() {
         return UsageStatistics.getEntries()
                 .collect(Collectors.toMap(UsageStatistics.UsageEntry::getName,
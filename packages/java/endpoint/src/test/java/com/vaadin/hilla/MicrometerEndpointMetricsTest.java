@@ -0,0 +1,101 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationContext;
+
+public class MicrometerEndpointMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerEndpointMetrics metrics = new MicrometerEndpointMetrics(
+            registry);
+
+    @Test
+    public void recordPhase_updatesTimerOfPhase() {
+        metrics.recordPhase("MyEndpoint", "greet",
+                EndpointMetrics.Phase.INVOKE, 2_000_000);
+        metrics.recordPhase("MyEndpoint", "greet",
+                EndpointMetrics.Phase.INVOKE, 4_000_000);
+        metrics.recordPhase("MyEndpoint", "greet",
+                EndpointMetrics.Phase.SERIALIZE, 1_000_000);
+
+        var invoke = registry.get(MicrometerEndpointMetrics.PHASE)
+                .tags("endpoint", "MyEndpoint", "method", "greet", "phase",
+                        "invoke")
+                .timer();
+        assertEquals(2, invoke.count());
+        assertEquals(6, invoke.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, registry.get(MicrometerEndpointMetrics.PHASE)
+                .tag("phase", "serialize").timer().count());
+    }
+
+    @Test
+    public void recordSizes_updatesDistributions() {
+        metrics.recordRequestSize("MyEndpoint", "greet", 100);
+        metrics.recordResponseSize("MyEndpoint", "greet", 300);
+        metrics.recordResponseSize("MyEndpoint", "greet", 500);
+
+        assertEquals(100,
+                registry.get(MicrometerEndpointMetrics.REQUEST_SIZE)
+                        .tags("endpoint", "MyEndpoint", "method", "greet")
+                        .summary().totalAmount(),
+                0);
+        var responseSize = registry
+                .get(MicrometerEndpointMetrics.RESPONSE_SIZE).summary();
+        assertEquals(2, responseSize.count());
+        assertEquals(500, responseSize.max(), 0);
+    }
+
+    @Test
+    public void recordError_countsByExceptionType() {
+        metrics.recordError("MyEndpoint", "greet",
+                IllegalStateException.class);
+        metrics.recordError("MyEndpoint", "greet",
+                IllegalStateException.class);
+        metrics.recordError("MyEndpoint", "greet",
+                IllegalArgumentException.class);
+
+        assertEquals(2, registry.get(MicrometerEndpointMetrics.ERRORS)
+                .tag("exception", "IllegalStateException").counter().count(),
+                0);
+        assertEquals(1, registry.get(MicrometerEndpointMetrics.ERRORS)
+                .tag("exception", "IllegalArgumentException").counter()
+                .count(), 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void create_withoutRegistry_returnsNone() {
+        var applicationContext = Mockito.mock(ApplicationContext.class);
+        ObjectProvider<MeterRegistry> provider = Mockito
+                .mock(ObjectProvider.class);
+        Mockito.when(applicationContext.getBeanProvider(MeterRegistry.class))
+                .thenReturn(provider);
+
+        assertSame(EndpointMetrics.NONE,
+                MicrometerEndpointMetrics.create(applicationContext));
+    }
+}
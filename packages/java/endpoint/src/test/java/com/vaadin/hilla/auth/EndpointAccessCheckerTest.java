@@ -18,8 +18,11 @@ package com.vaadin.hilla.auth;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import jakarta.annotation.security.DenyAll;
@@ -30,6 +33,8 @@ import jakarta.servlet.http.HttpServletRequest;
 
 import java.lang.reflect.Method;
 import java.security.Principal;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -492,4 +497,88 @@ public class EndpointAccessCheckerTest {
         assertAccessGranted(Test.class, "test");
     }
 
+    @Test
+    public void should_CompileAccessRules_When_DefaultAnnotationCheckerIsUsed()
+            throws Exception {
+        class Test {
+            @AnonymousAllowed
+            public void anonymous() {
+            }
+
+            @PermitAll
+            public void authenticated() {
+            }
+
+            @RolesAllowed({ "ADMIN", ROLE_USER })
+            @PermitAll
+            public void roles() {
+            }
+
+            @DenyAll
+            @AnonymousAllowed
+            public void denyAll() {
+            }
+
+            public void notAnnotated() {
+            }
+        }
+
+        assertEquals(EndpointAccessRule.Kind.ANONYMOUS, checker
+                .getAccessRule(Test.class.getMethod("anonymous")).getKind());
+        assertEquals(EndpointAccessRule.Kind.AUTHENTICATED,
+                checker.getAccessRule(Test.class.getMethod("authenticated"))
+                        .getKind());
+        EndpointAccessRule roles = checker
+                .getAccessRule(Test.class.getMethod("roles"));
+        assertEquals(EndpointAccessRule.Kind.ROLES, roles.getKind());
+        assertEquals(Set.of("ADMIN", ROLE_USER), roles.getRoles());
+        assertEquals(EndpointAccessRule.Kind.DENY_ALL, checker
+                .getAccessRule(Test.class.getMethod("denyAll")).getKind());
+        assertEquals(EndpointAccessRule.Kind.DENY_ALL,
+                checker.getAccessRule(Test.class.getMethod("notAnnotated"))
+                        .getKind());
+        assertSame(checker.getAccessRule(Test.class.getMethod("roles")),
+                roles);
+    }
+
+    @Test
+    public void should_CallAnnotationChecker_When_ItIsCustomized()
+            throws Exception {
+        class Test {
+            public void test() {
+            }
+        }
+        AccessAnnotationChecker custom = new AccessAnnotationChecker() {
+            @Override
+            public boolean hasAccess(Method method, Principal principal,
+                    Function<String, Boolean> roleChecker) {
+                return principal != null;
+            }
+        };
+        checker = new EndpointAccessChecker(custom);
+        Method method = Test.class.getMethod("test");
+
+        assertNull(checker.getAccessRule(method));
+        assertAccessGranted(Test.class, "test");
+    }
+
+    @Test
+    public void should_CheckEachRoleOnce_When_UsingPrincipalSnapshot()
+            throws Exception {
+        class Test {
+            @RolesAllowed(ROLE_USER)
+            public void test() {
+            }
+        }
+        Method method = Test.class.getMethod("test");
+        PrincipalSnapshot user = PrincipalSnapshot.of(requestMock);
+
+        assertSame(user, PrincipalSnapshot.of(requestMock));
+        assertNull(checker.check(method, user.getPrincipal(),
+                user.getRolesChecker()));
+        assertNull(checker.check(method, user.getPrincipal(),
+                user.getRolesChecker()));
+        verify(requestMock, times(1)).isUserInRole(ROLE_USER);
+    }
+
 }
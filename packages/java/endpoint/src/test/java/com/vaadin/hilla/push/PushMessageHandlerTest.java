@@ -15,6 +15,8 @@
  */
 package com.vaadin.hilla.push;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
@@ -25,6 +27,8 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
 import net.jcip.annotations.NotThreadSafe;
 import org.junit.After;
 import org.junit.Assert;
@@ -166,6 +170,45 @@ public class PushMessageHandlerTest {
         return Flux.error(new RuntimeException("Intentional error"));
     }
 
+    @Test
+    public void flightRecorder_messageEventsAreRecorded() throws Exception {
+        Path file = Files.createTempFile("push-message", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable(PushMessageEvent.NAME)
+                    .withThreshold(Duration.ZERO);
+            recording.start();
+            var completed = new CompletableFuture<Void>();
+            pushMessageHandler.handleMessage(connectionId,
+                    createFluxSubscribe(), msg -> {
+                        if (msg instanceof ClientMessageComplete) {
+                            completed.complete(null);
+                        } else if (!(msg instanceof ClientMessageUpdate)) {
+                            unexpectedMessages.add(msg);
+                        }
+                    });
+            completed.get(2, TimeUnit.SECONDS);
+            recording.stop();
+            recording.dump(file);
+
+            var events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName()
+                            .equals(PushMessageEvent.NAME))
+                    .toList();
+            Assert.assertEquals(List.of(PushMessageEvent.COMPLETE,
+                    PushMessageEvent.SUBSCRIBE, PushMessageEvent.UPDATE),
+                    events.stream()
+                            .map(event -> event.getString("messageType"))
+                            .sorted().toList());
+            for (var event : events) {
+                Assert.assertEquals(ENDPOINT_NAME,
+                        event.getString("endpoint"));
+                Assert.assertEquals(FLUX_METHOD, event.getString("method"));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
     @Test
     public void fluxSubscription_canSubscribe() {
         Assert.assertEquals(0, pushMessageHandler.fluxSubscriptionInfos
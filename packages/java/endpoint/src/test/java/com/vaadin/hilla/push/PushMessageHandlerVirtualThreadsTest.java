@@ -0,0 +1,104 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla.push;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jackson.autoconfigure.JacksonProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import reactor.core.publisher.Flux;
+import tools.jackson.databind.ObjectMapper;
+
+import com.vaadin.flow.server.auth.AnonymousAllowed;
+import com.vaadin.hilla.Endpoint;
+import com.vaadin.hilla.EndpointController;
+import com.vaadin.hilla.EndpointControllerConfiguration;
+import com.vaadin.hilla.EndpointProperties;
+import com.vaadin.hilla.ServletContextTestSetup;
+import com.vaadin.hilla.push.messages.fromclient.SubscribeMessage;
+import com.vaadin.hilla.push.messages.toclient.ClientMessageError;
+import com.vaadin.hilla.push.messages.toclient.ClientMessageUpdate;
+
+@SpringBootTest(classes = { PushMessageHandler.class,
+        ServletContextTestSetup.class, EndpointProperties.class,
+        JacksonProperties.class, ObjectMapper.class, EndpointController.class,
+        PushMessageHandlerVirtualThreadsTest.FluxEndpoint.class })
+@ContextConfiguration(classes = { EndpointControllerConfiguration.class })
+@RunWith(SpringRunner.class)
+@TestPropertySource(properties = {
+        "com.vaadin.hilla.FeatureFlagCondition.alwaysEnable=true",
+        "vaadin.endpoint.virtual-threads=true" })
+public class PushMessageHandlerVirtualThreadsTest {
+
+    @Endpoint
+    @AnonymousAllowed
+    public static class FluxEndpoint {
+        public Flux<String> greetings() {
+            return Flux.just("Hello");
+        }
+    }
+
+    @Autowired
+    private PushMessageHandler pushMessageHandler;
+
+    @Autowired
+    private EndpointController endpointController;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String connectionId;
+
+    @Before
+    public void setup() {
+        endpointController.registerEndpoints();
+        connectionId = UUID.randomUUID().toString();
+        pushMessageHandler.handleBrowserConnect(connectionId);
+    }
+
+    @Test
+    public void fluxSubscription_receivesMessage_When_VirtualThreadsAreEnabled()
+            throws Exception {
+        var message = new SubscribeMessage();
+        message.setId(UUID.randomUUID().toString());
+        message.setEndpointName("FluxEndpoint");
+        message.setMethodName("greetings");
+        message.setParams(objectMapper.createArrayNode());
+        var update = new CompletableFuture<ClientMessageUpdate>();
+        pushMessageHandler.handleMessage(connectionId, message, msg -> {
+            if (msg instanceof ClientMessageUpdate clientMessageUpdate) {
+                update.complete(clientMessageUpdate);
+            } else if (msg instanceof ClientMessageError error) {
+                update.completeExceptionally(
+                        new AssertionError(error.getMessage()));
+            }
+        });
+
+        var clientMessage = update.get(2, TimeUnit.SECONDS);
+        Assert.assertEquals(message.getId(), clientMessage.getId());
+        Assert.assertEquals("Hello", clientMessage.getItem());
+    }
+}
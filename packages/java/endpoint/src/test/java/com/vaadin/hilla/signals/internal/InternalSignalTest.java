@@ -0,0 +1,124 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla.signals.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import org.mockito.Mockito;
+import tools.jackson.databind.ObjectMapper;
+
+import com.vaadin.flow.signals.Id;
+import com.vaadin.flow.signals.shared.SharedNumberSignal;
+import com.vaadin.flow.signals.shared.SignalUtils;
+
+public class InternalSignalTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void flightRecorder_commandEventsAreRecorded() throws Exception {
+        var numberSignal = new SharedNumberSignal(10.0);
+        var internalSignal = new InternalSignal(numberSignal, mapper);
+        internalSignal.subscribe("clientId").subscribe();
+        var setCommand = mapper.createObjectNode()
+                .put("commandId", Id.random().asBase64())
+                .put("targetNodeId", numberSignal.id().asBase64())
+                .put("@type", "set").put("value", 42);
+
+        Path file = Files.createTempFile("signal-command", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable(SignalCommandEvent.NAME)
+                    .withThreshold(Duration.ZERO);
+            recording.start();
+            internalSignal.submit("clientId", setCommand);
+            recording.stop();
+            recording.dump(file);
+
+            var events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName()
+                            .equals(SignalCommandEvent.NAME))
+                    .toList();
+            assertEquals(2, events.size());
+            for (var event : events) {
+                assertEquals(SharedNumberSignal.class.getName(),
+                        event.getString("signal"));
+                assertEquals(mapper.writeValueAsBytes(setCommand).length,
+                        event.getLong("payloadSize"));
+                assertEquals(1, event.getInt("subscribers"));
+            }
+            assertEquals(1, events.stream()
+                    .filter(event -> SignalCommandEvent.SUBMIT
+                            .equals(event.getString("operation")))
+                    .count());
+            assertEquals(1, events.stream()
+                    .filter(event -> SignalCommandEvent.BROADCAST
+                            .equals(event.getString("operation")))
+                    .count());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void flightRecorder_commandIsSerializedWithoutTheLock()
+            throws Exception {
+        var numberSignal = new SharedNumberSignal(10.0);
+        var lock = SignalUtils.treeOf(numberSignal).getLock();
+        var spiedMapper = Mockito.spy(mapper);
+        List<Boolean> lockedWhenSerialized = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            // Another thread can take the lock only if it is not held here
+            boolean locked = !CompletableFuture.supplyAsync(() -> {
+                boolean acquired = lock.tryLock();
+                if (acquired) {
+                    lock.unlock();
+                }
+                return acquired;
+            }).get();
+            lockedWhenSerialized.add(locked);
+            return invocation.callRealMethod();
+        }).when(spiedMapper).writeValueAsBytes(any());
+        var internalSignal = new InternalSignal(numberSignal, spiedMapper);
+        internalSignal.subscribe("clientId").subscribe();
+        var setCommand = mapper.createObjectNode()
+                .put("commandId", Id.random().asBase64())
+                .put("targetNodeId", numberSignal.id().asBase64())
+                .put("@type", "set").put("value", 42);
+
+        try (var recording = new Recording()) {
+            recording.enable(SignalCommandEvent.NAME)
+                    .withThreshold(Duration.ZERO);
+            recording.start();
+            internalSignal.submit("clientId", setCommand);
+            recording.stop();
+        }
+
+        assertEquals(2, lockedWhenSerialized.size());
+        assertFalse(lockedWhenSerialized.contains(true));
+    }
+}
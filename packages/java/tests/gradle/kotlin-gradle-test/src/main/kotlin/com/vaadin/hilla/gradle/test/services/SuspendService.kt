@@ -0,0 +1,29 @@
+package com.vaadin.hilla.gradle.test.services
+
+import com.vaadin.flow.server.auth.AnonymousAllowed
+import com.vaadin.hilla.BrowserCallable
+import kotlinx.coroutines.delay
+
+@BrowserCallable
+@AnonymousAllowed
+class SuspendService {
+
+    private var touches = 0
+
+    suspend fun greet(name: String): String {
+        delay(10)
+        return "Hello $name"
+    }
+
+    suspend fun findNickname(name: String): String? {
+        delay(10)
+        return if (name == "Robert") "Bob" else null
+    }
+
+    suspend fun touch() {
+        delay(10)
+        touches++
+    }
+
+    fun getTouches(): Int = touches
+}
@@ -0,0 +1,58 @@
+package com.vaadin.hilla.gradle.test
+
+import java.net.URI
+import java.net.http.HttpClient
+import java.net.http.HttpRequest
+import java.net.http.HttpResponse
+import org.junit.Assert
+import org.junit.Test
+
+class SuspendServiceIT {
+
+    private val client = HttpClient.newHttpClient()
+
+    // Suspend functions are called through the endpoint controller like any
+    // other endpoint method, and respond with the value they complete with
+    @Test
+    fun suspendFunction_respondsWithValue() {
+        val response = call("greet", """{"name":"Kotlin"}""")
+        Assert.assertEquals(200, response.statusCode())
+        Assert.assertEquals("\"Hello Kotlin\"", response.body())
+    }
+
+    @Test
+    fun suspendFunction_respondsWithNullableValue() {
+        val found = call("findNickname", """{"name":"Robert"}""")
+        Assert.assertEquals(200, found.statusCode())
+        Assert.assertEquals("\"Bob\"", found.body())
+
+        val missing = call("findNickname", """{"name":"Alice"}""")
+        Assert.assertEquals(200, missing.statusCode())
+        Assert.assertEquals("null", missing.body())
+    }
+
+    @Test
+    fun suspendFunction_respondsWithNullForUnit() {
+        val touches = call("getTouches", "{}").body().toInt()
+
+        val response = call("touch", "{}")
+        Assert.assertEquals(200, response.statusCode())
+        Assert.assertEquals("null", response.body())
+        Assert.assertEquals("${touches + 1}", call("getTouches", "{}").body())
+    }
+
+    private fun call(method: String, body: String): HttpResponse<String> {
+        val request = HttpRequest.newBuilder()
+            .uri(URI.create("http://localhost:8888/connect/SuspendService/$method"))
+            .header("Content-Type", "application/json")
+            .header("Cookie", "csrfToken=$CSRF_TOKEN")
+            .header("X-CSRF-Token", CSRF_TOKEN)
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build()
+        return client.send(request, HttpResponse.BodyHandlers.ofString())
+    }
+
+    companion object {
+        private const val CSRF_TOKEN = "suspend-service-it"
+    }
+}
@@ -36,6 +36,8 @@ import com.vaadin.hilla.parser.plugins.backbone.nodes.MethodNode;
 public final class MethodPlugin
         extends AbstractPlugin<BackbonePluginConfiguration> {
     public static final String MEDIA_TYPE = "application/json";
+    public static final String READ_ONLY_KEY = "x-read-only";
+    private static final String READ_ONLY_ANNOTATION = "com.vaadin.hilla.EndpointReadOnly";
 
     @Override
     public void enter(NodePath<?> nodePath) {
@@ -113,6 +115,15 @@ public final class MethodPlugin
                         methodNode.getSource().getName()))
                 .addTagsItem(endpointName).responses(createResponses());
 
+        // Read-only methods are also served with GET requests, which the
+        // client uses for them. Only the Hilla annotation makes the server
+        // serve them.
+        if (methodNode.getSource().getAnnotations().stream()
+                .anyMatch(annotation -> annotation.getName()
+                        .equals(READ_ONLY_ANNOTATION))) {
+            operation.addExtension(READ_ONLY_KEY, true);
+        }
+
         return operation;
     }
 
@@ -65,7 +65,9 @@ class KotlinNullabilityPlugin : AbstractPlugin<PluginConfiguration>() {
      * is returning, which is not guaranteed be in the same order of appearance in the class.
      */
     override fun scan(nodeDependencies: NodeDependencies): NodeDependencies {
-        if (nodeDependencies.node !is EntityNode) return nodeDependencies
+        val node = nodeDependencies.node
+        if (node is KMethodNode && node.kFunction.isSuspend) return scanSuspendFunction(nodeDependencies, node)
+        if (node !is EntityNode) return nodeDependencies
 
         val entityNode = nodeDependencies.node as EntityNode
         val clazz = entityNode.source.get() as Class<*>
@@ -80,6 +82,24 @@ class KotlinNullabilityPlugin : AbstractPlugin<PluginConfiguration>() {
         return nodeDependencies.processChildNodes { it.sorted(childNodesComparator) }
     }
 
+    /*
+     * In the bytecode, a suspend function has an extra continuation parameter and returns
+     * Any?. The continuation is provided when the function is called rather than sent by
+     * the client, and the function results in the type argument of the continuation, which
+     * is no result at all for Unit.
+     */
+    private fun scanSuspendFunction(nodeDependencies: NodeDependencies, methodNode: KMethodNode): NodeDependencies {
+        val continuation = methodNode.source.parameters.last()
+        val resultType = (continuation.type as ClassRefSignatureModel).typeArguments.first().associatedTypes.first()
+        val returnsUnit = resultType is ClassRefSignatureModel && resultType.name == Unit::class.java.name
+        return nodeDependencies.processChildNodes { childNodes ->
+            childNodes
+                .filter { !(it is MethodParameterNode && it.source == continuation) }
+                .filter { !(returnsUnit && it is TypeSignatureNode) }
+                .map<Node<*, *>> { if (it is TypeSignatureNode) TypeSignatureNode.of(resultType) else it }
+        }
+    }
+
     private fun getKotlinPropertyNames(clazz: Class<*>): List<String> {
         val fields = clazz.declaredFields.map { it.name.substringBefore("\$delegate") }
 
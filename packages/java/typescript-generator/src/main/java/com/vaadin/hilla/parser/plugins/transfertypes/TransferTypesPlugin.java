@@ -15,11 +15,16 @@
  */
 package com.vaadin.hilla.parser.plugins.transfertypes;
 
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import org.jspecify.annotations.NonNull;
 import tools.jackson.databind.JsonNode;
@@ -37,9 +42,13 @@ import com.vaadin.hilla.parser.core.PluginConfiguration;
 import com.vaadin.hilla.parser.core.RootNode;
 import com.vaadin.hilla.parser.models.ClassInfoModel;
 import com.vaadin.hilla.parser.models.ClassRefSignatureModel;
+import com.vaadin.hilla.parser.models.SignatureModel;
+import com.vaadin.hilla.parser.models.TypeArgumentModel;
 import com.vaadin.hilla.parser.plugins.backbone.BackbonePlugin;
 import com.vaadin.hilla.parser.plugins.backbone.nodes.EntityNode;
+import com.vaadin.hilla.parser.plugins.backbone.nodes.MethodNode;
 import com.vaadin.hilla.parser.plugins.backbone.nodes.TypedNode;
+import com.vaadin.hilla.runtime.transfertypes.Blob;
 import com.vaadin.hilla.runtime.transfertypes.EndpointSubscription;
 import com.vaadin.hilla.runtime.transfertypes.File;
 import com.vaadin.hilla.runtime.transfertypes.Flux;
@@ -51,7 +60,17 @@ import com.vaadin.hilla.transfertypes.annotations.FromModule;
 
 public final class TransferTypesPlugin
         extends AbstractPlugin<PluginConfiguration> {
+    public static final String DOWNLOAD_KEY = "x-download";
     private static final Map<String, Class<?>> classMap = new HashMap<>();
+    // Asynchronous results are sent to the client once completed, so their
+    // type is replaced with the type of the value they complete with
+    private static final Set<String> unwrappedClasses = Set.of(
+            CompletableFuture.class.getName(),
+            CompletionStage.class.getName(), "reactor.core.publisher.Mono");
+    // The implementations of these are sent as downloads too, like on the
+    // server
+    private static final Set<String> downloadClasses = Set
+            .of("org.springframework.core.io.Resource", Path.class.getName());
 
     static {
         classMap.put("org.springframework.data.domain.Page", List.class);
@@ -68,6 +87,9 @@ public final class TransferTypesPlugin
         classMap.put(ArrayNode.class.getName(), List.class);
         classMap.put("org.springframework.web.multipart.MultipartFile",
                 File.class);
+        classMap.put(InputStream.class.getName(), File.class);
+        classMap.put("org.springframework.core.io.Resource", Blob.class);
+        classMap.put(Path.class.getName(), Blob.class);
         classMap.put("com.vaadin.flow.signals.Signal", Signal.class);
         classMap.put("com.vaadin.flow.signals.shared.SharedValueSignal",
                 ValueSignal.class);
@@ -83,6 +105,14 @@ public final class TransferTypesPlugin
 
     @Override
     public void exit(NodePath<?> nodePath) {
+        // The files and resources returned by a method are sent as the raw
+        // response body, which the client reads as a blob
+        if (nodePath.getNode() instanceof MethodNode methodNode
+                && methodNode.getTarget().getPost() != null
+                && isDownload(methodNode.getSource().getResultType())) {
+            methodNode.getTarget().getPost().addExtension(DOWNLOAD_KEY, true);
+        }
+
         if (nodePath.getNode() instanceof EntityNode entityNode && nodePath
                 .getParentPath().getNode() instanceof RootNode rootNode) {
             var cls = entityNode.getSource();
@@ -141,14 +171,64 @@ public final class TransferTypesPlugin
             }
 
             var className = classRef.getClassInfo().getName();
-            if (!classMap.containsKey(className)) {
+            if (unwrappedClasses.contains(className)) {
+                return unwrap(classRef);
+            }
+
+            Class<?> mappedClass = classMap.get(className);
+            if (mappedClass == null
+                    && isDownloadClass(classRef.getClassInfo())) {
+                mappedClass = Blob.class;
+            }
+            if (mappedClass == null) {
                 return signature;
             }
 
-            var mappedClassInfo = ClassInfoModel.of(classMap.get(className));
+            var mappedClassInfo = ClassInfoModel.of(mappedClass);
 
             return ClassRefSignatureModel.of(mappedClassInfo,
                     classRef.getTypeArguments(), classRef.getAnnotations());
         });
     }
+
+    private static boolean isDownload(SignatureModel resultType) {
+        if (!(resultType instanceof ClassRefSignatureModel classRef)) {
+            return false;
+        }
+        if (unwrappedClasses.contains(classRef.getClassInfo().getName())) {
+            return isDownload(unwrap(classRef));
+        }
+        return isDownloadClass(classRef.getClassInfo());
+    }
+
+    private static boolean isDownloadClass(ClassInfoModel classInfo) {
+        if (downloadClasses.contains(classInfo.getName())) {
+            return true;
+        }
+        if (ClassInfoModel.isJDKClass(classInfo.getName())) {
+            return false;
+        }
+        return classInfo.getSuperClass()
+                .map(superClass -> isDownloadClass(superClass.getClassInfo()))
+                .orElse(false)
+                || classInfo.getInterfaces().stream()
+                        .anyMatch(type -> isDownloadClass(type.getClassInfo()));
+    }
+
+    private static SignatureModel unwrap(ClassRefSignatureModel classRef) {
+        var typeArguments = classRef.getTypeArguments();
+        if (typeArguments.isEmpty()) {
+            return ClassRefSignatureModel.of(
+                    ClassInfoModel.of(Object.class), List.of(),
+                    classRef.getAnnotations());
+        }
+
+        var typeArgument = typeArguments.get(0);
+        if (typeArgument.getWildcard() == TypeArgumentModel.Wildcard.NONE
+                && !typeArgument.getAssociatedTypes().isEmpty()) {
+            return typeArgument.getAssociatedTypes().get(0);
+        }
+
+        return typeArgument;
+    }
 }
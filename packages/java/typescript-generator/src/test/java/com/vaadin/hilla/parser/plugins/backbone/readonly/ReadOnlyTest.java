@@ -0,0 +1,44 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla.parser.plugins.backbone.readonly;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.vaadin.hilla.parser.core.Parser;
+import com.vaadin.hilla.parser.plugins.backbone.BackbonePlugin;
+import com.vaadin.hilla.parser.plugins.backbone.test.helpers.TestHelper;
+import com.vaadin.hilla.parser.testutils.annotations.Endpoint;
+
+public class ReadOnlyTest {
+    private final TestHelper helper = new TestHelper(getClass());
+
+    @Test
+    public void should_MarkOperation_When_MethodIsReadOnly()
+            throws IOException, URISyntaxException {
+        var openAPI = new Parser()
+                .classPath(Set.of(helper.getTargetDir().toString()))
+                .endpointAnnotations(List.of(Endpoint.class))
+                .addPlugin(new BackbonePlugin())
+                .execute(List.of(ReadOnlyEndpoint.class));
+
+        helper.executeParserWithConfig(openAPI);
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2000-2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla.parser.plugins.transfertypes.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import reactor.core.publisher.Mono;
+
+import com.vaadin.hilla.parser.testutils.annotations.Endpoint;
+
+@Endpoint
+public class AsyncEndpoint {
+    public CompletableFuture<String> completableFuture() {
+        return CompletableFuture.completedFuture("value");
+    }
+
+    public CompletionStage<Integer> completionStage() {
+        return CompletableFuture.completedFuture(1);
+    }
+
+    public Mono<String> mono() {
+        return Mono.just("value");
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2000-2025 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.hilla.parser.plugins.transfertypes.inputstream;
+
+import org.junit.jupiter.api.Test;
+
+import com.vaadin.hilla.parser.testutils.AbstractFullStackTest;
+
+/**
+ * Full-stack test for InputStream parameters - verifies that they are
+ * generated as files in TypeScript.
+ */
+public class InputStreamTest extends AbstractFullStackTest {
+
+    @Test
+    public void should_ReplaceInputStreamClassWithLocalFileClass()
+            throws Exception {
+        assertTypescriptMatchesSnapshot(InputStreamEndpoint.class);
+    }
+}
@@ -0,0 +1,14 @@
+package com.vaadin.hilla.parser.plugins.nonnull.kotlin.suspending
+
+import com.vaadin.hilla.parser.testutils.annotations.Endpoint
+
+@Endpoint
+class SuspendEndpoint {
+
+    suspend fun greet(name: String?): String = "Hello ${name ?: "stranger"}"
+
+    suspend fun findName(id: Int): String? = if (id > 0) "Name $id" else null
+
+    suspend fun reset() {
+    }
+}
@@ -0,0 +1,6 @@
+import { EndpointRequestInit as EndpointRequestInit_1 } from "@vaadin/hilla-frontend";
+import client_1 from "./connect-client.default.js";
+async function completableFuture_1(init?: EndpointRequestInit_1): Promise<string | undefined> { return client_1.call("AsyncEndpoint", "completableFuture", {}, init); }
+async function completionStage_1(init?: EndpointRequestInit_1): Promise<number | undefined> { return client_1.call("AsyncEndpoint", "completionStage", {}, init); }
+async function mono_1(init?: EndpointRequestInit_1): Promise<string | undefined> { return client_1.call("AsyncEndpoint", "mono", {}, init); }
+export { completableFuture_1 as completableFuture, completionStage_1 as completionStage, mono_1 as mono };
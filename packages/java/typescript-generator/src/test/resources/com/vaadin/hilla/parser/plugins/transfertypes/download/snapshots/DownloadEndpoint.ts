@@ -0,0 +1,7 @@
+import { EndpointRequestInit as EndpointRequestInit_1 } from "@vaadin/hilla-frontend";
+import client_1 from "./connect-client.default.js";
+async function downloadFileSystemResource_1(init?: EndpointRequestInit_1): Promise<Blob | undefined> { return client_1.call("DownloadEndpoint", "downloadFileSystemResource", {}, { ...init, download: true }); }
+async function downloadPath_1(init?: EndpointRequestInit_1): Promise<Blob | undefined> { return client_1.call("DownloadEndpoint", "downloadPath", {}, { ...init, download: true }); }
+async function downloadResource_1(name: string | undefined, init?: EndpointRequestInit_1): Promise<Blob | undefined> { return client_1.call("DownloadEndpoint", "downloadResource", { name }, { ...init, download: true }); }
+async function downloadResourceAsync_1(init?: EndpointRequestInit_1): Promise<Blob | undefined> { return client_1.call("DownloadEndpoint", "downloadResourceAsync", {}, { ...init, download: true }); }
+export { downloadFileSystemResource_1 as downloadFileSystemResource, downloadPath_1 as downloadPath, downloadResource_1 as downloadResource, downloadResourceAsync_1 as downloadResourceAsync };
@@ -0,0 +1,4 @@
+import { EndpointRequestInit as EndpointRequestInit_1 } from "@vaadin/hilla-frontend";
+import client_1 from "./connect-client.default.js";
+async function uploadStream_1(stream: File | undefined, init?: EndpointRequestInit_1): Promise<void> { return client_1.call("InputStreamEndpoint", "uploadStream", { stream }, init); }
+export { uploadStream_1 as uploadStream };
@@ -25,6 +25,18 @@ $wnd.Vaadin.registrations.push({
 
 export const BODY_PART_NAME = 'hilla_body_part';
 
+/**
+ * The header naming the encoding of a JSON response, and the encodings the
+ * client decodes.
+ */
+const ENCODING_HEADER = 'X-Hilla-Encoding';
+
+/**
+ * The encoding of the responses writing the objects shared in the return value
+ * once, see {@link resolveReferences}.
+ */
+const REFERENCE_ENCODING = 'references';
+
 export type MaybePromise<T> = Promise<T> | T;
 
 /**
@@ -108,6 +120,26 @@ const assertResponseIsOk = async (response: Response): Promise<void> => {
   }
 };
 
+/**
+ * A binary wire format, such as CBOR, that the endpoint calls use instead of
+ * JSON for the request and response bodies. The client does not bundle an
+ * encoder, it is provided with the format.
+ */
+export interface WireFormat {
+  /**
+   * The media type of the format, e.g. `application/cbor`.
+   */
+  contentType: string;
+  /**
+   * Encodes the parameters of a call.
+   */
+  encode(value: unknown): BodyInit;
+  /**
+   * Decodes a response body.
+   */
+  decode(body: Uint8Array): unknown;
+}
+
 /**
  * The `ConnectClient` constructor options.
  */
@@ -124,6 +156,14 @@ export interface ConnectClientOptions {
    * The Atmosphere options for the FluxConnection.
    */
   atmosphereOptions?: Partial<Atmosphere.Request>;
+  /**
+   * The `batch` property value.
+   */
+  batch?: boolean;
+  /**
+   * The `wireFormat` property value.
+   */
+  wireFormat?: WireFormat;
 }
 
 export interface EndpointCallMetaInfo {
@@ -184,6 +224,116 @@ export type MiddlewareFunction = (context: MiddlewareContext, next: MiddlewareNe
  */
 export type Middleware = MiddlewareClass | MiddlewareFunction;
 
+/**
+ * A call waiting to be sent to the server in a batch request.
+ */
+interface PendingBatchCall {
+  context: MiddlewareContext;
+  resolve(response: Response): void;
+  reject(reason: unknown): void;
+}
+
+/**
+ * The result of a single call in a batch response.
+ */
+interface BatchCallResult {
+  status: number;
+  body?: unknown;
+}
+
+/**
+ * Checks whether the given requests have the same headers, in which case they
+ * can be sent in the same batch request.
+ */
+function haveSameHeaders(first: Headers, second: Headers): boolean {
+  const entries = [...first.entries()];
+  return (
+    entries.length === [...second.entries()].length && entries.every(([name, value]) => second.get(name) === value)
+  );
+}
+
+/**
+ * Creates the query string of a read-only call, having the JSON of every
+ * parameter.
+ */
+function createQueryString(params?: Record<string, unknown>, fields?: readonly string[]): string {
+  const entries = Object.entries(params ?? {}).map(([name, value]) => [
+    name,
+    JSON.stringify(value, (_, v) => (v === undefined ? null : v)),
+  ]);
+  if (fields && fields.length > 0) {
+    entries.push(['fields', fields.join(',')]);
+  }
+  if (entries.length === 0) {
+    return '';
+  }
+  return `?${new URLSearchParams(entries).toString()}`;
+}
+
+/**
+ * Replaces the `null` values of a response decoded from a wire format the
+ * same way as for JSON responses: object properties are removed and array
+ * items become `undefined`.
+ */
+function nullToUndefined(value: unknown): any {
+  if (value === null) {
+    return undefined;
+  }
+  if (Array.isArray(value)) {
+    return value.map(nullToUndefined);
+  }
+  if (typeof value === 'object' && Object.getPrototypeOf(value) === Object.prototype) {
+    return Object.fromEntries(
+      Object.entries(value)
+        .filter(([, v]) => v !== null)
+        .map(([name, v]) => [name, nullToUndefined(v)]),
+    );
+  }
+  return value;
+}
+
+/**
+ * An encoded response having the objects shared in the return value once.
+ */
+interface ReferenceEncodedValue {
+  references?: unknown[];
+  value?: unknown;
+}
+
+/**
+ * Replaces the references of a response having the shared objects once with
+ * the objects themselves. Every `{"@ref": index}` object, in the value or in a
+ * shared object, refers to the object at the index of the `references` array.
+ *
+ * @param encoded - The decoded JSON of the response.
+ * @returns The return value, having the same instance wherever an object is
+ * shared.
+ */
+function resolveReferences({ references = [], value }: ReferenceEncodedValue): any {
+  const resolve = (item: unknown): unknown => {
+    if (Array.isArray(item)) {
+      item.forEach((v, index) => {
+        // eslint-disable-next-line no-param-reassign
+        item[index] = resolve(v);
+      });
+    } else if (typeof item === 'object' && item !== null) {
+      const entries = Object.entries(item);
+      if (entries.length === 1 && entries[0][0] === '@ref' && typeof entries[0][1] === 'number') {
+        return references[entries[0][1]];
+      }
+      for (const [name, v] of entries) {
+        // eslint-disable-next-line no-param-reassign
+        (item as Record<string, unknown>)[name] = resolve(v);
+      }
+    }
+    return item;
+  };
+  // The shared objects are resolved in place, once each, which also
+  // handles the cycles
+  references.forEach((reference) => resolve(reference));
+  return resolve(value);
+}
+
 /**
  * Extracts file objects from the object that is used to build the request body.
  *
@@ -230,6 +380,26 @@ export interface EndpointRequestInit {
    * If set to true, the connection state will not be updated during the request.
    */
   mute?: boolean;
+  /**
+   * If set to true, the call is sent as a GET request having the JSON of every
+   * parameter in the query string, so that the browser can cache the
+   * response. Only supported by the endpoint methods marked as read-only,
+   * for which the generated code sets it.
+   */
+  readOnly?: boolean;
+  /**
+   * If set to true, the file or resource returned by the method is resolved
+   * as a `Blob` read from the raw response body. Set by the generated code
+   * for the endpoint methods returning a file or a resource.
+   */
+  download?: boolean;
+  /**
+   * The paths of the properties of the return value to send, e.g.
+   * `['id', 'name', 'address.city']`. The other properties are not
+   * serialized, and are `undefined` in the resolved value. All the properties
+   * are sent when not set.
+   */
+  fields?: readonly string[];
 }
 
 /**
@@ -253,6 +423,35 @@ export interface EndpointRequestInit {
  *
  * The default prefix is '/connect'.
  *
+ * ### Batching
+ *
+ * The client can coalesce the calls made in the same tick into a single
+ * request to the server:
+ * ```js
+ * const client = new ConnectClient({batch: true});
+ * ```
+ *
+ * Middlewares are still invoked for every call separately, and only the calls
+ * having the same headers share a request. Calls that upload files or that can
+ * be aborted are always sent on their own.
+ *
+ * The server only lets batch requests through the authentication rules of the
+ * application for signed-in users, so batching should not be enabled for
+ * clients calling anonymous endpoints without signing in.
+ *
+ * ### Wire format
+ *
+ * The client can send the calls in a binary format supported by the server,
+ * e.g. CBOR with an encoder from a third-party library:
+ * ```js
+ * const client = new ConnectClient({
+ *   wireFormat: {contentType: 'application/cbor', encode, decode},
+ * });
+ * ```
+ *
+ * Calls uploading files, read-only calls and downloads always use JSON, and
+ * calls using a wire format are not batched.
+ *
  */
 export class ConnectClient {
   /**
@@ -267,8 +466,18 @@ export class ConnectClient {
    * The Atmosphere options for the FluxConnection.
    */
   atmosphereOptions: Partial<Atmosphere.Request> = {};
+  /**
+   * Whether the calls made in the same tick are sent in a single batch
+   * request.
+   */
+  batch = false;
+  /**
+   * The binary format used for the calls instead of JSON, if any.
+   */
+  wireFormat?: WireFormat;
 
   #fluxConnection?: FluxConnection;
+  #pendingBatch?: PendingBatchCall[];
 
   /**
    * @param options - Constructor options.
@@ -285,6 +494,14 @@ export class ConnectClient {
     if (options.atmosphereOptions) {
       this.atmosphereOptions = options.atmosphereOptions;
     }
+
+    if (options.batch) {
+      this.batch = options.batch;
+    }
+
+    if (options.wireFormat) {
+      this.wireFormat = options.wireFormat;
+    }
   }
 
   /**
@@ -322,10 +539,17 @@ export class ConnectClient {
     const csrfInfo = await csrfInfoSource.get();
     const headers: Record<string, string> = {
       Accept: 'application/json',
+      [ENCODING_HEADER]: REFERENCE_ENCODING,
       ...Object.fromEntries(csrfInfo.headerEntries),
     };
 
     const [paramsWithoutFiles, files] = extractFiles(params ?? {});
+    const download = !!init?.download;
+    const readOnly = !!init?.readOnly && files.size === 0 && !download;
+    const wireFormat = files.size === 0 && !readOnly && !download ? this.wireFormat : undefined;
+    if (download) {
+      headers.Accept = '*/*';
+    }
     let body;
 
     if (files.size > 0) {
@@ -339,18 +563,29 @@ export class ConnectClient {
       for (const [path, file] of files) {
         body.append(path, file);
       }
-    } else {
+    } else if (wireFormat) {
+      headers.Accept = wireFormat.contentType;
+      headers['Content-Type'] = wireFormat.contentType;
+      if (params) {
+        body = wireFormat.encode(params);
+      }
+    } else if (!readOnly) {
       headers['Content-Type'] = 'application/json';
       if (params) {
         body = JSON.stringify(params, (_, value) => (value === undefined ? null : value));
       }
     }
 
-    const request = new Request(`${this.prefix}/${endpoint}/${method}`, {
-      body, // automatically sets Content-Type header
-      headers,
-      method: 'POST',
-    });
+    const request = readOnly
+      ? new Request(`${this.prefix}/${endpoint}/${method}${createQueryString(params, init?.fields)}`, {
+          headers,
+          method: 'GET',
+        })
+      : new Request(`${this.prefix}/${endpoint}/${method}${createQueryString(undefined, init?.fields)}`, {
+          body, // automatically sets Content-Type header
+          headers,
+          method: 'POST',
+        });
 
     // The middleware `context`, includes the call arguments and the request
     // constructed from them
@@ -366,12 +601,36 @@ export class ConnectClient {
     // with processing the response. That is why this middleware is first
     // in the final middlewares array.
     async function responseHandlerMiddleware(context: MiddlewareContext, next: MiddlewareNext): Promise<Response> {
-      const response = await next(context);
+      let response = await next(context);
+      if (wireFormat && response.headers.get('Content-Type')?.startsWith(wireFormat.contentType)) {
+        const value = wireFormat.decode(new Uint8Array(await response.arrayBuffer()));
+        if (response.ok) {
+          return nullToUndefined(value);
+        }
+        // The error objects are the same as with JSON
+        response = new Response(typeof value === 'string' ? value : JSON.stringify(value), {
+          headers: { 'Content-Type': 'application/json' },
+          status: response.status,
+          statusText: response.statusText,
+        });
+      }
       await assertResponseIsOk(response);
+      // A null file or resource is sent as JSON
+      if (download && response.headers.has('Content-Disposition')) {
+        return (await response.blob()) as any;
+      }
       const text = await response.text();
-      return JSON.parse(text, (_, value: any) => (value === null ? undefined : value));
+      const value = JSON.parse(text, (_, v: any) => (v === null ? undefined : v));
+      return response.headers.get(ENCODING_HEADER) === REFERENCE_ENCODING ? resolveReferences(value) : value;
     }
 
+    // Calls uploading files, having an abort signal, using GET, using a
+    // wire format, downloading a file or selecting fields cannot be batched
+    const fetchInBatch =
+      this.batch && files.size === 0 && !init?.signal && !readOnly && !wireFormat && !download && !init?.fields?.length
+        ? async (context: MiddlewareContext) => this.#fetchInBatch(context)
+        : undefined;
+
     // The actual fetch call itself is expressed as a middleware
     // chain item for our convenience. Always having an ending of the chain
     // this way makes the folding down below more concise.
@@ -380,7 +639,9 @@ export class ConnectClient {
       const connectionState = init?.mute ? undefined : $wnd.Vaadin?.connectionState;
       connectionState?.loadingStarted();
       try {
-        const response = await fetch(context.request, { signal: init?.signal });
+        const response = await (fetchInBatch
+          ? fetchInBatch(context)
+          : fetch(context.request, { signal: init?.signal }));
         connectionState?.loadingFinished();
         return response;
       } catch (error: unknown) {
@@ -418,6 +679,108 @@ export class ConnectClient {
     return chain(initialContext);
   }
 
+  /**
+   * Adds the call to the batch sent in the current tick, starting a new batch
+   * if needed, and resolves to the response of the call.
+   *
+   * @param context - The context of the call, with the final request.
+   * @returns The response of the call.
+   */
+  async #fetchInBatch(context: MiddlewareContext): Promise<Response> {
+    return new Promise((resolve, reject) => {
+      let batch = this.#pendingBatch;
+      if (!batch) {
+        const newBatch: PendingBatchCall[] = [];
+        this.#pendingBatch = newBatch;
+        setTimeout(() => {
+          this.#pendingBatch = undefined;
+          this.#sendBatch(newBatch).catch((error: unknown) => {
+            newBatch.forEach((call) => call.reject(error));
+          });
+        }, 0);
+        batch = newBatch;
+      }
+      batch.push({ context, reject, resolve });
+    });
+  }
+
+  /**
+   * Sends the given calls, grouping the calls having the same headers in a
+   * single batch request, as the middlewares can set different headers for
+   * each call.
+   *
+   * @param batch - The calls to send.
+   */
+  async #sendBatch(batch: readonly PendingBatchCall[]): Promise<void> {
+    const groups: PendingBatchCall[][] = [];
+    for (const call of batch) {
+      const group = groups.find(([first]) =>
+        haveSameHeaders(first.context.request.headers, call.context.request.headers),
+      );
+      if (group) {
+        group.push(call);
+      } else {
+        groups.push([call]);
+      }
+    }
+    await Promise.all(
+      groups.map(async (group) =>
+        this.#sendBatchRequest(group).catch((error: unknown) => {
+          group.forEach((call) => call.reject(error));
+        }),
+      ),
+    );
+  }
+
+  /**
+   * Sends the given calls in a single batch request, and resolves every call
+   * with a response built from its result in the batch response.
+   *
+   * @param batch - The calls to send, all having the same headers.
+   */
+  async #sendBatchRequest(batch: readonly PendingBatchCall[]): Promise<void> {
+    if (batch.length === 1) {
+      batch[0].resolve(await fetch(batch[0].context.request));
+      return;
+    }
+
+    // The request bodies include the changes made by the middlewares
+    const calls = await Promise.all(
+      batch.map(async ({ context: { endpoint, method, request } }) => {
+        const text = await request.text();
+        return { endpoint, method, params: text ? JSON.parse(text) : undefined };
+      }),
+    );
+
+    const response = await fetch(`${this.prefix}/batch`, {
+      body: JSON.stringify(calls),
+      headers: batch[0].context.request.headers,
+      method: 'POST',
+    });
+
+    if (!response.ok) {
+      // The whole batch failed, every call gets the same error
+      const text = await response.text();
+      batch.forEach((call) =>
+        call.resolve(
+          new Response(text, { headers: response.headers, status: response.status, statusText: response.statusText }),
+        ),
+      );
+      return;
+    }
+
+    const results: BatchCallResult[] = await response.json();
+    batch.forEach((call, index) => {
+      const { body, status } = results[index];
+      call.resolve(
+        new Response(body === undefined ? null : JSON.stringify(body), {
+          headers: { 'Content-Type': 'application/json' },
+          status,
+        }),
+      );
+    });
+  }
+
   /**
    * Subscribes to the given method defined using the endpoint and method
    * parameters with the parameters given as params. The method must return a
@@ -6,7 +6,7 @@ import sinon from 'sinon';
 import sinonChai from 'sinon-chai';
 import type { WritableDeep } from 'type-fest';
 import { expect, chai, describe, it, beforeEach, afterEach, beforeAll, afterAll } from 'vitest';
-import type { MiddlewareContext, MiddlewareNext } from '../src/Connect.js';
+import type { MiddlewareContext, MiddlewareNext, WireFormat } from '../src/Connect.js';
 import CookieManager from '../src/CookieManager.js';
 import csrfInfoSource, {
   SPRING_CSRF_COOKIE_NAME,
@@ -665,6 +665,332 @@ describe('@vaadin/hilla-frontend', () => {
       });
     });
 
+    describe('batch calls', () => {
+      let client: ConnectClient;
+
+      beforeEach(() => {
+        fetchMock.post(`${base}/connect/FooEndpoint/fooMethod`, { fooData: 'foo' });
+        fetchMock.post(`${base}/connect/batch`, [
+          { body: { fooData: 'foo' }, status: 200 },
+          { body: { message: 'Unauthorized' }, status: 401 },
+        ]);
+        client = new ConnectClient({ batch: true });
+      });
+
+      afterEach(() => {
+        fetchMock.removeRoutes().clearHistory();
+      });
+
+      it('should support batch option', () => {
+        expect(client).to.have.property('batch', true);
+        expect(new ConnectClient()).to.have.property('batch', false);
+      });
+
+      it('should send calls made in the same tick in a single request', async () => {
+        const results = await Promise.allSettled([
+          client.call('FooEndpoint', 'fooMethod', { fooParam: 'foo' }),
+          client.call('FooEndpoint', 'barMethod'),
+        ]);
+
+        expect(fetchMock.callHistory.calls()).to.have.lengthOf(1);
+        const batchCall = fetchMock.callHistory.lastCall();
+        expect(batchCall?.url).to.equal(`${base}/connect/batch`);
+        expect(JSON.parse(batchCall?.options.body as string)).to.deep.equal([
+          { endpoint: 'FooEndpoint', method: 'fooMethod', params: { fooParam: 'foo' } },
+          { endpoint: 'FooEndpoint', method: 'barMethod' },
+        ]);
+
+        expect(results[0]).to.deep.equal({ status: 'fulfilled', value: { fooData: 'foo' } });
+        expect(results[1]).to.have.property('status', 'rejected');
+        expect(results[1]).to.have.property('reason').that.is.instanceOf(UnauthorizedResponseError);
+      });
+
+      it('should send a single call on its own', async () => {
+        await client.call('FooEndpoint', 'fooMethod');
+
+        expect(fetchMock.callHistory.calls()).to.have.lengthOf(1);
+        expect(fetchMock.callHistory.lastCall()?.url).to.equal(`${base}/connect/FooEndpoint/fooMethod`);
+      });
+
+      it('should invoke middlewares for every call', async () => {
+        const middleware = sinon.spy(async (context: MiddlewareContext, next: MiddlewareNext) => next(context));
+        client.middlewares = [middleware];
+
+        await Promise.allSettled([
+          client.call('FooEndpoint', 'fooMethod'),
+          client.call('FooEndpoint', 'barMethod'),
+        ]);
+
+        expect(middleware).to.be.calledTwice;
+        expect(fetchMock.callHistory.calls()).to.have.lengthOf(1);
+      });
+
+      it('should send a call with headers of its own apart from the batch', async () => {
+        fetchMock.post(`${base}/connect/FooEndpoint/barMethod`, { barData: 'bar' });
+        client.middlewares = [
+          async (context: MiddlewareContext, next: MiddlewareNext) => {
+            if (context.method === 'barMethod') {
+              context.request.headers.set('X-Call', 'bar');
+            }
+            return next(context);
+          },
+        ];
+
+        const results = await Promise.allSettled([
+          client.call('FooEndpoint', 'fooMethod', { fooParam: 'foo' }),
+          client.call('FooEndpoint', 'barMethod'),
+          client.call('FooEndpoint', 'fooMethod', { fooParam: 'baz' }),
+        ]);
+
+        const calls = fetchMock.callHistory.calls();
+        expect(calls).to.have.lengthOf(2);
+        const batchCall = calls.find((call) => call.url === `${base}/connect/batch`);
+        expect(JSON.parse(batchCall?.options.body as string)).to.deep.equal([
+          { endpoint: 'FooEndpoint', method: 'fooMethod', params: { fooParam: 'foo' } },
+          { endpoint: 'FooEndpoint', method: 'fooMethod', params: { fooParam: 'baz' } },
+        ]);
+        const barCall = calls.find((call) => call.url === `${base}/connect/FooEndpoint/barMethod`);
+        expect(barCall?.request?.headers.get('X-Call')).to.equal('bar');
+        expect(results[1]).to.deep.equal({ status: 'fulfilled', value: { barData: 'bar' } });
+      });
+    });
+
+    describe('read-only calls', () => {
+      let client: ConnectClient;
+
+      beforeEach(() => {
+        fetchMock.get(`begin:${base}/connect/FooEndpoint/fooMethod`, { fooData: 'foo' });
+        client = new ConnectClient();
+      });
+
+      afterEach(() => {
+        fetchMock.removeRoutes().clearHistory();
+      });
+
+      it('should send parameters as JSON in the query string of a GET request', async () => {
+        const data = await client.call(
+          'FooEndpoint',
+          'fooMethod',
+          { fooParam: 'foo', barParam: { id: 1 }, bazParam: undefined },
+          { readOnly: true },
+        );
+
+        expect(data).to.deep.equal({ fooData: 'foo' });
+        const request = fetchMock.callHistory.lastCall()?.request;
+        expect(request?.method).to.equal('GET');
+        expect(request?.headers.get('Content-Type')).to.be.null;
+        const url = new URL(request!.url);
+        expect(url.pathname).to.equal('/connect/FooEndpoint/fooMethod');
+        expect(url.searchParams.get('fooParam')).to.equal('"foo"');
+        expect(url.searchParams.get('barParam')).to.equal('{"id":1}');
+        expect(url.searchParams.get('bazParam')).to.equal('null');
+      });
+
+      it('should not add a query string without parameters', async () => {
+        await client.call('FooEndpoint', 'fooMethod', {}, { readOnly: true });
+
+        expect(fetchMock.callHistory.lastCall()?.request?.url).to.equal(`${base}/connect/FooEndpoint/fooMethod`);
+      });
+
+      it('should send the selected fields in the query string of a GET request', async () => {
+        await client.call(
+          'FooEndpoint',
+          'fooMethod',
+          { fooParam: 'foo' },
+          { fields: ['id', 'address.city'], readOnly: true },
+        );
+
+        const url = new URL(fetchMock.callHistory.lastCall()!.request!.url);
+        expect(url.searchParams.get('fooParam')).to.equal('"foo"');
+        expect(url.searchParams.get('fields')).to.equal('id,address.city');
+      });
+    });
+
+    describe('fields', () => {
+      beforeEach(() => {
+        fetchMock.post(`begin:${base}/connect/FooEndpoint/fooMethod`, { fooData: 'foo' });
+      });
+
+      afterEach(() => {
+        fetchMock.removeRoutes().clearHistory();
+      });
+
+      it('should send the selected fields in the query string', async () => {
+        const client = new ConnectClient();
+        await client.call('FooEndpoint', 'fooMethod', { fooParam: 'foo' }, { fields: ['id', 'address.city'] });
+
+        const request = fetchMock.callHistory.lastCall()?.request;
+        const url = new URL(request!.url);
+        expect(url.pathname).to.equal('/connect/FooEndpoint/fooMethod');
+        expect(url.searchParams.get('fields')).to.equal('id,address.city');
+        expect(await request?.json()).to.deep.equal({ fooParam: 'foo' });
+      });
+
+      it('should not batch calls selecting fields', async () => {
+        const client = new ConnectClient({ batch: true });
+        await client.call('FooEndpoint', 'fooMethod', {}, { fields: ['id'] });
+
+        expect(fetchMock.callHistory.lastCall()?.request?.url).to.equal(
+          `${base}/connect/FooEndpoint/fooMethod?fields=id`,
+        );
+      });
+    });
+
+    describe('references', () => {
+      let client: ConnectClient;
+
+      beforeEach(() => {
+        client = new ConnectClient();
+      });
+
+      afterEach(() => {
+        fetchMock.removeRoutes().clearHistory();
+      });
+
+      it('should accept the reference encoding', async () => {
+        fetchMock.post(`${base}/connect/FooEndpoint/fooMethod`, { fooData: 'foo' });
+        await client.call('FooEndpoint', 'fooMethod');
+
+        expect(fetchMock.callHistory.lastCall()?.request?.headers.get('X-Hilla-Encoding')).to.equal('references');
+      });
+
+      it('should resolve the references to the shared objects', async () => {
+        fetchMock.post(`${base}/connect/FooEndpoint/fooMethod`, {
+          body: JSON.stringify({
+            references: [{ name: 'Acme', note: null }],
+            value: [
+              { id: 1, customer: { '@ref': 0 } },
+              { id: 2, customer: { '@ref': 0 } },
+              { id: 3, customer: { name: 'Other' } },
+            ],
+          }),
+          headers: { 'Content-Type': 'application/json', 'X-Hilla-Encoding': 'references' },
+        });
+        const orders = await client.call('FooEndpoint', 'fooMethod');
+
+        expect(orders).to.deep.equal([
+          { id: 1, customer: { name: 'Acme' } },
+          { id: 2, customer: { name: 'Acme' } },
+          { id: 3, customer: { name: 'Other' } },
+        ]);
+        expect(orders[0].customer).to.equal(orders[1].customer);
+      });
+
+      it('should resolve the references of cyclic objects', async () => {
+        fetchMock.post(`${base}/connect/FooEndpoint/fooMethod`, {
+          body: JSON.stringify({
+            references: [{ name: 'first', links: [{ name: 'second', links: [{ '@ref': 0 }] }] }],
+            value: { '@ref': 0 },
+          }),
+          headers: { 'Content-Type': 'application/json', 'X-Hilla-Encoding': 'references' },
+        });
+        const first = await client.call('FooEndpoint', 'fooMethod');
+
+        expect(first.name).to.equal('first');
+        expect(first.links[0].links[0]).to.equal(first);
+      });
+
+      it('should not resolve the references of plain responses', async () => {
+        fetchMock.post(`${base}/connect/FooEndpoint/fooMethod`, { value: { '@ref': 0 } });
+
+        expect(await client.call('FooEndpoint', 'fooMethod')).to.deep.equal({ value: { '@ref': 0 } });
+      });
+    });
+
+    describe('wire format', () => {
+      let client: ConnectClient;
+
+      // A stand-in for a binary format, encoding JSON as bytes
+      const wireFormat: WireFormat = {
+        contentType: 'application/x-test',
+        encode: (value) => new TextEncoder().encode(JSON.stringify(value)),
+        decode: (body) => JSON.parse(new TextDecoder().decode(body)),
+      };
+
+      beforeEach(() => {
+        fetchMock.post(`${base}/connect/FooEndpoint/fooMethod`, {
+          body: JSON.stringify({ fooData: 'foo', propWithNullValue: null }),
+          headers: { 'Content-Type': 'application/x-test' },
+        });
+        fetchMock.post(`${base}/connect/FooEndpoint/vaadinException`, {
+          body: JSON.stringify({ message: 'Something bad happened', type: 'java.lang.IllegalStateException' }),
+          headers: { 'Content-Type': 'application/x-test' },
+          status: 400,
+        });
+        client = new ConnectClient({ batch: true, wireFormat });
+      });
+
+      afterEach(() => {
+        fetchMock.removeRoutes().clearHistory();
+      });
+
+      it('should encode the parameters and decode the response with the wire format', async () => {
+        const data = await client.call('FooEndpoint', 'fooMethod', { fooParam: 'foo' });
+
+        expect(data).to.deep.equal({ fooData: 'foo' });
+        const request = fetchMock.callHistory.lastCall()?.request;
+        expect(request?.headers.get('Content-Type')).to.equal('application/x-test');
+        expect(request?.headers.get('Accept')).to.equal('application/x-test');
+        expect(await request?.text()).to.equal('{"fooParam":"foo"}');
+      });
+
+      it('should decode the error objects with the wire format', async () => {
+        await expect(client.call('FooEndpoint', 'vaadinException')).to.be.rejectedWith(
+          EndpointError,
+          'Something bad happened',
+        );
+      });
+
+      it('should not batch the calls', async () => {
+        await Promise.all([client.call('FooEndpoint', 'fooMethod'), client.call('FooEndpoint', 'fooMethod')]);
+
+        expect(fetchMock.callHistory.calls()).to.have.lengthOf(2);
+      });
+    });
+
+    describe('downloads', () => {
+      let client: ConnectClient;
+
+      beforeEach(() => {
+        fetchMock.post(`${base}/connect/FooEndpoint/download`, {
+          body: 'file content',
+          headers: {
+            'Content-Disposition': 'attachment; filename="foo.txt"',
+            'Content-Type': 'text/plain',
+          },
+        });
+        fetchMock.post(`${base}/connect/FooEndpoint/downloadNull`, 'null');
+        client = new ConnectClient({ batch: true });
+      });
+
+      afterEach(() => {
+        fetchMock.removeRoutes().clearHistory();
+      });
+
+      it('should resolve the response body as a blob', async () => {
+        const data = await client.call('FooEndpoint', 'download', {}, { download: true });
+
+        expect(data).to.be.instanceOf(Blob);
+        expect(await (data as Blob).text()).to.equal('file content');
+        expect(fetchMock.callHistory.lastCall()?.request?.headers.get('Accept')).to.equal('*/*');
+      });
+
+      it('should resolve a null download as undefined', async () => {
+        const data = await client.call('FooEndpoint', 'downloadNull', {}, { download: true });
+
+        expect(data).to.be.undefined;
+      });
+
+      it('should not batch the calls', async () => {
+        await Promise.all([
+          client.call('FooEndpoint', 'download', {}, { download: true }),
+          client.call('FooEndpoint', 'download', {}, { download: true }),
+        ]);
+
+        expect(fetchMock.callHistory.calls()).to.have.lengthOf(2);
+      });
+    });
+
     describe('subscribe method', () => {
       let client: ConnectClient;
 
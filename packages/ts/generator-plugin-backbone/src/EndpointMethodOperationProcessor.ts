@@ -9,7 +9,17 @@ import { OpenAPIV3 } from 'openapi-types';
 import EndpointMethodRequestBodyProcessor from './EndpointMethodRequestBodyProcessor.js';
 import EndpointMethodResponseProcessor from './EndpointMethodResponseProcessor.js';
 
-export type EndpointMethodOperation = OpenAPIV3.OperationObject;
+export type EndpointMethodOperation = OpenAPIV3.OperationObject<{
+  /**
+   * Set for methods that are also served with GET requests.
+   */
+  'x-read-only'?: boolean;
+  /**
+   * Set for methods returning a file or a resource, which is sent as the raw
+   * response body.
+   */
+  'x-download'?: boolean;
+}>;
 
 export default abstract class EndpointMethodOperationProcessor {
   // eslint-disable-next-line @typescript-eslint/max-params
@@ -85,6 +95,20 @@ class EndpointMethodOperationPOSTProcessor extends EndpointMethodOperationProces
       paths.createRelativePath(await ClientPlugin.getClientFileName(outputDir)),
     )!;
 
+    // Read-only methods are called with GET requests, which can be cached,
+    // and the downloads are read as blobs
+    const initProperties = [
+      ...(this.#operation['x-read-only'] ? ['readOnly'] : []),
+      ...(this.#operation['x-download'] ? ['download'] : []),
+    ];
+    const callInit =
+      initProperties.length > 0
+        ? ts.factory.createObjectLiteralExpression([
+            ts.factory.createSpreadAssignment(initParam),
+            ...initProperties.map((name) => ts.factory.createPropertyAssignment(name, ts.factory.createTrue())),
+          ])
+        : initParam;
+
     const callExpression = ts.factory.createCallExpression(
       ts.factory.createPropertyAccessExpression(clientLibIdentifier, ts.factory.createIdentifier('call')),
       undefined,
@@ -92,7 +116,7 @@ class EndpointMethodOperationPOSTProcessor extends EndpointMethodOperationProces
         ts.factory.createStringLiteral(this.#endpointName),
         ts.factory.createStringLiteral(this.#endpointMethodName),
         packedParameters,
-        initParam,
+        callInit,
       ].filter(Boolean) as readonly Expression[],
     );
 
@@ -0,0 +1,5 @@
+import { EndpointRequestInit as EndpointRequestInit_1 } from "@vaadin/hilla-frontend";
+import client_1 from "./connect-client.default.js";
+async function getName_1(init?: EndpointRequestInit_1): Promise<string | undefined> { return client_1.call("ReadOnlyEndpoint", "getName", {}, { ...init, readOnly: true }); }
+async function updateName_1(init?: EndpointRequestInit_1): Promise<string | undefined> { return client_1.call("ReadOnlyEndpoint", "updateName", {}, init); }
+export { getName_1 as getName, updateName_1 as updateName };
@@ -0,0 +1,4 @@
+import { EndpointRequestInit as EndpointRequestInit_1 } from "@vaadin/hilla-frontend";
+import client_1 from "./connect-client.default.js";
+async function downloadResource_1(init?: EndpointRequestInit_1): Promise<Blob | undefined> { return client_1.call("DownloadEndpoint", "downloadResource", {}, { ...init, download: true }); }
+export { downloadResource_1 as downloadResource };